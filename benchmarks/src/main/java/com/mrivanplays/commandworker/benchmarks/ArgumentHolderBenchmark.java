@@ -0,0 +1,69 @@
+package com.mrivanplays.commandworker.benchmarks;
+
+import com.mrivanplays.commandworker.core.LiteralNode;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares parsing arguments with the compiled parse plan against the old per-construction
+ * derivation of the required arguments, and against reusing a pooled argument holder.
+ *
+ * <p>Run with <code>mvn -P benchmarks package</code> and then <code>
+ * java -jar benchmarks/target/benchmarks.jar ArgumentHolderBenchmark -prof gc</code>. The <code>
+ * gc.alloc.rate.norm</code> column shows the allocated bytes per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentHolderBenchmark {
+
+  @Param({"4", "50", "200"})
+  public int branches;
+
+  private LiteralNode structure;
+  private String input;
+  private ArgumentHolderPool pool;
+
+  @Setup
+  public void setup() {
+    structure = CommandTrees.economy(branches).freeze();
+    pool = structure.getArgumentHolderPool();
+    input = "sub1 MrIvanPlays 100 for being awesome";
+  }
+
+  @Benchmark
+  public Object legacyConstructor() {
+    return new LegacyArgumentHolder(input, structure).getArgumentData();
+  }
+
+  @Benchmark
+  public ArgumentHolder compiledPlan() {
+    return new ArgumentHolder(input, structure);
+  }
+
+  @Benchmark
+  public int pooledPathDirected() {
+    ArgumentHolder holder = pool.acquire(input, ParseMode.PATH_DIRECTED);
+    try {
+      return holder.size();
+    } finally {
+      pool.release(holder);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.mrivanplays.commandworker.benchmarks;
+
+import static com.mrivanplays.commandworker.core.argument.LiteralArgument.literal;
+import static com.mrivanplays.commandworker.core.argument.RequiredArgument.argument;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mrivanplays.commandworker.core.LiteralNode;
+
+/** Command structures shared between the benchmarks. */
+final class CommandTrees {
+
+  private CommandTrees() {}
+
+  /**
+   * Creates an economy-like command structure with the specified amount of sub command branches,
+   * each of them being <code>&lt;literal&gt; &lt;player&gt; &lt;amount&gt; [reason]</code>.
+   *
+   * @param branches sub command branches
+   * @return command structure
+   */
+  static LiteralNode economy(int branches) {
+    LiteralNode node = LiteralNode.node();
+    for (int i = 0; i < branches; i++) {
+      node.argument(
+          literal("sub" + i)
+              .then(
+                  argument("player" + i, StringArgumentType.word())
+                      .markShouldNotExecuteCommand()
+                      .then(
+                          argument("amount" + i, IntegerArgumentType.integer(0))
+                              .then(argument("reason" + i, StringArgumentType.greedyString())))));
+    }
+    return node;
+  }
+
+  /**
+   * Creates a warp-like command structure with the specified amount of literals at the first
+   * depth, named <code>warp0</code>, <code>warp1</code> and so on.
+   *
+   * @param literals literals
+   * @return command structure
+   */
+  static LiteralNode warps(int literals) {
+    LiteralNode node = LiteralNode.node();
+    for (int i = 0; i < literals; i++) {
+      node.argument(literal("warp" + i));
+    }
+    return node;
+  }
+}
@@ -0,0 +1,85 @@
+package com.mrivanplays.commandworker.benchmarks;
+
+import com.mrivanplays.commandworker.core.LiteralNode;
+import com.mrivanplays.commandworker.core.argument.Argument;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the legacy completions through the prefix index of a frozen node against the linear
+ * scan over every literal at the completed depth, for a command with a large literal fan-out, and
+ * the ranked completions limited to the best twenty suggestions, with and without the trigram index
+ * of the fuzzy completions.
+ *
+ * <p>Run with <code>mvn -P benchmarks package</code> and then <code>
+ * java -jar benchmarks/target/benchmarks.jar CompletionBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionBenchmark {
+
+  private static final int LIMIT = 20;
+
+  @Param({"100", "10000"})
+  public int literals;
+
+  // matches a single literal, ten literals and every literal
+  @Param({"warp4242", "warp424", ""})
+  public String prefix;
+
+  private LiteralNode structure;
+  private LiteralNode limitedStructure;
+  private LiteralNode fuzzyStructure;
+  private String[] args;
+
+  @Setup
+  public void setup() {
+    structure = CommandTrees.warps(literals).freeze();
+    limitedStructure = CommandTrees.warps(literals).limitCompletions(LIMIT).freeze();
+    fuzzyStructure =
+        CommandTrees.warps(literals).limitCompletions(LIMIT).fuzzyCompletions().freeze();
+    args = new String[] {prefix};
+  }
+
+  @Benchmark
+  public List<String> linearScan() {
+    List<String> ret = new ArrayList<>();
+    for (Argument argument : structure.getArgumentsByIndex(args.length - 1)) {
+      if (argument.getName().startsWith(prefix)) {
+        ret.add(argument.getName());
+      }
+    }
+    return ret;
+  }
+
+  @Benchmark
+  public List<String> prefixIndex() {
+    return structure.completeToStringList(args);
+  }
+
+  @Benchmark
+  public List<String> rankedTopK() {
+    return limitedStructure.completeToStringList(args);
+  }
+
+  @Benchmark
+  public List<String> fuzzyTopK() {
+    return fuzzyStructure.completeToStringList(args);
+  }
+}
@@ -0,0 +1,136 @@
+package com.mrivanplays.commandworker.benchmarks;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.LiteralNode;
+import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentData;
+import com.mrivanplays.commandworker.core.argument.parser.IndexRange;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Copy of the argument parsing the {@link
+ * com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder} constructor did before the
+ * command structure was compiled into a parse plan. Kept only as a baseline for the benchmarks.
+ */
+final class LegacyArgumentHolder {
+
+  private final String input;
+  private final StringReader reader;
+  private final Map<String, ArgumentData> argumentDataHolder;
+
+  LegacyArgumentHolder(String input, LiteralNode commandStructure) {
+    this.input = input;
+    this.reader = new StringReader(input);
+    reader.setCursor(0);
+    this.argumentDataHolder = new HashMap<>();
+
+    this.handleArguments(commandStructure.getArguments());
+  }
+
+  Map<String, ArgumentData> getArgumentData() {
+    return argumentDataHolder;
+  }
+
+  private void handleArguments(List<Argument> arguments) {
+    if (arguments.isEmpty()) {
+      return;
+    }
+    Map<Argument, Integer> newArgs = getRequiredArgs(arguments, -1);
+    if (input.isEmpty()) {
+      for (Map.Entry<Argument, Integer> args : newArgs.entrySet()) {
+        Argument arg = args.getKey();
+        argumentDataHolder.put(
+            arg.getName(), ArgumentData.newArgumentData(null, arg, null, null, null));
+      }
+      return;
+    }
+    Set<Entry<Argument, Integer>> entrySet =
+        newArgs.entrySet().stream()
+            .sorted(Entry.comparingByValue())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    int index = 0;
+    for (Map.Entry<Argument, Integer> entry : entrySet) {
+      Argument argument = entry.getKey();
+      int argumentIndex = entry.getValue();
+      reader.skipWhitespace();
+      int start = reader.getCursor();
+      if (argument.getArgumentType() == null) {
+        if (index == (entrySet.size() - 1)) {
+          String raw = reader.getRemaining();
+          int splitIndex = raw.split(" ").length - 1;
+          IndexRange range;
+          if (argumentIndex == splitIndex) {
+            range = new IndexRange(argumentIndex);
+          } else {
+            range = new IndexRange(argumentIndex, argumentIndex + splitIndex);
+          }
+          argumentDataHolder.put(
+              argument.getName(), ArgumentData.newArgumentData(range, argument, null, raw, null));
+        } else {
+          String raw = reader.readUnquotedString();
+          reader.skipWhitespace();
+          IndexRange range = new IndexRange(argumentIndex);
+          argumentDataHolder.put(
+              argument.getName(), ArgumentData.newArgumentData(range, argument, null, raw, null));
+        }
+        continue;
+      }
+
+      Object parsed;
+      try {
+        parsed = argument.getArgumentType().parse(reader);
+      } catch (CommandSyntaxException e) {
+        argumentDataHolder.put(
+            argument.getName(), ArgumentData.newArgumentData(null, argument, null, null, e));
+        continue;
+      }
+      int end = reader.getCursor();
+      reader.skipWhitespace();
+
+      String raw = input.substring(start, end);
+      int splitIndex;
+      if ((raw.length() == 1 && raw.charAt(0) == ' ') || raw.isEmpty()) {
+        argumentDataHolder.put(
+            argument.getName(), ArgumentData.newArgumentData(null, argument, null, null, null));
+        continue;
+      } else {
+        splitIndex = raw.split(" ").length - 1;
+      }
+      IndexRange range;
+      if (argumentIndex == splitIndex) {
+        range = new IndexRange(argumentIndex);
+      } else {
+        range = new IndexRange(argumentIndex, argumentIndex + splitIndex);
+      }
+      argumentDataHolder.put(
+          argument.getName(), ArgumentData.newArgumentData(range, argument, parsed, raw, null));
+      index++;
+    }
+  }
+
+  private Map<Argument, Integer> getRequiredArgs(List<Argument> arguments, int previousIndex) {
+    if (arguments.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<Argument, Integer> args = new HashMap<>();
+    for (Argument argument : arguments) {
+      int currentIndex = previousIndex + 1;
+      if (!argument.isLiteral()) {
+        args.put(argument, currentIndex);
+      }
+      if (argument.getChildren().isEmpty()) {
+        continue;
+      }
+      args.putAll(getRequiredArgs(argument.getChildren(), currentIndex));
+    }
+    return args;
+  }
+}
@@ -0,0 +1,82 @@
+package com.mrivanplays.commandworker.benchmarks;
+
+import com.mrivanplays.commandworker.core.metrics.CommandEvent;
+import com.mrivanplays.commandworker.core.metrics.CommandEvents;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
+import com.mrivanplays.commandworker.core.metrics.LatencyHistogram;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead the command metrics add to every dispatch: timing and recording a phase
+ * while the metrics are disabled and enabled, and recording a latency into a histogram alone, on a
+ * single thread and on four threads recording into the same metrics. Timing and recording a phase
+ * should stay under 50 nanoseconds. The cost of the flight recorder events of a phase while
+ * nothing is recorded, which should be next to nothing, is measured as well.
+ *
+ * <p>Run with <code>mvn -P benchmarks package</code> and then <code>
+ * java -jar benchmarks/target/benchmarks.jar MetricsBenchmark</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+  private CommandMetrics disabled;
+  private CommandMetrics enabled;
+  private LatencyHistogram histogram;
+  private long latency;
+
+  @Setup
+  public void setup() {
+    disabled = new CommandMetrics("disabled");
+    enabled = new CommandMetrics("enabled");
+    enabled.setEnabled(true);
+    histogram = new LatencyHistogram();
+    latency = TimeUnit.MICROSECONDS.toNanos(150);
+  }
+
+  @Benchmark
+  public void recordDisabled() {
+    disabled.recordExecute(disabled.start(), false);
+  }
+
+  @Benchmark
+  public void recordEnabled() {
+    enabled.recordExecute(enabled.start(), false);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void recordEnabledContended() {
+    enabled.recordExecute(enabled.start(), false);
+  }
+
+  @Benchmark
+  public boolean eventDisabled() {
+    CommandEvent event = CommandEvents.parse();
+    if (event.shouldCommit()) {
+      event.commit("disabled", "", null, 0);
+      return true;
+    }
+    return false;
+  }
+
+  @Benchmark
+  public void histogramRecord() {
+    histogram.record(latency);
+  }
+}
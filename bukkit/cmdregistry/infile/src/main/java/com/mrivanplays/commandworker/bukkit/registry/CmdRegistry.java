@@ -1,9 +1,22 @@
 package com.mrivanplays.commandworker.bukkit.registry;
 
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mrivanplays.commandworker.core.RegisteredCommand;
+import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 
 public interface CmdRegistry {
 
   void register(RegisteredCommand<CommandSender> command);
+
+  /**
+   * Sends the specified {@link CommandSyntaxException}, which an async command failed with, to the
+   * specified sender, the same way it's sent for the commands failing on the main thread.
+   *
+   * @param sender sender
+   * @param e exception
+   */
+  static void sendSyntaxException(CommandSender sender, CommandSyntaxException e) {
+    sender.sendMessage(ChatColor.RED + e.getMessage());
+  }
 }
@@ -4,11 +4,16 @@ import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
-import com.mrivanplays.commandworker.core.Command;
 import com.mrivanplays.commandworker.core.LiteralNode;
 import com.mrivanplays.commandworker.core.RegisteredCommand;
 import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
 import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import com.mrivanplays.commandworker.core.metrics.CommandEvent;
+import com.mrivanplays.commandworker.core.metrics.CommandEvents;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
 import java.util.List;
 import java.util.function.Predicate;
 import net.minecraft.server.v1_13_R2.CommandListenerWrapper;
@@ -25,42 +30,49 @@ public class CmdRegistry1_13_R2 implements CmdRegistry {
     for (String alias : command.getAliases()) {
       LiteralArgumentBuilder<CommandListenerWrapper> builder =
           LiteralArgumentBuilder.<CommandListenerWrapper>literal(alias)
-              .requires(getBrigadierRequires(command.getPermissionCheckFunction()));
+              .requires(getBrigadierRequires(command::hasPermission));
 
       LiteralNode node = command.getCommandStructure();
       if (node.shouldExecuteCommand()) {
-        builder.executes(getBrigadierCommand(command.getCommand(), alias, node));
+        builder.executes(getBrigadierCommand(command, alias, node, null));
       }
 
       if (node.getArguments().isEmpty()) {
-        dispatcher.register(
-            builder.executes(getBrigadierCommand(command.getCommand(), alias, node)));
+        dispatcher.register(builder.executes(getBrigadierCommand(command, alias, node, null)));
         continue;
       }
 
       LiteralArgumentBuilder<CommandListenerWrapper> filledBuilder =
           (LiteralArgumentBuilder<CommandListenerWrapper>)
               handleArguments(
-                  command.getCommand(),
-                  alias,
-                  node.getArguments(),
-                  command.getPermissionCheckFunction(),
-                  node,
-                  builder);
+                  command, alias, node.getTree(), command::hasPermission, node, builder);
 
       dispatcher.register(filledBuilder);
     }
   }
 
   private com.mojang.brigadier.Command<CommandListenerWrapper> getBrigadierCommand(
-      Command<CommandSender> command, String alias, LiteralNode structure) {
-    return context ->
-        command.execute(
-                context.getSource().getBukkitSender(),
-                alias,
-                new ArgumentHolder(context.getInput().replace(alias + " ", ""), structure))
-            ? 1
-            : 0;
+      RegisteredCommand<CommandSender> command,
+      String alias,
+      LiteralNode structure,
+      Argument argument) {
+    ArgumentHolderPool holders = structure.getArgumentHolderPool();
+    CommandMetrics metrics = command.getMetrics();
+    return context -> {
+      CommandSender sender = context.getSource().getBukkitSender();
+      // the rate limits are checked before parsing, and brigadier reports the rejection
+      command.checkRateLimit(sender);
+      command.checkRateLimit(sender, argument);
+      // the parse time, lazy parsing included, is recorded once the holder is released
+      ArgumentHolder args =
+          holders.acquire(
+              context.getInput().replace(alias + " ", ""), ParseMode.LAZY, sender, metrics);
+      try {
+        return command.execute(sender, alias, args, CmdRegistry::sendSyntaxException) ? 1 : 0;
+      } finally {
+        holders.release(args);
+      }
+    };
   }
 
   private Predicate<CommandListenerWrapper> getBrigadierRequires(
@@ -69,16 +81,16 @@ public class CmdRegistry1_13_R2 implements CmdRegistry {
   }
 
   private ArgumentBuilder<CommandListenerWrapper, ?> handleArguments(
-      Command<CommandSender> command,
+      RegisteredCommand<CommandSender> command,
       String alias,
-      List<Argument> arguments,
+      List<ArgumentNode> arguments,
       Predicate<CommandSender> permissionCheck,
       LiteralNode commandStructure,
       ArgumentBuilder<CommandListenerWrapper, ?> builder) {
     if (arguments.isEmpty()) {
       return builder;
     }
-    for (Argument argument : arguments) {
+    for (ArgumentNode argument : arguments) {
       builder.then(
           handleArguments(
               command,
@@ -94,37 +106,50 @@ public class CmdRegistry1_13_R2 implements CmdRegistry {
   }
 
   private LiteralArgumentBuilder<CommandListenerWrapper> getLiteral(
-      Command<CommandSender> command,
+      RegisteredCommand<CommandSender> command,
       String commandAlias,
-      Argument argument,
+      ArgumentNode argument,
       Predicate<CommandSender> permissionCheck,
       LiteralNode commandStructure) {
     LiteralArgumentBuilder<CommandListenerWrapper> builder =
         LiteralArgumentBuilder.literal(argument.getName());
     builder.requires(getBrigadierRequires(permissionCheck));
     if (argument.shouldExecuteCommand()) {
-      builder.executes(getBrigadierCommand(command, commandAlias, commandStructure));
+      builder.executes(
+          getBrigadierCommand(command, commandAlias, commandStructure, argument.getArgument()));
     }
     return builder;
   }
 
   private RequiredArgumentBuilder<CommandListenerWrapper, Object> getRequired(
-      Command<CommandSender> command,
+      RegisteredCommand<CommandSender> command,
       String commandAlias,
-      Argument argument,
+      ArgumentNode argument,
       Predicate<CommandSender> permissionCheck,
       LiteralNode commandStructure) {
     RequiredArgumentBuilder<CommandListenerWrapper, Object> required =
         RequiredArgumentBuilder.argument(argument.getName(), argument.getArgumentType());
     required.requires(getBrigadierRequires(permissionCheck));
     if (argument.shouldExecuteCommand()) {
-      required.executes(getBrigadierCommand(command, commandAlias, commandStructure));
+      required.executes(
+          getBrigadierCommand(command, commandAlias, commandStructure, argument.getArgument()));
     }
-    if (argument.getSuggestionsConsumer() != null) {
+    if (argument.hasCustomSuggestions()) {
+      CommandMetrics metrics = command.getMetrics();
       required.suggests(
           (context, builder) -> {
-            argument.getSuggestionsConsumer().accept(builder);
-            return builder.buildFuture();
+            CommandEvent event = CommandEvents.suggest();
+            long start = metrics.start();
+            CommandSender sender = context.getSource().getBukkitSender();
+            return metrics.recordSuggest(
+                start,
+                CommandEvents.commitWhenComplete(
+                    event,
+                    argument.listSuggestions(builder, sender),
+                    commandAlias,
+                    argument,
+                    sender,
+                    builder.getInput().length()));
           });
     }
     return required;
@@ -5,17 +5,26 @@ import com.mrivanplays.commandworker.bukkit.internal.BukkitBridgeCommand;
 import com.mrivanplays.commandworker.bukkit.registry.CmdRegistry;
 import com.mrivanplays.commandworker.bukkit.registry.CmdRegistryHandler;
 import com.mrivanplays.commandworker.core.Command;
+import com.mrivanplays.commandworker.core.CommandExecutors;
 import com.mrivanplays.commandworker.core.CommandManager;
+import com.mrivanplays.commandworker.core.RateLimiter;
 import com.mrivanplays.commandworker.core.RegisteredCommand;
+import com.mrivanplays.commandworker.core.Scheduler;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandMap;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -28,9 +37,15 @@ public class BukkitCommandManager implements CommandManager<CommandSender> {
 
   private boolean shouldFallback = true;
 
+  private volatile Executor executor = CommandExecutors.defaultExecutor();
+  private volatile Scheduler scheduler;
+  private volatile boolean metricsEnabled;
+
   public BukkitCommandManager(JavaPlugin plugin) {
     this.plugin = plugin;
+    this.scheduler = task -> Bukkit.getScheduler().runTask(plugin, task);
     this.registeredCommands = new ArrayList<>();
+    Bukkit.getPluginManager().registerEvents(new SenderEvictionListener(), plugin);
     if (CmdRegistryHandler.isSupported()) {
       MinecraftArgumentTypesAccessor.ensureSetup();
     }
@@ -41,6 +56,15 @@ public class BukkitCommandManager implements CommandManager<CommandSender> {
       @NotNull Command<CommandSender> command,
       @Nullable Predicate<CommandSender> permissionCheck,
       @NotNull String... aliases) {
+    register(command, permissionCheck, null, aliases);
+  }
+
+  @Override
+  public void register(
+      @NotNull Command<CommandSender> command,
+      @Nullable Predicate<CommandSender> permissionCheck,
+      @Nullable RateLimiter rateLimiter,
+      @NotNull String... aliases) {
     Objects.requireNonNull(command, "command");
     if (permissionCheck == null) {
       permissionCheck = (sender) -> true;
@@ -51,7 +75,7 @@ public class BukkitCommandManager implements CommandManager<CommandSender> {
       return;
     }
     RegisteredCommand<CommandSender> registeredCommand =
-        new RegisteredCommand<>(populatedAliases, command, permissionCheck);
+        new RegisteredCommand<>(populatedAliases, command, permissionCheck, rateLimiter, this);
     registeredCommands.add(registeredCommand);
     CmdRegistry registry = CmdRegistryHandler.getRegistry();
     if (!isBrigadierSupported()) {
@@ -76,6 +100,62 @@ public class BukkitCommandManager implements CommandManager<CommandSender> {
     this.shouldFallback = shouldFallback;
   }
 
+  @Override
+  @NotNull
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public void setExecutor(@NotNull Executor executor) {
+    this.executor = Objects.requireNonNull(executor, "executor");
+  }
+
+  /**
+   * Returns the {@link Scheduler}, through which the results of the async commands are handed back
+   * to the main thread. By default, this schedules them as tasks of the plugin.
+   *
+   * @return scheduler
+   */
+  @Override
+  @NotNull
+  public Scheduler getScheduler() {
+    return scheduler;
+  }
+
+  @Override
+  public void setScheduler(@NotNull Scheduler scheduler) {
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+  }
+
+  @Override
+  public boolean isMetricsEnabled() {
+    return metricsEnabled;
+  }
+
+  @Override
+  public void setMetricsEnabled(boolean metricsEnabled) {
+    this.metricsEnabled = metricsEnabled;
+    for (RegisteredCommand<CommandSender> command : registeredCommands) {
+      command.getMetrics().setEnabled(metricsEnabled);
+    }
+  }
+
+  /**
+   * Returns the id the rate limiters tell the specified sender apart by, which is its unique id if
+   * it's an entity, such as a player.
+   *
+   * @param sender sender
+   * @return sender id
+   */
+  @Override
+  public long getSenderId(@NotNull CommandSender sender) {
+    if (sender instanceof Entity) {
+      return RateLimiter.senderId(((Entity) sender).getUniqueId());
+    }
+    return System.identityHashCode(sender);
+  }
+
   @Override
   public boolean isBrigadierSupported() {
     return CmdRegistryHandler.isSupported();
@@ -97,6 +177,14 @@ public class BukkitCommandManager implements CommandManager<CommandSender> {
     return Collections.unmodifiableList(registeredCommands);
   }
 
+  private final class SenderEvictionListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+      evictSender(event.getPlayer());
+    }
+  }
+
   @Override
   public String toString() {
     return "BukkitCommandManager(plugin="
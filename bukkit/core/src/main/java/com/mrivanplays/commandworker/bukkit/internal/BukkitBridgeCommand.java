@@ -1,10 +1,14 @@
 package com.mrivanplays.commandworker.bukkit.internal;
 
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.CommandExceptions;
 import com.mrivanplays.commandworker.core.LiteralNode;
 import com.mrivanplays.commandworker.core.RegisteredCommand;
 import com.mrivanplays.commandworker.core.argument.Argument;
 import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
 import java.util.Arrays;
 import java.util.List;
 import org.bukkit.ChatColor;
@@ -12,6 +16,9 @@ import org.bukkit.command.CommandSender;
 
 public class BukkitBridgeCommand extends org.bukkit.command.Command {
 
+  private static final String UNKNOWN_COMMAND =
+      ChatColor.RED + CommandExceptions.UNKNOWN_COMMAND.getMessage();
+
   private final RegisteredCommand<CommandSender> command;
 
   public BukkitBridgeCommand(RegisteredCommand<CommandSender> command, String[] aliases) {
@@ -30,45 +37,67 @@ public class BukkitBridgeCommand extends org.bukkit.command.Command {
 
   @Override
   public boolean execute(CommandSender sender, String commandLabel, String[] args) {
-    LiteralNode structure = command.getCommandStructure();
-    ArgumentHolder holder = new ArgumentHolder(String.join(" ", args), structure);
-    if (args.length == 0 && structure.shouldExecuteCommand()) {
-      return executeCommand(sender, commandLabel, holder);
-    } else if (args.length == 0) {
-      sender.sendMessage(
-          ChatColor.RED
-              + CommandSyntaxException.BUILT_IN_EXCEPTIONS
-                  .dispatcherUnknownCommand()
-                  .create()
-                  .getMessage());
+    try {
+      // the rate limit of the command is checked before parsing, so rejected spam costs nothing
+      command.checkRateLimit(sender);
+    } catch (CommandSyntaxException e) {
+      sendSyntaxException(sender, e);
       return true;
     }
-    Argument argument = holder.getLastArgument();
-    if (argument.shouldExecuteCommand()) {
-      return executeCommand(sender, commandLabel, holder);
-    } else {
-      sender.sendMessage(
-          ChatColor.RED
-              + CommandSyntaxException.BUILT_IN_EXCEPTIONS
-                  .dispatcherUnknownCommand()
-                  .create()
-                  .getMessage());
-      return true;
+    LiteralNode structure = command.getCommandStructure();
+    ArgumentHolderPool holders = structure.getArgumentHolderPool();
+    CommandMetrics metrics = command.getMetrics();
+    // the parse time is recorded once the holder is released
+    ArgumentHolder holder = holders.acquire(args, ParseMode.PATH_DIRECTED, sender, metrics);
+    try {
+      if (args.length == 0 && structure.shouldExecuteCommand()) {
+        return executeCommand(sender, commandLabel, holder, null);
+      } else if (args.length == 0) {
+        sender.sendMessage(UNKNOWN_COMMAND);
+        return true;
+      }
+      Argument argument = holder.getLastArgument();
+      if (argument != null && argument.shouldExecuteCommand()) {
+        return executeCommand(sender, commandLabel, holder, argument);
+      } else {
+        sender.sendMessage(UNKNOWN_COMMAND);
+        return true;
+      }
+    } finally {
+      holders.release(holder);
     }
   }
 
-  private boolean executeCommand(CommandSender sender, String label, ArgumentHolder args) {
+  private boolean executeCommand(
+      CommandSender sender, String label, ArgumentHolder args, Argument argument) {
     try {
-      return command.getCommand().execute(sender, label, args);
+      command.checkRateLimit(sender, argument);
+      return command.execute(
+          sender, label, args, this::handleAsyncResult, BukkitBridgeCommand::sendSyntaxException);
     } catch (CommandSyntaxException e) {
-      sender.sendMessage(ChatColor.RED + e.getMessage());
+      sendSyntaxException(sender, e);
       return true;
     }
   }
 
+  // async commands return right away, so the usage bukkit sends for failed commands is sent here
+  private void handleAsyncResult(CommandSender sender, boolean success) {
+    if (!success && !getUsage().isEmpty()) {
+      sender.sendMessage(getUsage().split("\n"));
+    }
+  }
+
+  private static void sendSyntaxException(CommandSender sender, CommandSyntaxException e) {
+    sender.sendMessage(ChatColor.RED + e.getMessage());
+  }
+
   @Override
   public List<String> tabComplete(CommandSender sender, String alias, String[] args)
       throws IllegalArgumentException {
-    return command.getCommandStructure().completeToStringList(args);
+    CommandMetrics metrics = command.getMetrics();
+    long start = metrics.start();
+    List<String> completions = command.getCommandStructure().completeToStringList(args, sender);
+    metrics.recordSuggest(start);
+    return completions;
   }
 }
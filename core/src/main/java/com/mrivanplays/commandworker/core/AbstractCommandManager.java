@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -18,6 +19,9 @@ public abstract class AbstractCommandManager<S> implements CommandManager<S> {
 
   protected List<RegisteredCommand<S>> registeredCommands;
   protected boolean shouldFallback = true;
+  protected volatile Executor executor = CommandExecutors.defaultExecutor();
+  protected volatile Scheduler scheduler = Scheduler.direct();
+  protected volatile boolean metricsEnabled;
 
   public AbstractCommandManager() {
     registeredCommands = new ArrayList<>();
@@ -28,6 +32,15 @@ public abstract class AbstractCommandManager<S> implements CommandManager<S> {
       @NotNull Command<S> command,
       @Nullable Predicate<S> permissionCheck,
       @NotNull String... aliases) {
+    register(command, permissionCheck, null, aliases);
+  }
+
+  @Override
+  public void register(
+      @NotNull Command<S> command,
+      @Nullable Predicate<S> permissionCheck,
+      @Nullable RateLimiter rateLimiter,
+      @NotNull String... aliases) {
     Objects.requireNonNull(command, "command");
     if (permissionCheck == null) {
       permissionCheck = (sender) -> true;
@@ -37,7 +50,7 @@ public abstract class AbstractCommandManager<S> implements CommandManager<S> {
       return;
     }
     RegisteredCommand<S> registeredCommand =
-        new RegisteredCommand<>(aliases, command, permissionCheck);
+        new RegisteredCommand<>(aliases, command, permissionCheck, rateLimiter, this);
     registeredCommands.add(registeredCommand);
     handleRegistration(registeredCommand);
   }
@@ -54,6 +67,41 @@ public abstract class AbstractCommandManager<S> implements CommandManager<S> {
     this.shouldFallback = shouldFallback;
   }
 
+  @Override
+  @NotNull
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public void setExecutor(@NotNull Executor executor) {
+    this.executor = Objects.requireNonNull(executor, "executor");
+  }
+
+  @Override
+  @NotNull
+  public Scheduler getScheduler() {
+    return scheduler;
+  }
+
+  @Override
+  public void setScheduler(@NotNull Scheduler scheduler) {
+    this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+  }
+
+  @Override
+  public boolean isMetricsEnabled() {
+    return metricsEnabled;
+  }
+
+  @Override
+  public void setMetricsEnabled(boolean metricsEnabled) {
+    this.metricsEnabled = metricsEnabled;
+    for (RegisteredCommand<S> command : registeredCommands) {
+      command.getMetrics().setEnabled(metricsEnabled);
+    }
+  }
+
   @Override
   @NotNull
   public List<RegisteredCommand<S>> getRegisteredCommands() {
@@ -0,0 +1,76 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a command, which executes asynchronously, so slow work, such as database queries,
+ * doesn't hold up the thread the command was dispatched on.
+ *
+ * <p>The platforms execute the command on the {@link CommandManager#getExecutor() executor} of the
+ * command manager it's registered with, and hand the result back to the thread owning the sender
+ * through the {@link CommandManager#getScheduler() scheduler}, where a {@link
+ * CommandSyntaxException} the command failed with is reported to the sender, and the usage of the
+ * command is sent on Bukkit if it completed with <code>false</code>, the same as for a {@link
+ * Command}.
+ *
+ * @param <S> the sender type.
+ */
+public interface AsyncCommand<S> extends Command<S> {
+
+  /**
+   * Execute this command with the provided sender, label and arguments. This is called on the
+   * executor of the command manager, rather than the thread the command was dispatched on.
+   *
+   * <p>The {@link ArgumentHolder} is a snapshot, so it can be used from any thread and after the
+   * returned future has completed.
+   *
+   * @param sender sender
+   * @param label label
+   * @param args arguments
+   * @return future of the success state, which may complete exceptionally with a {@link
+   *     CommandSyntaxException}
+   */
+  @NotNull
+  CompletableFuture<Boolean> executeAsync(
+      @NotNull S sender, @NotNull String label, @NotNull ArgumentHolder args)
+      throws CommandSyntaxException;
+
+  /**
+   * Returns the {@link Bulkhead} limiting the executions of this command, or null if they're not
+   * limited. This is read once, when the command is registered, so it should return the same
+   * instance every time. Commands returning the same instance are limited as a group.
+   *
+   * @return bulkhead, or null
+   */
+  @Nullable
+  default Bulkhead getBulkhead() {
+    return null;
+  }
+
+  /**
+   * Executes this command and waits for it to complete. The platforms never call this, it's only
+   * here for when an async command is executed directly.
+   *
+   * @param sender sender
+   * @param label label
+   * @param args arguments
+   * @return success state
+   */
+  @Override
+  default boolean execute(@NotNull S sender, @NotNull String label, @NotNull ArgumentHolder args)
+      throws CommandSyntaxException {
+    try {
+      return executeAsync(sender, label, args.snapshot()).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof CommandSyntaxException) {
+        throw (CommandSyntaxException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
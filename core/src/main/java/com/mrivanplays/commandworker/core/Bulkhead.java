@@ -0,0 +1,299 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a bulkhead of {@link AsyncCommand}s, which limits how many of their executions run at
+ * once, so a slow command being spammed can't take up every thread of the executor the other
+ * commands run on. A bulkhead may be shared between multiple commands, limiting them as a group.
+ *
+ * <p>Once the limit is reached, the executions wait in a bounded queue, and once the queue is full
+ * too, they're rejected with the {@link #getRejectMessage() reject message}. The executions of a
+ * single sender, running or waiting, can also be limited, so a single sender can't fill the queue.
+ * An execution is running until the future of the command completes.
+ *
+ * @see AsyncCommand#getBulkhead()
+ */
+public final class Bulkhead {
+
+  /** The message the executions are rejected with by default. */
+  public static final String DEFAULT_REJECT_MESSAGE = "This command is busy, try again later";
+
+  /**
+   * Creates a new bulkhead, which runs up to the specified amount of executions at once, and holds
+   * up to the specified amount of executions waiting for them.
+   *
+   * @param maxConcurrent the maximum amount of running executions
+   * @param maxQueued the maximum amount of waiting executions
+   * @return bulkhead
+   */
+  @NotNull
+  public static Bulkhead create(int maxConcurrent, int maxQueued) {
+    if (maxConcurrent <= 0) {
+      throw new IllegalArgumentException("maxConcurrent should be positive");
+    }
+    if (maxQueued < 0) {
+      throw new IllegalArgumentException("maxQueued should not be negative");
+    }
+    return new Bulkhead(maxConcurrent, maxQueued);
+  }
+
+  private final int maxConcurrent;
+  private final int maxQueued;
+  private volatile int maxPerSender = Integer.MAX_VALUE;
+  private volatile String rejectMessage = DEFAULT_REJECT_MESSAGE;
+
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  private final Map<Object, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder rejectedQueueFull = new LongAdder();
+  private final LongAdder rejectedPerSender = new LongAdder();
+
+  private Bulkhead(int maxConcurrent, int maxQueued) {
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueued = maxQueued;
+  }
+
+  /**
+   * Limits the executions of a single sender, running or waiting, to the specified amount.
+   *
+   * @param maxPerSender the maximum amount of executions of a single sender
+   * @return this instance for chaining
+   */
+  @NotNull
+  public Bulkhead limitPerSender(int maxPerSender) {
+    if (maxPerSender <= 0) {
+      throw new IllegalArgumentException("maxPerSender should be positive");
+    }
+    this.maxPerSender = maxPerSender;
+    return this;
+  }
+
+  /**
+   * Sets the message the rejected executions are reported to the sender with.
+   *
+   * @param rejectMessage reject message
+   * @return this instance for chaining
+   */
+  @NotNull
+  public Bulkhead rejectMessage(@NotNull String rejectMessage) {
+    this.rejectMessage = Objects.requireNonNull(rejectMessage, "rejectMessage");
+    return this;
+  }
+
+  /**
+   * Runs the specified task on the specified executor for the specified sender, once there's room
+   * for it.
+   *
+   * @param sender sender
+   * @param executor executor
+   * @param task task
+   * @param <T> the result type of the task
+   * @return future, completed once the future of the task completes
+   * @throws CommandSyntaxException if the execution is rejected
+   */
+  @NotNull
+  <T> CompletableFuture<T> execute(
+      @NotNull Object sender,
+      @NotNull Executor executor,
+      @NotNull Supplier<CompletableFuture<T>> task)
+      throws CommandSyntaxException {
+    AtomicInteger ofSender = inFlight.computeIfAbsent(sender, key -> new AtomicInteger());
+    if (ofSender.incrementAndGet() > maxPerSender) {
+      releaseSender(sender, ofSender);
+      rejectedPerSender.increment();
+      throw CommandExceptions.of(rejectMessage).create();
+    }
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Runnable execution = () -> run(task, result);
+    result.whenComplete((value, error) -> releaseSender(sender, ofSender));
+    if (queue.isEmpty() && tryAcquire()) {
+      dispatch(execution, executor, result);
+      return result;
+    }
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      rejectedQueueFull.increment();
+      // completing the result releases the sender
+      result.cancel(false);
+      throw CommandExceptions.of(rejectMessage).create();
+    }
+    queue.add(() -> dispatch(execution, executor, result));
+    drain();
+    return result;
+  }
+
+  private <T> void run(Supplier<CompletableFuture<T>> task, CompletableFuture<T> result) {
+    CompletableFuture<T> future;
+    try {
+      future = task.get();
+      if (future == null) {
+        throw new NullPointerException("The task returned a null future");
+      }
+    } catch (Throwable e) {
+      future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+    }
+    future.whenComplete(
+        (value, error) -> {
+          // the next execution is started before the result is handed on, so a slow handler
+          // doesn't hold up the queue
+          running.decrementAndGet();
+          drain();
+          if (error != null) {
+            result.completeExceptionally(error);
+          } else {
+            result.complete(value);
+          }
+        });
+  }
+
+  private void dispatch(Runnable execution, Executor executor, CompletableFuture<?> result) {
+    try {
+      executor.execute(execution);
+    } catch (RejectedExecutionException e) {
+      running.decrementAndGet();
+      rejectedQueueFull.increment();
+      result.completeExceptionally(CommandExceptions.of(rejectMessage).create());
+      drain();
+    }
+  }
+
+  // starts the waiting executions while there's room for them. A slot is taken before polling, so
+  // an execution queued right after another one completed isn't left waiting
+  private void drain() {
+    while (!queue.isEmpty() && tryAcquire()) {
+      Runnable next = queue.poll();
+      if (next == null) {
+        running.decrementAndGet();
+        continue;
+      }
+      queued.decrementAndGet();
+      next.run();
+    }
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      int current = running.get();
+      if (current >= maxConcurrent) {
+        return false;
+      }
+      if (running.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void releaseSender(Object sender, AtomicInteger ofSender) {
+    if (ofSender.decrementAndGet() == 0) {
+      inFlight.remove(sender, ofSender);
+    }
+  }
+
+  /**
+   * Returns the maximum amount of running executions.
+   *
+   * @return concurrency limit
+   */
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  /**
+   * Returns the maximum amount of waiting executions.
+   *
+   * @return queue capacity
+   */
+  public int getMaxQueued() {
+    return maxQueued;
+  }
+
+  /**
+   * Returns the maximum amount of executions of a single sender, or {@link Integer#MAX_VALUE} if
+   * they're not limited.
+   *
+   * @return sender limit
+   */
+  public int getMaxPerSender() {
+    return maxPerSender;
+  }
+
+  /**
+   * Returns the message the rejected executions are reported to the sender with.
+   *
+   * @return reject message
+   */
+  @NotNull
+  public String getRejectMessage() {
+    return rejectMessage;
+  }
+
+  /**
+   * Returns the amount of running executions.
+   *
+   * @return running executions
+   */
+  public int getRunning() {
+    return running.get();
+  }
+
+  /**
+   * Returns the amount of executions waiting to run, the depth of the queue.
+   *
+   * @return waiting executions
+   */
+  public int getQueued() {
+    return queued.get();
+  }
+
+  /**
+   * Returns the amount of executions rejected because the queue was full.
+   *
+   * @return rejected executions
+   */
+  public long getRejectedQueueFull() {
+    return rejectedQueueFull.sum();
+  }
+
+  /**
+   * Returns the amount of executions rejected because their sender had too many executions.
+   *
+   * @return rejected executions
+   */
+  public long getRejectedPerSender() {
+    return rejectedPerSender.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "Bulkhead(maxConcurrent="
+        + maxConcurrent
+        + ", maxQueued="
+        + maxQueued
+        + ", maxPerSender="
+        + maxPerSender
+        + ", running="
+        + running.get()
+        + ", queued="
+        + queued.get()
+        + ", rejectedQueueFull="
+        + rejectedQueueFull.sum()
+        + ", rejectedPerSender="
+        + rejectedPerSender.sum()
+        + ")";
+  }
+}
@@ -1,8 +1,6 @@
 package com.mrivanplays.commandworker.core;
 
-import com.mojang.brigadier.LiteralMessage;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
-import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
 import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
 import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
@@ -20,6 +18,10 @@ public interface Command<S> {
    * <p>If the framework this command is being registered on doesn't give a label, the label
    * specified is "unknown".
    *
+   * <p>The {@link ArgumentHolder} is only valid during this call, as it gets reused for the next
+   * executions. If the arguments are needed after the command has executed, use {@link
+   * ArgumentHolder#snapshot()}.
+   *
    * @param sender sender
    * @param label label
    * @param args arguments
@@ -38,7 +40,9 @@ public interface Command<S> {
   LiteralNode createCommandStructure();
 
   /**
-   * Helper method for creating {@link CommandSyntaxException}s
+   * Helper method for creating {@link CommandSyntaxException}s. The exception types are cached by
+   * message, and the exceptions are created without a stack trace. Every call returns a new
+   * exception, so a cause or a suppressed exception can be added to it.
    *
    * @param message message
    * @return command syntax exception
@@ -46,6 +50,6 @@ public interface Command<S> {
   @NotNull
   default CommandSyntaxException syntaxException(@NotNull String message) {
     Objects.requireNonNull(message, "message");
-    return new SimpleCommandExceptionType(new LiteralMessage(message)).create();
+    return CommandExceptions.of(message).createNew();
   }
 }
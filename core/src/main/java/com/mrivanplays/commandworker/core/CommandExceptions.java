@@ -0,0 +1,81 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registry of reusable {@link StacklessExceptionType}s, used wherever commandworker creates {@link
+ * CommandSyntaxException}s itself.
+ *
+ * <p>The exceptions are created without a stack trace by default, as they're only ever used to
+ * report bad input back to the sender, and walking the stack for them is wasted work when the
+ * input is spammed. The stack traces can be turned back on with {@link #setStackless(boolean)}.
+ * This does not affect the exceptions thrown by the brigadier argument types themselves, which
+ * are controlled by {@link CommandSyntaxException#ENABLE_COMMAND_STACK_TRACES}.
+ */
+public final class CommandExceptions {
+
+  private static final int MAX_CACHED_MESSAGES = 256;
+  private static final Map<String, StacklessExceptionType> BY_MESSAGE = new ConcurrentHashMap<>();
+
+  private static volatile boolean stackless = true;
+
+  /** The "unknown command" exception of brigadier. */
+  public static final StacklessExceptionType UNKNOWN_COMMAND =
+      fromBuiltIn(CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownCommand());
+
+  /** The "expected whitespace to end one argument" exception of brigadier. */
+  public static final StacklessExceptionType EXPECTED_ARGUMENT_SEPARATOR =
+      fromBuiltIn(CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherExpectedArgumentSeparator());
+
+  private CommandExceptions() {}
+
+  private static StacklessExceptionType fromBuiltIn(SimpleCommandExceptionType type) {
+    return new StacklessExceptionType(type, type.create().getRawMessage());
+  }
+
+  /**
+   * Returns the exception type with the specified message. The types are cached by their message,
+   * up to a limit, after which new types are created, so messages built out of the input don't fill
+   * the cache.
+   *
+   * @param message message
+   * @return exception type
+   */
+  @NotNull
+  public static StacklessExceptionType of(@NotNull String message) {
+    Objects.requireNonNull(message, "message");
+    StacklessExceptionType type = BY_MESSAGE.get(message);
+    if (type != null) {
+      return type;
+    }
+    if (BY_MESSAGE.size() >= MAX_CACHED_MESSAGES) {
+      return new StacklessExceptionType(new LiteralMessage(message));
+    }
+    return BY_MESSAGE.computeIfAbsent(
+        message, key -> new StacklessExceptionType(new LiteralMessage(key)));
+  }
+
+  /**
+   * Returns whether or not the exceptions are created without a stack trace.
+   *
+   * @return <code>true</code> if stackless, <code>false</code> otherwise
+   */
+  public static boolean isStackless() {
+    return stackless;
+  }
+
+  /**
+   * Sets whether or not the exceptions should be created without a stack trace.
+   *
+   * @param stackless whether the exceptions should be stackless
+   */
+  public static void setStackless(boolean stackless) {
+    CommandExceptions.stackless = stackless;
+  }
+}
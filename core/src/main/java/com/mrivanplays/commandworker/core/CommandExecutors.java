@@ -0,0 +1,123 @@
+package com.mrivanplays.commandworker.core;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Factory of the {@link Executor}s, which {@link AsyncCommand}s are executed on.
+ *
+ * @see CommandManager#setExecutor(Executor)
+ */
+public final class CommandExecutors {
+
+  private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+  private CommandExecutors() {}
+
+  /**
+   * Returns the executor the command managers use by default, a bounded pool shared between them,
+   * with a thread for every processor, but at least two.
+   *
+   * @return default executor
+   */
+  @NotNull
+  public static Executor defaultExecutor() {
+    return DefaultExecutorHolder.EXECUTOR;
+  }
+
+  /**
+   * Creates a new pool of up to the specified amount of daemon threads, which holds up to the
+   * specified amount of commands waiting for a thread, and rejects the ones after them. The
+   * threads are stopped once idle for a minute.
+   *
+   * @param threads the maximum amount of threads
+   * @param queueCapacity the maximum amount of waiting commands
+   * @return bounded executor
+   */
+  @NotNull
+  public static ExecutorService bounded(int threads, int queueCapacity) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads should be positive");
+    }
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException("queueCapacity should be positive");
+    }
+    AtomicInteger count = new AtomicInteger();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            1,
+            TimeUnit.MINUTES,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              String name = "CommandWorker Command Executor #" + count.incrementAndGet();
+              Thread thread = new Thread(runnable, name);
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Creates a new executor, which starts a virtual thread for every command, on Java 21 and newer.
+   * Virtual threads are cheap to block, so they suit commands waiting on databases or the network.
+   * On older Java versions, this falls back to the {@link #bounded(int, int)} pool the command
+   * managers use by default.
+   *
+   * @return virtual thread executor
+   * @see #isVirtualThreadsSupported()
+   */
+  @NotNull
+  public static ExecutorService virtualThreads() {
+    Method factory = VirtualThreadsHolder.FACTORY;
+    if (factory != null) {
+      try {
+        return (ExecutorService) factory.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        // fall back to the bounded pool
+      }
+    }
+    return createDefault();
+  }
+
+  /**
+   * Returns whether or not the running Java version supports virtual threads.
+   *
+   * @return <code>true</code> if supported, <code>false</code> otherwise
+   */
+  public static boolean isVirtualThreadsSupported() {
+    return VirtualThreadsHolder.FACTORY != null;
+  }
+
+  private static ExecutorService createDefault() {
+    return bounded(Math.max(2, Runtime.getRuntime().availableProcessors()), DEFAULT_QUEUE_CAPACITY);
+  }
+
+  private static final class DefaultExecutorHolder {
+
+    private static final Executor EXECUTOR = createDefault();
+  }
+
+  // the virtual threads are looked up reflectively, so this still runs on Java 8
+  private static final class VirtualThreadsHolder {
+
+    private static final Method FACTORY = findFactory();
+
+    private static Method findFactory() {
+      try {
+        return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      } catch (NoSuchMethodException e) {
+        return null;
+      }
+    }
+  }
+}
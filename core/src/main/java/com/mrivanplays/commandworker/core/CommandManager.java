@@ -1,7 +1,9 @@
 package com.mrivanplays.commandworker.core;
 
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -32,7 +34,33 @@ public interface CommandManager<S> {
    * @param permissionCheck permission check
    * @param aliases aliases
    */
-  void register(@NotNull Command<S> command, @Nullable Predicate<S> permissionCheck, @NotNull String... aliases);
+  void register(
+      @NotNull Command<S> command,
+      @Nullable Predicate<S> permissionCheck,
+      @NotNull String... aliases);
+
+  /**
+   * Registers the specified command with the identifying aliases, giving option to check for
+   * permissions and to limit how often each sender can execute it. The registration will fallback
+   * to bukkit if brigadier isn't present.
+   *
+   * @param command the command you want to register
+   * @param permissionCheck permission check
+   * @param rateLimiter rate limiter, or <code>null</code> to not limit the command
+   * @param aliases aliases
+   * @throws UnsupportedOperationException if a rate limiter is specified, but the command manager
+   *     doesn't support limiting the commands, which is the default
+   */
+  default void register(
+      @NotNull Command<S> command,
+      @Nullable Predicate<S> permissionCheck,
+      @Nullable RateLimiter rateLimiter,
+      @NotNull String... aliases) {
+    if (rateLimiter != null) {
+      throw new UnsupportedOperationException("register with rate limiter");
+    }
+    register(command, permissionCheck, aliases);
+  }
 
   /**
    * Returns whether or not brigadier is supported for this command manager.
@@ -55,6 +83,102 @@ public interface CommandManager<S> {
    */
   void setShouldFallback(boolean shouldFallback);
 
+  /**
+   * Returns the {@link Executor}, which the {@link AsyncCommand}s registered with this command
+   * manager are executed on. By default, this is {@link CommandExecutors#defaultExecutor()}.
+   *
+   * @return executor
+   */
+  @NotNull
+  default Executor getExecutor() {
+    return CommandExecutors.defaultExecutor();
+  }
+
+  /**
+   * Sets the {@link Executor}, which the {@link AsyncCommand}s registered with this command manager
+   * are executed on, such as {@link CommandExecutors#bounded(int, int)} or {@link
+   * CommandExecutors#virtualThreads()}. This affects the already registered commands too.
+   *
+   * @param executor executor
+   * @throws UnsupportedOperationException if the command manager doesn't support changing it,
+   *     which is the default
+   */
+  default void setExecutor(@NotNull Executor executor) {
+    throw new UnsupportedOperationException("setExecutor");
+  }
+
+  /**
+   * Returns the {@link Scheduler}, through which the results of the {@link AsyncCommand}s
+   * registered with this command manager are handed back to the thread owning the senders. By
+   * default, this is {@link Scheduler#direct()}.
+   *
+   * @return scheduler
+   */
+  @NotNull
+  default Scheduler getScheduler() {
+    return Scheduler.direct();
+  }
+
+  /**
+   * Sets the {@link Scheduler}, through which the results of the {@link AsyncCommand}s registered
+   * with this command manager are handed back to the thread owning the senders.
+   *
+   * @param scheduler scheduler
+   * @throws UnsupportedOperationException if the command manager doesn't support changing it,
+   *     which is the default
+   */
+  default void setScheduler(@NotNull Scheduler scheduler) {
+    throw new UnsupportedOperationException("setScheduler");
+  }
+
+  /**
+   * Returns whether or not the {@link CommandMetrics} of the commands registered with this command
+   * manager are being recorded. By default, they're not.
+   *
+   * @return <code>true</code> if metrics enabled, <code>false</code> otherwise
+   */
+  default boolean isMetricsEnabled() {
+    return false;
+  }
+
+  /**
+   * Sets whether or not the {@link CommandMetrics} of the commands registered with this command
+   * manager are being recorded. This affects the already registered commands too.
+   *
+   * @param metricsEnabled value
+   * @throws UnsupportedOperationException if the command manager doesn't support recording the
+   *     metrics, which is the default
+   * @see RegisteredCommand#getMetrics()
+   */
+  default void setMetricsEnabled(boolean metricsEnabled) {
+    throw new UnsupportedOperationException("setMetricsEnabled");
+  }
+
+  /**
+   * Returns the id the {@link RateLimiter}s of the commands registered with this command manager
+   * tell the specified sender apart by. By default, this is the identity hash code of the sender,
+   * the platforms use the unique id of the players instead.
+   *
+   * @param sender sender
+   * @return sender id
+   */
+  default long getSenderId(@NotNull S sender) {
+    return System.identityHashCode(sender);
+  }
+
+  /**
+   * Forgets everything the {@link RateLimiter}s of the commands registered with this command
+   * manager hold about the specified sender. The platforms call this when a player leaves.
+   *
+   * @param sender sender
+   */
+  default void evictSender(@NotNull S sender) {
+    Objects.requireNonNull(sender, "sender");
+    for (RegisteredCommand<S> command : getRegisteredCommands()) {
+      command.evictSender(sender);
+    }
+  }
+
   /**
    * Returns unmodifiable copy of the commands, registered and held by this command manager.
    *
@@ -0,0 +1,257 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
+import com.mrivanplays.commandworker.core.argument.TrigramIndex;
+import com.mrivanplays.commandworker.core.argument.parser.KnownArgumentTypes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Represents an index of the arguments of a {@link LiteralNode}, by the depth they're at, which is
+ * built when the node is being frozen and used for {@link LiteralNode#getArgumentsByIndex(int)}
+ * and the legacy completions.
+ *
+ * <p>Besides the levels of every depth, the index holds the children of every argument as a level
+ * of their own, so the completions walk the tree along the typed arguments and only suggest the
+ * children of the argument the path ends at. The literal names of every level are held sorted, so
+ * the literals starting with a prefix are found with a binary search instead of testing every
+ * literal of the level, as a range of the sorted names.
+ *
+ * <p>The levels of the children also count how many times each literal was typed on the way to a
+ * completion, which the ranked completions prefer the more often used literals by. With fuzzy
+ * completions, they also hold a {@link TrigramIndex} of the literal names, so the literals holding
+ * the typed argument, or starting with it with a typo, are found without testing every literal.
+ */
+final class CompletionIndex {
+
+  private static final Level EMPTY = new Level(new ArgumentNode[0], null, false);
+
+  private final Level[] levels;
+  private final Level root;
+
+  private CompletionIndex(Level[] levels, Level root) {
+    this.levels = levels;
+    this.root = root;
+  }
+
+  static CompletionIndex build(List<ArgumentNode> tree, boolean fuzzy) {
+    List<Level> levels = new ArrayList<>();
+    List<ArgumentNode> atDepth = tree;
+    while (!atDepth.isEmpty()) {
+      levels.add(new Level(atDepth.toArray(new ArgumentNode[0]), null, false));
+      List<ArgumentNode> children = new ArrayList<>();
+      for (ArgumentNode node : atDepth) {
+        children.addAll(node.getChildren());
+      }
+      atDepth = children;
+    }
+    return new CompletionIndex(levels.toArray(new Level[0]), branch(tree, fuzzy));
+  }
+
+  private static Level branch(List<ArgumentNode> nodes, boolean fuzzy) {
+    Level[] children = new Level[nodes.size()];
+    for (int i = 0; i < children.length; i++) {
+      children[i] = branch(nodes.get(i).getChildren(), fuzzy);
+    }
+    return new Level(nodes.toArray(new ArgumentNode[0]), children, fuzzy);
+  }
+
+  /**
+   * Returns the level holding the children of the argument the specified arguments lead to. The
+   * last argument is the one being completed, and is not part of the path. Empty arguments, left
+   * by repeated spaces, are skipped, the same way they are when parsing.
+   *
+   * @param args arguments
+   * @return level, or <code>null</code> if the arguments don't lead to any argument
+   */
+  Level branch(String[] args) {
+    return branch(args, false);
+  }
+
+  /**
+   * Returns the level holding the children of the argument the specified arguments lead to, the
+   * same way {@link #branch(String[])} does, optionally counting the typed literals as used.
+   *
+   * @param args arguments
+   * @param recordUses whether or not to count the typed literals as used
+   * @return level, or <code>null</code> if the arguments don't lead to any argument
+   */
+  Level branch(String[] args, boolean recordUses) {
+    Level level = root;
+    for (int i = 0, len = args.length - 1; i < len && level != null; i++) {
+      if (args[i].isEmpty()) {
+        continue;
+      }
+      int position = level.childPosition(args[i]);
+      if (position == -1) {
+        return null;
+      }
+      if (recordUses && level.nodes[position].isLiteral()) {
+        level.uses.incrementAndGet(position);
+      }
+      level = level.children[position];
+    }
+    return level;
+  }
+
+  /**
+   * Returns the level at the specified depth.
+   *
+   * @param depth depth
+   * @return level, empty if there are no arguments at that depth
+   */
+  Level level(int depth) {
+    return depth >= 0 && depth < levels.length ? levels[depth] : EMPTY;
+  }
+
+  static final class Level {
+
+    final ArgumentNode[] nodes;
+    final List<Argument> view;
+    final int[] literalPositions;
+    final int[] requiredPositions;
+
+    // the literal names sorted, along with the position of the literal in the arguments
+    private final String[] sortedNames;
+    private final List<Integer> sortedPositions;
+    // the index of the name of every literal in the sorted names, -1 for the required arguments
+    private final int[] nameIndices;
+
+    // the levels of the children of every argument, null for the levels by depth
+    private final Level[] children;
+    // how many times every literal was typed, null for the levels by depth
+    private final AtomicIntegerArray uses;
+    // the literal names, null without fuzzy completions or literals
+    final TrigramIndex fuzzyLiterals;
+
+    Level(ArgumentNode[] nodes, Level[] children, boolean fuzzy) {
+      this.nodes = nodes;
+      this.children = children;
+      this.uses = children != null ? new AtomicIntegerArray(nodes.length) : null;
+      Argument[] arguments = new Argument[nodes.length];
+      for (int i = 0; i < nodes.length; i++) {
+        arguments[i] = nodes[i].getArgument();
+      }
+      this.view = Collections.unmodifiableList(Arrays.asList(arguments));
+      List<Integer> literals = new ArrayList<>();
+      List<Integer> required = new ArrayList<>();
+      for (int i = 0; i < nodes.length; i++) {
+        (nodes[i].isLiteral() ? literals : required).add(i);
+      }
+      this.literalPositions = literals.stream().mapToInt(Integer::intValue).toArray();
+      literals.sort(Comparator.comparing(i -> nodes[i].getName()));
+      this.sortedNames = new String[literals.size()];
+      this.sortedPositions = Collections.unmodifiableList(literals);
+      this.nameIndices = new int[nodes.length];
+      Arrays.fill(nameIndices, -1);
+      for (int i = 0; i < sortedNames.length; i++) {
+        int position = literals.get(i);
+        sortedNames[i] = nodes[position].getName();
+        nameIndices[position] = i;
+      }
+      this.requiredPositions = required.stream().mapToInt(Integer::intValue).toArray();
+      this.fuzzyLiterals =
+          fuzzy && sortedNames.length != 0 ? TrigramIndex.of(Arrays.asList(sortedNames)) : null;
+    }
+
+    boolean isEmpty() {
+      return nodes.length == 0;
+    }
+
+    /**
+     * Returns the position of the argument the specified token is for. Literals are preferred,
+     * and after them the first required argument whose type accepts the whole token. Only the
+     * brigadier built-in types are checked, the other ones are assumed to accept any token, so
+     * completing never calls their parsing.
+     *
+     * @param token token
+     * @return position, or <code>-1</code> if no argument accepts the token
+     */
+    int childPosition(String token) {
+      int literal = literalPosition(token);
+      if (literal != -1) {
+        return literal;
+      }
+      for (int position : requiredPositions) {
+        if (KnownArgumentTypes.acceptsToken(nodes[position].getArgumentType(), token)) {
+          return position;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Returns the position of the literal with the specified name.
+     *
+     * @param name name
+     * @return position, or <code>-1</code> if there's no such literal
+     */
+    int literalPosition(String name) {
+      int literal = lowerBound(name);
+      return literal < sortedNames.length && sortedNames[literal].equals(name)
+          ? sortedPositions.get(literal)
+          : -1;
+    }
+
+    /**
+     * Returns how many times the literal at the specified position was typed on the way to a
+     * ranked completion.
+     *
+     * @param position position
+     * @return uses
+     */
+    int uses(int position) {
+      return uses != null ? uses.get(position) : 0;
+    }
+
+    /**
+     * Returns a view of the positions of the literals, whose name starts with the specified
+     * prefix, in the order of their names.
+     *
+     * @param prefix prefix
+     * @return positions
+     * @see #nameIndex(int)
+     */
+    List<Integer> literalsStartingWith(String prefix) {
+      int from = lowerBound(prefix);
+      int to = from;
+      while (to < sortedNames.length && sortedNames[to].startsWith(prefix)) {
+        to++;
+      }
+      return sortedPositions.subList(from, to);
+    }
+
+    /**
+     * Returns the index of the name of the argument at the specified position among the sorted
+     * literal names, which the literals returned by {@link #literalsStartingWith(String)} are a
+     * range of.
+     *
+     * @param position position
+     * @return name index, or <code>-1</code> if the argument is not a literal
+     */
+    int nameIndex(int position) {
+      return nameIndices[position];
+    }
+
+    // the first name, which is not less than the prefix. Every name starting with the prefix sorts
+    // right after it
+    private int lowerBound(String prefix) {
+      int low = 0;
+      int high = sortedNames.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (sortedNames[mid].compareTo(prefix) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -5,6 +5,11 @@ import com.mojang.brigadier.suggestion.Suggestion;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParsePlan;
+import com.mrivanplays.commandworker.core.metrics.CommandEvent;
+import com.mrivanplays.commandworker.core.metrics.CommandEvents;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -13,7 +18,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.BiFunction;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -36,54 +41,115 @@ public final class LiteralNode {
           return suggestion.getText();
         }
       };
-  private static final BiFunction<String, List<Argument>, List<String>> TO_SUGGESTIONS =
-      (lastArg, arguments) -> {
-        List<String> ret = new ArrayList<>();
-        for (Argument arg : arguments) {
-          if (arg.isLiteral()) {
-            if (arg.getName().startsWith(lastArg)) {
-              ret.add(arg.getName());
-            }
-          } else {
-            SuggestionsBuilder builder = new SuggestionsBuilder(lastArg, 0);
-            if (arg.getSuggestionsConsumer() != null) {
-              arg.getSuggestionsConsumer().accept(builder);
-            } else {
-              if (arg.getArgumentType() == null) {
-                // why we check here? obviously a required argument's argument type should not be
-                // null! well, apparently, the minecraft argument types would be null if this is
-                // even
-                // called! and that's why we have to have an exception here
-                continue;
-              }
-              CompletableFuture<Suggestions> suggestionsFuture =
-                  arg.getArgumentType().listSuggestions(null, builder);
-              List<Suggestion> suggestionsList = suggestionsFuture.join().getList();
-              if (suggestionsList.isEmpty()) {
-                continue;
-              }
-              for (Suggestion suggestion : suggestionsList) {
-                String suggestionString = SUGGESTION_MAPPER.apply(suggestion);
-                if (suggestionString.startsWith(lastArg)) {
-                  ret.add(SUGGESTION_MAPPER.apply(suggestion));
-                }
-              }
-              continue;
-            }
-            List<Suggestion> suggestionsList = builder.build().getList();
-            if (suggestionsList.isEmpty()) {
-              continue;
-            }
-            for (Suggestion suggestion : suggestionsList) {
-              String suggestionString = SUGGESTION_MAPPER.apply(suggestion);
-              if (suggestionString.startsWith(lastArg)) {
-                ret.add(SUGGESTION_MAPPER.apply(suggestion));
-              }
-            }
-          }
+
+  private static List<CompletableFuture<Suggestions>> listRequired(
+      String lastArg, CompletionIndex.Level level, Object sender, boolean wait) {
+    int[] required = level.requiredPositions;
+    List<CompletableFuture<Suggestions>> suggestions = new ArrayList<>(required.length);
+    for (int position : required) {
+      ArgumentNode node = level.nodes[position];
+      SuggestionsBuilder builder = new SuggestionsBuilder(lastArg, 0);
+      suggestions.add(
+          (wait ? node.listSuggestions(builder, sender) : node.listSuggestionsNow(builder, sender))
+              .exceptionally(error -> null));
+    }
+    return suggestions;
+  }
+
+  private static List<String> toSuggestions(
+      String lastArg,
+      CompletionIndex.Level level,
+      List<CompletableFuture<Suggestions>> suggestions) {
+    List<String> ret = new ArrayList<>();
+    List<Integer> literals = level.literalsStartingWith(lastArg);
+    // the matching literals are a range of the sorted names, which is checked while walking the
+    // arguments in the order they were added in, so the literals are merged back in that order
+    int from = literals.isEmpty() ? 0 : level.nameIndex(literals.get(0));
+    int to = from + literals.size();
+    int required = 0;
+    for (int position = 0; position < level.nodes.length; position++) {
+      int nameIndex = level.nameIndex(position);
+      if (nameIndex != -1) {
+        if (nameIndex >= from && nameIndex < to) {
+          ret.add(level.nodes[position].getName());
         }
-        return ret;
-      };
+        continue;
+      }
+      // suggestions which are not there yet are left out rather than waited for
+      Suggestions requiredSuggestions = suggestions.get(required++).getNow(null);
+      if (requiredSuggestions == null) {
+        continue;
+      }
+      for (Suggestion suggestion : requiredSuggestions.getList()) {
+        String suggestionString = SUGGESTION_MAPPER.apply(suggestion);
+        if (suggestionString.startsWith(lastArg)) {
+          ret.add(suggestionString);
+        }
+      }
+    }
+    return ret;
+  }
+
+  private static List<String> toRankedSuggestions(
+      String lastArg,
+      CompletionIndex.Level level,
+      List<CompletableFuture<Suggestions>> suggestions,
+      int limit,
+      boolean fuzzy) {
+    RankedCompletions ranked = new RankedCompletions(limit);
+    for (int position : level.literalsStartingWith(lastArg)) {
+      ranked.offer(
+          level.nodes[position].getName(),
+          RankedCompletions.PREFIX,
+          level.uses(position),
+          position,
+          0);
+    }
+    // the literals matching otherwise can't beat enough literals starting with the argument
+    if (level.fuzzyLiterals != null && !ranked.isFullOfPrefixMatches()) {
+      for (String name : level.fuzzyLiterals.search(lastArg, limit)) {
+        int position = level.literalPosition(name);
+        int match = RankedCompletions.match(name, lastArg);
+        if (match != RankedCompletions.PREFIX) {
+          ranked.offer(
+              name,
+              match == RankedCompletions.NO_MATCH ? RankedCompletions.FUZZY : match,
+              level.uses(position),
+              position,
+              0);
+        }
+      }
+    } else if (!ranked.isFullOfPrefixMatches()) {
+      for (int position : level.literalPositions) {
+        String name = level.nodes[position].getName();
+        int match = RankedCompletions.match(name, lastArg);
+        if (match > RankedCompletions.PREFIX) {
+          ranked.offer(name, match, level.uses(position), position, 0);
+        }
+      }
+    }
+    int[] required = level.requiredPositions;
+    for (int i = 0; i < required.length; i++) {
+      Suggestions requiredSuggestions = suggestions.get(i).getNow(null);
+      if (requiredSuggestions == null) {
+        continue;
+      }
+      List<Suggestion> list = requiredSuggestions.getList();
+      for (int j = 0; j < list.size(); j++) {
+        String suggestionString = SUGGESTION_MAPPER.apply(list.get(j));
+        int match = RankedCompletions.match(suggestionString, lastArg);
+        // with fuzzy completions, the suggestions are trusted to match the way their arguments
+        // decided, the same way brigadier does
+        if (match == RankedCompletions.NO_MATCH && fuzzy) {
+          match = RankedCompletions.FUZZY;
+        }
+        if (match != RankedCompletions.NO_MATCH) {
+          ranked.offer(suggestionString, match, 0, required[i], j);
+        }
+      }
+    }
+    return ranked.toList();
+  }
   // LEGACY COMPLETIONS END
 
   /**
@@ -95,14 +161,25 @@ public final class LiteralNode {
     return new LiteralNode();
   }
 
+  private static final int MAX_CACHED_ALIAS_USAGES = 16;
+
   private List<Argument> arguments;
-  private Map<Integer, StringBuilder> usageBuilders;
 
   private boolean shouldExecuteCommand = false;
+  private int completionLimit = 0;
+  private boolean fuzzyCompletions = false;
+
+  private volatile ParsePlan parsePlan;
+  private volatile List<ArgumentNode> tree;
+  private volatile CompletionIndex completionIndex;
+  private volatile NameIndex nameIndex;
+  private volatile String usage;
+  private final Map<String, String> aliasUsages = new ConcurrentHashMap<>();
+  private volatile ArgumentHolderPool argumentHolderPool;
+  private volatile String commandName;
 
   private LiteralNode() {
     this.arguments = new ArrayList<>();
-    this.usageBuilders = new HashMap<>();
   }
 
   /**
@@ -115,6 +192,7 @@ public final class LiteralNode {
   @NotNull
   public LiteralNode argument(@NotNull Argument argument) {
     Objects.requireNonNull(argument, "argument");
+    checkNotFrozen();
     arguments.add(argument);
     return this;
   }
@@ -125,10 +203,168 @@ public final class LiteralNode {
    */
   @NotNull
   public LiteralNode markShouldExecuteCommand() {
+    checkNotFrozen();
     this.shouldExecuteCommand = true;
     return this;
   }
 
+  /**
+   * Limits the legacy completions of this node to the specified amount of the best matching
+   * suggestions, selected without building the list of every matching one. The suggestions are
+   * ranked: the ones starting with the typed argument first, then the ones starting with it
+   * ignoring case, and then the ones holding its characters in order, ignoring case. Within the
+   * same match, the literals typed more often come first.
+   *
+   * <p>By default, the completions are not limited, and only the suggestions starting with the
+   * typed argument are returned, in the order the arguments were added in.
+   *
+   * @param completionLimit the maximum amount of suggestions, or <code>0</code> to not limit them
+   * @return this instance for chaining
+   * @see #completeToStringList(String[])
+   */
+  @NotNull
+  public LiteralNode limitCompletions(int completionLimit) {
+    if (completionLimit < 0) {
+      throw new IllegalArgumentException("completionLimit should not be negative");
+    }
+    checkNotFrozen();
+    this.completionLimit = completionLimit;
+    return this;
+  }
+
+  /**
+   * Enables fuzzy legacy completions, which also suggest the literals holding the typed argument,
+   * and the ones starting with it with a typo. For example, <code>hub_spawn</code> is suggested
+   * for <code>spawn</code>, and <code>spawn</code> for <code>spwan</code>. The literals are found
+   * through a {@link com.mrivanplays.commandworker.core.argument.TrigramIndex} built when the node
+   * is being frozen, rather than by testing every literal. The suggestions of required arguments
+   * are not filtered by the typed argument, so arguments can match their suggestions fuzzily, for
+   * example with a trigram index of their own.
+   *
+   * <p>The fuzzy completions are ranked the same way the {@link #limitCompletions(int) limited}
+   * ones are, with the fuzzy matches after the others.
+   *
+   * @return this instance for chaining
+   */
+  @NotNull
+  public LiteralNode fuzzyCompletions() {
+    checkNotFrozen();
+    this.fuzzyCompletions = true;
+    return this;
+  }
+
+  /**
+   * Returns the maximum amount of legacy completions of this node, or <code>0</code> if they're
+   * not limited.
+   *
+   * @return completion limit
+   * @see #limitCompletions(int)
+   */
+  public int getCompletionLimit() {
+    return completionLimit;
+  }
+
+  /**
+   * Freezes this node, compiling its {@link ParsePlan}, {@link #getTree() tree} and argument
+   * indexes ahead of time. After a
+   * node is frozen, no more arguments can be added to it, and changes made to the already added
+   * arguments are not reflected in the compiled plan. Calling this on an already frozen node does
+   * nothing.
+   *
+   * @return this instance for chaining
+   */
+  @NotNull
+  public LiteralNode freeze() {
+    if (parsePlan == null) {
+      // the plan is set last, as it marks the node frozen
+      List<ArgumentNode> tree = ArgumentNode.compile(arguments);
+      completionIndex = CompletionIndex.build(tree, fuzzyCompletions);
+      nameIndex = NameIndex.build(tree);
+      this.tree = tree;
+      parsePlan = ParsePlan.compileTree(tree);
+    }
+    return this;
+  }
+
+  /**
+   * Returns whether or not this node is frozen.
+   *
+   * @return <code>true</code> if frozen, <code>false</code> otherwise
+   * @see #freeze()
+   */
+  public boolean isFrozen() {
+    return parsePlan != null;
+  }
+
+  /**
+   * Returns the compiled {@link ParsePlan} of this node. If the node is not frozen yet, this will
+   * freeze it.
+   *
+   * @return parse plan
+   */
+  @NotNull
+  public ParsePlan getParsePlan() {
+    freeze();
+    return parsePlan;
+  }
+
+  /**
+   * Returns the base arguments of this node, along with their children, compiled into frozen
+   * {@link ArgumentNode}s. This is what the platforms walk when registering the command. If the
+   * node is not frozen yet, this will freeze it.
+   *
+   * @return unmodifiable list of the base argument nodes
+   */
+  @NotNull
+  public List<ArgumentNode> getTree() {
+    freeze();
+    return tree;
+  }
+
+  /**
+   * Returns the {@link ArgumentHolderPool} of this node, from which the platforms acquire the
+   * argument holders for the command executions. If the node is not frozen yet, this will freeze
+   * it.
+   *
+   * @return argument holder pool
+   */
+  @NotNull
+  public ArgumentHolderPool getArgumentHolderPool() {
+    ArgumentHolderPool pool = argumentHolderPool;
+    if (pool == null) {
+      synchronized (this) {
+        pool = argumentHolderPool;
+        if (pool == null) {
+          pool = new ArgumentHolderPool(freeze());
+          argumentHolderPool = pool;
+        }
+      }
+    }
+    return pool;
+  }
+
+  /**
+   * Returns the name of the command this node is the structure of, which the {@link
+   * com.mrivanplays.commandworker.core.metrics.CommandEvents} of the parsing and the completions of
+   * the command are emitted with.
+   *
+   * @return command name, or <code>null</code> if the command is not registered
+   */
+  @Nullable
+  public String getCommandName() {
+    return commandName;
+  }
+
+  void setCommandName(String commandName) {
+    this.commandName = commandName;
+  }
+
+  private void checkNotFrozen() {
+    if (parsePlan != null) {
+      throw new IllegalStateException("LiteralNode is frozen");
+    }
+  }
+
   /**
    * Returns unmodifiable copy of the base {@link Argument Arguments} with their children.
    *
@@ -151,20 +387,40 @@ public final class LiteralNode {
   }
 
   /**
-   * Returns {@link Optional} value of the argument with the name specified.
+   * Returns {@link Optional} value of the argument with the name specified. The name is matched
+   * case insensitively, and once the node is frozen, it's looked up from a precomputed index.
    *
    * @param name name
    * @return argument if present, empty optional else.
    */
   public Optional<Argument> getArgumentByName(@NotNull String name) {
     Objects.requireNonNull(name, "name");
+    if (isFrozen()) {
+      return Optional.ofNullable(nameIndex.first(name));
+    }
     return getArgumentByName0(arguments, name);
   }
 
+  /**
+   * Returns unmodifiable list of all the arguments with the name specified, for when multiple
+   * arguments share a name, for example in different branches. The first one is the argument
+   * {@link #getArgumentByName(String)} returns. If the node is not frozen yet, this will freeze
+   * it.
+   *
+   * @param name name
+   * @return arguments, or empty list if none
+   */
+  @NotNull
+  public List<Argument> getArgumentsByName(@NotNull String name) {
+    Objects.requireNonNull(name, "name");
+    freeze();
+    return nameIndex.all(name);
+  }
+
   private Optional<Argument> getArgumentByName0(List<Argument> args, String name) {
     Argument first = null;
     for (Argument arg : args) {
-      if (arg.getName().toLowerCase().equalsIgnoreCase(name.toLowerCase())) {
+      if (arg.getName().equalsIgnoreCase(name)) {
         first = arg;
         break;
       }
@@ -186,13 +442,17 @@ public final class LiteralNode {
   }
 
   /**
-   * Returns unmodifiable list of all the arguments, held by this index.
+   * Returns unmodifiable list of all the arguments, held by this index. Once the node is frozen,
+   * the lists are precomputed and returned without any copying.
    *
    * @param index the index for which you need the arguments
    * @return arguments by index
    */
   @NotNull
   public List<Argument> getArgumentsByIndex(int index) {
+    if (isFrozen()) {
+      return completionIndex.level(index).view;
+    }
     return getArgumentsByIndex0(arguments, index);
   }
 
@@ -215,22 +475,36 @@ public final class LiteralNode {
   }
 
   /**
-   * Builds the argument usage.
+   * Builds the argument usage. Once the node is frozen, the usage is only built once.
    *
    * @return argument usage, or if no base arguments - empty string
    */
   @NotNull
   public String buildUsage() {
+    String usage = this.usage;
+    if (usage != null) {
+      return usage;
+    }
+    usage = buildUsage0();
+    if (isFrozen()) {
+      // racing threads build the same string, so whichever is stored doesn't matter
+      this.usage = usage;
+    }
+    return usage;
+  }
+
+  private String buildUsage0() {
     if (arguments.isEmpty()) {
       return "";
     }
     StringBuilder builder = new StringBuilder();
-    buildUsageFor(arguments, builder, true, -1);
+    buildUsageFor(arguments, builder, true, -1, new HashMap<>());
     return builder.toString();
   }
 
   /**
-   * Builds full command usage for the alias specified
+   * Builds full command usage for the alias specified. Once the node is frozen, the usage is only
+   * built once per alias, up to a limit of aliases.
    *
    * @param alias command alias for which you want full command usage
    * @return command usage
@@ -238,11 +512,26 @@ public final class LiteralNode {
   @NotNull
   public String buildUsage(@Nullable String alias) {
     String argumentUsage = buildUsage();
-    return alias != null ? "/" + alias + " " + argumentUsage : argumentUsage;
+    if (alias == null) {
+      return argumentUsage;
+    }
+    String usage = aliasUsages.get(alias);
+    if (usage != null) {
+      return usage;
+    }
+    usage = "/" + alias + " " + argumentUsage;
+    if (isFrozen() && aliasUsages.size() < MAX_CACHED_ALIAS_USAGES) {
+      aliasUsages.putIfAbsent(alias, usage);
+    }
+    return usage;
   }
 
   private void buildUsageFor(
-      List<Argument> args, StringBuilder appendTo, boolean initial, int currentArg) {
+      List<Argument> args,
+      StringBuilder appendTo,
+      boolean initial,
+      int currentArg,
+      Map<Integer, StringBuilder> usageBuilders) {
     if (!args.isEmpty()) {
       if (!initial) {
         appendTo.append(' ');
@@ -268,7 +557,7 @@ public final class LiteralNode {
       }
 
       StringBuilder child = usageBuilders.computeIfAbsent(currentArg, StringBuilder::new);
-      buildUsageFor(arg.getChildren(), child, false, currentArg + 1);
+      buildUsageFor(arg.getChildren(), child, false, currentArg + 1, usageBuilders);
       usageBuilders.replace(currentArg, child);
       if (lastArg) {
         appendTo.append(child);
@@ -278,23 +567,127 @@ public final class LiteralNode {
 
   /**
    * Returns a unmodifiable string list, which converts brigadier's suggestions to string list
-   * suggestions based on the arguments specified.
+   * suggestions based on the arguments specified. Only the children of the argument the already
+   * typed arguments lead to are suggested, the same way brigadier does. If the completions are
+   * {@link #limitCompletions(int) limited}, only the best ranked suggestions are returned. If the
+   * node is not frozen yet, this will freeze it.
+   *
+   * <p>This never blocks, so the {@link
+   * com.mrivanplays.commandworker.core.argument.SuggestionsProvider}s of the arguments are not
+   * started, unless the arguments cache their suggestions, in which case the ones already cached
+   * are suggested. Use {@link #completeToStringListAsync(String[])} to wait for them.
    *
    * @param args args for which you need string list completion
    * @return string list completion
    */
   @NotNull
   public List<String> completeToStringList(@NotNull String[] args) {
+    return completeToStringList(args, null);
+  }
+
+  /**
+   * Returns a unmodifiable string list, which converts brigadier's suggestions to string list
+   * suggestions based on the arguments specified, the same way {@link
+   * #completeToStringList(String[])} does, for the specified sender. The sender is used to tell
+   * apart the suggestions cached in a {@link
+   * com.mrivanplays.commandworker.core.argument.SuggestionsCache}.
+   *
+   * @param args args for which you need string list completion
+   * @param sender the sender the completion is for, or <code>null</code> if not known
+   * @return string list completion
+   */
+  @NotNull
+  public List<String> completeToStringList(@NotNull String[] args, @Nullable Object sender) {
     Objects.requireNonNull(args, "args");
-    if (arguments.isEmpty() || args.length == 0) {
+    CommandEvent event = CommandEvents.suggest();
+    CompletionIndex.Level level = completionLevel(args);
+    if (level == null) {
       return Collections.emptyList();
     }
-    List<Argument> argsList = getArgumentsByIndex(args.length - 1);
-    if (argsList.isEmpty()) {
-      return Collections.emptyList();
+    String lastArg = args[args.length - 1];
+    List<CompletableFuture<Suggestions>> suggestions = listRequired(lastArg, level, sender, false);
+    List<String> completions = complete(lastArg, level, suggestions);
+    if (event.shouldCommit()) {
+      event.commit(
+          commandName, CommandEvents.nodePath(level.nodes[0].getParent()), sender, length(args));
+    }
+    return completions;
+  }
+
+  /**
+   * Returns a future of the unmodifiable string list, which converts brigadier's suggestions to
+   * string list suggestions based on the arguments specified, completed once the suggestions of
+   * every {@link com.mrivanplays.commandworker.core.argument.SuggestionsProvider} are completed,
+   * or timed out. If the node is not frozen yet, this will freeze it.
+   *
+   * @param args args for which you need string list completion
+   * @return future of the string list completion
+   * @see #completeToStringList(String[])
+   */
+  @NotNull
+  public CompletableFuture<List<String>> completeToStringListAsync(@NotNull String[] args) {
+    return completeToStringListAsync(args, null);
+  }
+
+  /**
+   * Returns a future of the unmodifiable string list, which converts brigadier's suggestions to
+   * string list suggestions based on the arguments specified, the same way {@link
+   * #completeToStringListAsync(String[])} does, for the specified sender.
+   *
+   * @param args args for which you need string list completion
+   * @param sender the sender the completion is for, or <code>null</code> if not known
+   * @return future of the string list completion
+   * @see #completeToStringList(String[], Object)
+   */
+  @NotNull
+  public CompletableFuture<List<String>> completeToStringListAsync(
+      @NotNull String[] args, @Nullable Object sender) {
+    Objects.requireNonNull(args, "args");
+    CommandEvent event = CommandEvents.suggest();
+    CompletionIndex.Level level = completionLevel(args);
+    if (level == null) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
     }
     String lastArg = args[args.length - 1];
-    return Collections.unmodifiableList(TO_SUGGESTIONS.apply(lastArg, argsList));
+    List<CompletableFuture<Suggestions>> suggestions = listRequired(lastArg, level, sender, true);
+    return CommandEvents.commitWhenComplete(
+        event,
+        CompletableFuture.allOf(suggestions.toArray(new CompletableFuture<?>[0]))
+            .thenApply(done -> complete(lastArg, level, suggestions)),
+        commandName,
+        level.nodes[0].getParent(),
+        sender,
+        length(args));
+  }
+
+  // the length of the input the arguments were split out of
+  private static int length(String[] args) {
+    int length = args.length - 1;
+    for (String arg : args) {
+      length += arg.length();
+    }
+    return length;
+  }
+
+  private List<String> complete(
+      String lastArg,
+      CompletionIndex.Level level,
+      List<CompletableFuture<Suggestions>> suggestions) {
+    if (completionLimit > 0 || fuzzyCompletions) {
+      int limit = completionLimit > 0 ? completionLimit : Integer.MAX_VALUE;
+      return toRankedSuggestions(lastArg, level, suggestions, limit, fuzzyCompletions);
+    }
+    return Collections.unmodifiableList(toSuggestions(lastArg, level, suggestions));
+  }
+
+  private CompletionIndex.Level completionLevel(String[] args) {
+    if (arguments.isEmpty() || args.length == 0) {
+      return null;
+    }
+    freeze();
+    CompletionIndex.Level level =
+        completionIndex.branch(args, completionLimit > 0 || fuzzyCompletions);
+    return level == null || level.isEmpty() ? null : level;
   }
 
   @Override
@@ -0,0 +1,54 @@
+package com.mrivanplays.commandworker.core;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a {@link Scheduler}, which holds the scheduled tasks until {@link #runPending()} is
+ * called, making the calling thread the owning one. This stands in for the scheduler of a server
+ * in tests.
+ */
+public final class LocalScheduler implements Scheduler {
+
+  private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void schedule(@NotNull Runnable task) {
+    Objects.requireNonNull(task, "task");
+    pending.add(task);
+  }
+
+  /**
+   * Runs the tasks scheduled until now on the calling thread.
+   *
+   * @return amount of the ran tasks
+   */
+  public int runPending() {
+    int ran = 0;
+    for (int i = pending.size(); i > 0; i--) {
+      Runnable task = pending.poll();
+      if (task == null) {
+        break;
+      }
+      task.run();
+      ran++;
+    }
+    return ran;
+  }
+
+  /**
+   * Returns the amount of tasks waiting to run.
+   *
+   * @return pending tasks
+   */
+  public int getPending() {
+    return pending.size();
+  }
+
+  @Override
+  public String toString() {
+    return "LocalScheduler(pending=" + pending.size() + ")";
+  }
+}
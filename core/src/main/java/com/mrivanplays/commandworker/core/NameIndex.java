@@ -0,0 +1,82 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Represents an index of the arguments of a {@link LiteralNode} by their case folded name, which is
+ * built when the node is being frozen and used for {@link LiteralNode#getArgumentByName(String)}.
+ *
+ * <p>When multiple arguments share a name, they're all held, in the order the search by name
+ * would reach them: every argument of a level before their children, and the children of an
+ * argument before the children of the ones after it.
+ */
+final class NameIndex {
+
+  private final Map<String, Argument[]> byName;
+
+  private NameIndex(Map<String, Argument[]> byName) {
+    this.byName = byName;
+  }
+
+  static NameIndex build(List<ArgumentNode> tree) {
+    Map<String, List<Argument>> byName = new HashMap<>();
+    visit(tree, byName);
+    Map<String, Argument[]> index = new HashMap<>();
+    for (Map.Entry<String, List<Argument>> entry : byName.entrySet()) {
+      index.put(entry.getKey(), entry.getValue().toArray(new Argument[0]));
+    }
+    return new NameIndex(index);
+  }
+
+  private static void visit(List<ArgumentNode> nodes, Map<String, List<Argument>> byName) {
+    for (ArgumentNode node : nodes) {
+      List<Argument> named =
+          byName.computeIfAbsent(fold(node.getName()), name -> new ArrayList<>());
+      // the same argument may be a child of multiple arguments
+      if (!named.contains(node.getArgument())) {
+        named.add(node.getArgument());
+      }
+    }
+    for (ArgumentNode node : nodes) {
+      visit(node.getChildren(), byName);
+    }
+  }
+
+  // toLowerCase returns the same string when there's nothing to fold, so lookups by the usual
+  // lower case names don't allocate
+  private static String fold(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns the first argument with the specified name.
+   *
+   * @param name name
+   * @return argument, or <code>null</code> if there's none
+   */
+  Argument first(String name) {
+    Argument[] named = byName.get(fold(name));
+    return named != null ? named[0] : null;
+  }
+
+  /**
+   * Returns every argument with the specified name.
+   *
+   * @param name name
+   * @return arguments
+   */
+  List<Argument> all(String name) {
+    Argument[] named = byName.get(fold(name));
+    return named != null
+        ? Collections.unmodifiableList(Arrays.asList(named))
+        : Collections.emptyList();
+  }
+}
@@ -0,0 +1,151 @@
+package com.mrivanplays.commandworker.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Represents the best completions of a single completion, selected with a heap bounded by the
+ * completion limit of a {@link LiteralNode}, so only that many candidates are held no matter how
+ * many there are.
+ *
+ * <p>The candidates are ranked by how they match the typed argument: the ones starting with it
+ * first, the ones starting with it ignoring case after them, then the ones holding it ignoring
+ * case, and the fuzzy matches, such as the ones holding its characters in order, last. Within the
+ * same match, the more often used ones come first, and then the ones of the arguments added first.
+ */
+final class RankedCompletions {
+
+  static final int PREFIX = 0;
+  static final int PREFIX_IGNORE_CASE = 1;
+  static final int SUBSTRING = 2;
+  static final int FUZZY = 3;
+  static final int NO_MATCH = -1;
+
+  private static final Comparator<Candidate> BEST_FIRST =
+      Comparator.<Candidate>comparingInt(candidate -> candidate.match)
+          .thenComparing(Comparator.<Candidate>comparingInt(candidate -> candidate.uses).reversed())
+          .thenComparingInt(candidate -> candidate.position)
+          .thenComparingInt(candidate -> candidate.index);
+
+  /**
+   * Returns how the specified candidate matches the specified typed argument.
+   *
+   * @param candidate candidate
+   * @param typed typed argument
+   * @return match, or {@link #NO_MATCH} if it does not match
+   */
+  static int match(String candidate, String typed) {
+    if (candidate.startsWith(typed)) {
+      return PREFIX;
+    }
+    if (candidate.regionMatches(true, 0, typed, 0, typed.length())) {
+      return PREFIX_IGNORE_CASE;
+    }
+    for (int i = 1, last = candidate.length() - typed.length(); i <= last; i++) {
+      if (candidate.regionMatches(true, i, typed, 0, typed.length())) {
+        return SUBSTRING;
+      }
+    }
+    int found = 0;
+    for (int i = 0, len = candidate.length(); i < len && found < typed.length(); i++) {
+      if (equalsIgnoreCase(candidate.charAt(i), typed.charAt(found))) {
+        found++;
+      }
+    }
+    return found == typed.length() ? FUZZY : NO_MATCH;
+  }
+
+  private static boolean equalsIgnoreCase(char a, char b) {
+    return a == b
+        || Character.toUpperCase(a) == Character.toUpperCase(b)
+        || Character.toLowerCase(a) == Character.toLowerCase(b);
+  }
+
+  private final int limit;
+  // the worst of the held candidates is at the head, so it's the one replaced by a better one
+  private final PriorityQueue<Candidate> worstFirst;
+
+  RankedCompletions(int limit) {
+    this.limit = limit;
+    this.worstFirst = new PriorityQueue<>(Math.min(limit, 64), BEST_FIRST.reversed());
+  }
+
+  /**
+   * Returns whether or not the held candidates are as many as the limit, and all of them start
+   * with the typed argument, in which case no candidate not starting with it can be held anymore.
+   *
+   * @return <code>true</code> if full of prefix matches, <code>false</code> otherwise
+   */
+  boolean isFullOfPrefixMatches() {
+    return worstFirst.size() == limit && worstFirst.peek().match == PREFIX;
+  }
+
+  /**
+   * Offers the specified candidate, which is held only if it's better than the worst held one, or
+   * there are less held candidates than the limit.
+   *
+   * @param text text of the candidate
+   * @param match how the candidate matches the typed argument
+   * @param uses how many times the candidate was used
+   * @param position position of the argument of the candidate
+   * @param index index of the candidate within the suggestions of its argument
+   */
+  void offer(String text, int match, int uses, int position, int index) {
+    if (worstFirst.size() == limit) {
+      Candidate worst = worstFirst.peek();
+      if (!isBetter(match, uses, position, index, worst)) {
+        return;
+      }
+      worstFirst.poll();
+    }
+    worstFirst.add(new Candidate(text, match, uses, position, index));
+  }
+
+  private static boolean isBetter(int match, int uses, int position, int index, Candidate than) {
+    if (match != than.match) {
+      return match < than.match;
+    }
+    if (uses != than.uses) {
+      return uses > than.uses;
+    }
+    if (position != than.position) {
+      return position < than.position;
+    }
+    return index < than.index;
+  }
+
+  /**
+   * Returns unmodifiable list of the held candidates, best first.
+   *
+   * @return completions
+   */
+  List<String> toList() {
+    List<Candidate> candidates = new ArrayList<>(worstFirst);
+    candidates.sort(BEST_FIRST);
+    List<String> ret = new ArrayList<>(candidates.size());
+    for (Candidate candidate : candidates) {
+      ret.add(candidate.text);
+    }
+    return Collections.unmodifiableList(ret);
+  }
+
+  private static final class Candidate {
+
+    private final String text;
+    private final int match;
+    private final int uses;
+    private final int position;
+    private final int index;
+
+    Candidate(String text, int match, int uses, int position, int index) {
+      this.text = text;
+      this.match = match;
+      this.uses = uses;
+      this.position = position;
+      this.index = index;
+    }
+  }
+}
@@ -0,0 +1,378 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a per-sender rate limit of a command, or an argument of it, such as a cooldown. The
+ * platforms check it before the arguments of the command are parsed, so a rejected execution costs
+ * close to nothing.
+ *
+ * <p>Each sender has a token bucket, which holds up to the {@link #getCapacity() capacity} tokens
+ * and gets one back every {@link #getRefillNanos() refill period}, and every execution takes one.
+ * The bucket is kept as a single <code>long</code>, the time at which it is full again, in a map
+ * keyed by the {@link CommandManager#getSenderId(Object) id} of the sender, split into stripes
+ * locked on their own, so the senders rarely wait for each other. A sender whose bucket is full
+ * again is no different from a sender which was never seen, so its entry is evicted the next time
+ * its stripe grows, or when the sender goes away, through {@link
+ * CommandManager#evictSender(Object)}.
+ *
+ * <p>A rate limiter may be shared between multiple commands and arguments, limiting them as a
+ * group.
+ *
+ * @see CommandManager#register(Command, java.util.function.Predicate, RateLimiter, String...)
+ * @see com.mrivanplays.commandworker.core.argument.Argument#getRateLimiter()
+ */
+public final class RateLimiter {
+
+  /** The message the executions are rejected with by default. */
+  public static final String DEFAULT_REJECT_MESSAGE =
+      "You're doing this too often, try again in %d seconds";
+
+  private static final int STRIPES = 16;
+
+  /**
+   * Creates a new rate limiter, which lets each sender execute once per the specified duration.
+   *
+   * @param duration cooldown duration
+   * @param unit the unit of the duration
+   * @return rate limiter
+   */
+  @NotNull
+  public static RateLimiter cooldown(long duration, @NotNull TimeUnit unit) {
+    return tokenBucket(1, duration, unit);
+  }
+
+  /**
+   * Creates a new rate limiter, which lets each sender execute up to the specified amount of times
+   * in a row, and once more every specified refill period.
+   *
+   * @param capacity the amount of executions in a row
+   * @param refillPeriod the period an execution is given back every
+   * @param unit the unit of the refill period
+   * @return rate limiter
+   */
+  @NotNull
+  public static RateLimiter tokenBucket(int capacity, long refillPeriod, @NotNull TimeUnit unit) {
+    Objects.requireNonNull(unit, "unit");
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity should be positive");
+    }
+    if (refillPeriod <= 0) {
+      throw new IllegalArgumentException("refillPeriod should be positive");
+    }
+    return new RateLimiter(capacity, unit.toNanos(refillPeriod));
+  }
+
+  /**
+   * Returns an id of the specified {@link UUID}, which the platforms tell players apart by.
+   *
+   * @param uuid uuid
+   * @return sender id
+   */
+  public static long senderId(@NotNull UUID uuid) {
+    return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+  }
+
+  private final int capacity;
+  private final long refillNanos;
+  // how far ahead of now the time the bucket is full again can be, while a token is left
+  private final long burstNanos;
+  private final Stripe[] stripes;
+  private volatile RejectMessage rejectMessage = new RejectMessage(DEFAULT_REJECT_MESSAGE);
+
+  private RateLimiter(int capacity, long refillNanos) {
+    this.capacity = capacity;
+    this.refillNanos = refillNanos;
+    this.burstNanos = (capacity - 1) * refillNanos;
+    this.stripes = new Stripe[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Sets the message the rejected executions are reported to the sender with. The first <code>%d
+   * </code> in it is replaced with the seconds left until the sender can execute again, the rest
+   * of the message is sent as is.
+   *
+   * @param rejectMessage reject message
+   * @return this instance for chaining
+   */
+  @NotNull
+  public RateLimiter rejectMessage(@NotNull String rejectMessage) {
+    this.rejectMessage = new RejectMessage(Objects.requireNonNull(rejectMessage, "rejectMessage"));
+    return this;
+  }
+
+  /**
+   * Takes a token of the sender with the specified id, if it has any left.
+   *
+   * @param senderId sender id
+   * @return <code>true</code> if a token was taken, <code>false</code> otherwise
+   */
+  public boolean tryAcquire(long senderId) {
+    return tryAcquire(senderId, System.nanoTime()) == 0;
+  }
+
+  /**
+   * Takes a token of the sender with the specified id, or throws the {@link #getRejectMessage()
+   * reject message} if it has none left.
+   *
+   * @param senderId sender id
+   * @throws CommandSyntaxException if the sender has no tokens left
+   */
+  public void acquire(long senderId) throws CommandSyntaxException {
+    long waitNanos = tryAcquire(senderId, System.nanoTime());
+    if (waitNanos != 0) {
+      long seconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+      throw rejectMessage.create(seconds);
+    }
+  }
+
+  // returns 0 if a token was taken, or the nanos until one is given back otherwise
+  long tryAcquire(long senderId, long now) {
+    Stripe stripe = stripe(senderId);
+    synchronized (stripe) {
+      int slot = stripe.find(senderId);
+      long fullAt = slot < 0 ? now : Math.max(stripe.values[slot], now);
+      long waitNanos = fullAt - burstNanos - now;
+      if (waitNanos > 0) {
+        return waitNanos;
+      }
+      stripe.put(senderId, fullAt + refillNanos, now);
+      return 0;
+    }
+  }
+
+  /**
+   * Forgets the tokens taken by the sender with the specified id.
+   *
+   * @param senderId sender id
+   */
+  public void evict(long senderId) {
+    Stripe stripe = stripe(senderId);
+    synchronized (stripe) {
+      int slot = stripe.find(senderId);
+      if (slot >= 0) {
+        stripe.removeAt(slot);
+      }
+    }
+  }
+
+  /** Forgets the senders whose buckets are full again, which are held until their stripe grows. */
+  public void evictExpired() {
+    long now = System.nanoTime();
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        stripe.removeExpired(now);
+      }
+    }
+  }
+
+  /**
+   * Returns the amount of senders held, including the ones whose buckets are full again.
+   *
+   * @return held senders
+   */
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        size += stripe.size;
+      }
+    }
+    return size;
+  }
+
+  private Stripe stripe(long senderId) {
+    return stripes[(int) mix(senderId) & (STRIPES - 1)];
+  }
+
+  private static long mix(long key) {
+    key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+    key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return key ^ (key >>> 33);
+  }
+
+  /**
+   * Returns the amount of executions a sender can do in a row.
+   *
+   * @return capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the period, in nanoseconds, a sender is given an execution back every.
+   *
+   * @return refill period
+   */
+  public long getRefillNanos() {
+    return refillNanos;
+  }
+
+  /**
+   * Returns the message the rejected executions are reported to the sender with.
+   *
+   * @return reject message
+   */
+  @NotNull
+  public String getRejectMessage() {
+    return rejectMessage.message;
+  }
+
+  // the reject message split around the seconds ahead of time. The messages with the seconds are
+  // not cached by CommandExceptions, as every amount of seconds would take up a slot of its cache
+  private static final class RejectMessage {
+
+    private static final String SECONDS = "%d";
+
+    final String message;
+    private final String prefix;
+    private final String suffix;
+    private final StacklessExceptionType constant;
+
+    RejectMessage(String message) {
+      this.message = message;
+      int seconds = message.indexOf(SECONDS);
+      if (seconds == -1) {
+        this.prefix = null;
+        this.suffix = null;
+        this.constant = new StacklessExceptionType(new LiteralMessage(message));
+      } else {
+        this.prefix = message.substring(0, seconds);
+        this.suffix = message.substring(seconds + SECONDS.length());
+        this.constant = null;
+      }
+    }
+
+    CommandSyntaxException create(long seconds) {
+      if (constant != null) {
+        return constant.create();
+      }
+      return new StacklessExceptionType(new LiteralMessage(prefix + seconds + suffix)).create();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "RateLimiter(capacity=" + capacity + ", refillNanos=" + refillNanos + ")";
+  }
+
+  /**
+   * Represents an open addressing hash map of sender ids to the times their buckets are full again,
+   * which is only accessed while holding its lock.
+   */
+  private static final class Stripe {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    int find(long key) {
+      int mask = keys.length - 1;
+      for (int slot = (int) (mix(key) >>> 4) & mask; used[slot]; slot = (slot + 1) & mask) {
+        if (keys[slot] == key) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    void put(long key, long value, long now) {
+      int slot = find(key);
+      if (slot >= 0) {
+        values[slot] = value;
+        return;
+      }
+      if ((size + 1) * 4 > keys.length * 3) {
+        // the senders whose buckets are full again make room before the table grows
+        removeExpired(now);
+        if ((size + 1) * 2 > keys.length) {
+          resize(keys.length * 2);
+        }
+      }
+      insert(key, value);
+    }
+
+    private void insert(long key, long value) {
+      int mask = keys.length - 1;
+      int slot = (int) (mix(key) >>> 4) & mask;
+      while (used[slot]) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+      used[slot] = true;
+      size++;
+    }
+
+    void removeExpired(long now) {
+      long[] oldKeys = keys;
+      long[] oldValues = values;
+      boolean[] oldUsed = used;
+      int capacity = keys.length;
+      int live = 0;
+      for (int i = 0; i < capacity; i++) {
+        if (oldUsed[i] && oldValues[i] - now > 0) {
+          live++;
+        }
+      }
+      if (live == size) {
+        return;
+      }
+      while (capacity > INITIAL_CAPACITY && live * 4 < capacity) {
+        capacity /= 2;
+      }
+      keys = new long[capacity];
+      values = new long[capacity];
+      used = new boolean[capacity];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldUsed[i] && oldValues[i] - now > 0) {
+          insert(oldKeys[i], oldValues[i]);
+        }
+      }
+    }
+
+    void removeAt(int slot) {
+      // shifts the following entries back, so none of them becomes unreachable
+      int mask = keys.length - 1;
+      int hole = slot;
+      for (int next = (hole + 1) & mask; used[next]; next = (next + 1) & mask) {
+        int home = (int) (mix(keys[next]) >>> 4) & mask;
+        if (((next - home) & mask) >= ((next - hole) & mask)) {
+          keys[hole] = keys[next];
+          values[hole] = values[next];
+          hole = next;
+        }
+      }
+      used[hole] = false;
+      size--;
+    }
+
+    private void resize(int capacity) {
+      long[] oldKeys = keys;
+      long[] oldValues = values;
+      boolean[] oldUsed = used;
+      keys = new long[capacity];
+      values = new long[capacity];
+      used = new boolean[capacity];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldUsed[i]) {
+          insert(oldKeys[i], oldValues[i]);
+        }
+      }
+    }
+  }
+}
@@ -1,9 +1,28 @@
 package com.mrivanplays.commandworker.core;
 
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.metrics.CommandEvent;
+import com.mrivanplays.commandworker.core.metrics.CommandEvents;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a command which is registered.
@@ -12,6 +31,8 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class RegisteredCommand<S> {
 
+  private static final BiConsumer<Object, Boolean> IGNORE_RESULT = (sender, success) -> {};
+
   private final String[] aliases;
   private final Command<S> command;
 
@@ -19,13 +40,85 @@ public final class RegisteredCommand<S> {
 
   private final LiteralNode commandStructure;
 
+  private final CommandManager<S> manager;
+  private final Bulkhead bulkhead;
+
+  private final RateLimiter rateLimiter;
+  // the rate limiters of the command and every argument of it, which forget evicted senders
+  private final RateLimiter[] rateLimiters;
+  // the rate limiters of the arguments on the path to every argument, from the first argument on
+  private final Map<Argument, RateLimiter[]> pathRateLimiters;
+
+  private final CommandMetrics metrics;
+
   public RegisteredCommand(String[] aliases, Command<S> command, Predicate<S> permissionChecker) {
+    this(aliases, command, permissionChecker, null);
+  }
+
+  public RegisteredCommand(
+      String[] aliases,
+      Command<S> command,
+      Predicate<S> permissionChecker,
+      @Nullable CommandManager<S> manager) {
+    this(aliases, command, permissionChecker, null, manager);
+  }
+
+  public RegisteredCommand(
+      String[] aliases,
+      Command<S> command,
+      Predicate<S> permissionChecker,
+      @Nullable RateLimiter rateLimiter,
+      @Nullable CommandManager<S> manager) {
     this.aliases = aliases;
     this.command = command;
     this.permissionChecker = permissionChecker;
+    this.manager = manager;
+    this.bulkhead =
+        command instanceof AsyncCommand ? ((AsyncCommand<S>) command).getBulkhead() : null;
     this.commandStructure =
         Objects.requireNonNull(
-            command.createCommandStructure(), "command structure null for " + aliases[0]);
+                command.createCommandStructure(), "command structure null for " + aliases[0])
+            .freeze();
+    commandStructure.setCommandName(aliases[0]);
+    this.rateLimiter = rateLimiter;
+    List<RateLimiter> rateLimiters = new ArrayList<>();
+    if (rateLimiter != null) {
+      rateLimiters.add(rateLimiter);
+    }
+    collectRateLimiters(commandStructure.getTree(), rateLimiters);
+    this.rateLimiters = rateLimiters.toArray(new RateLimiter[0]);
+    this.pathRateLimiters = new IdentityHashMap<>();
+    collectPathRateLimiters(commandStructure.getTree(), new ArrayList<>(), pathRateLimiters);
+    this.metrics = new CommandMetrics(aliases[0]);
+    metrics.setEnabled(manager != null && manager.isMetricsEnabled());
+  }
+
+  private static void collectRateLimiters(List<ArgumentNode> nodes, List<RateLimiter> into) {
+    for (ArgumentNode node : nodes) {
+      RateLimiter rateLimiter = node.getRateLimiter();
+      if (rateLimiter != null && !into.contains(rateLimiter)) {
+        into.add(rateLimiter);
+      }
+      collectRateLimiters(node.getChildren(), into);
+    }
+  }
+
+  private static void collectPathRateLimiters(
+      List<ArgumentNode> nodes, List<RateLimiter> path, Map<Argument, RateLimiter[]> into) {
+    for (ArgumentNode node : nodes) {
+      RateLimiter rateLimiter = node.getRateLimiter();
+      if (rateLimiter != null) {
+        path.add(rateLimiter);
+      }
+      // an argument reachable through multiple paths is limited by the first one
+      if (!path.isEmpty() && !into.containsKey(node.getArgument())) {
+        into.put(node.getArgument(), path.toArray(new RateLimiter[0]));
+      }
+      collectPathRateLimiters(node.getChildren(), path, into);
+      if (rateLimiter != null) {
+        path.remove(path.size() - 1);
+      }
+    }
   }
 
   /**
@@ -36,7 +129,14 @@ public final class RegisteredCommand<S> {
    */
   public boolean hasPermission(@NotNull S sender) {
     Objects.requireNonNull(sender, "sender");
-    return permissionChecker.test(sender);
+    CommandEvent event = CommandEvents.permissionCheck();
+    long start = metrics.start();
+    boolean allowed = permissionChecker.test(sender);
+    metrics.recordPermissionCheck(start, allowed);
+    if (event.shouldCommit()) {
+      event.commit(aliases[0], sender);
+    }
+    return allowed;
   }
 
   /**
@@ -80,6 +180,243 @@ public final class RegisteredCommand<S> {
     return command;
   }
 
+  /**
+   * Returns the {@link RateLimiter} the command was registered with, if any.
+   *
+   * @return rate limiter
+   */
+  @Nullable
+  public RateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  /**
+   * Takes a token of the specified sender from the {@link #getRateLimiter() rate limiter} of the
+   * command, if it has one. The platforms call this before parsing the arguments.
+   *
+   * @param sender sender
+   * @throws CommandSyntaxException if the sender executes the command too often
+   */
+  public void checkRateLimit(@NotNull S sender) throws CommandSyntaxException {
+    if (rateLimiter != null) {
+      acquire(rateLimiter, sender);
+    }
+  }
+
+  /**
+   * Takes a token of the specified sender from the rate limiters of the specified argument, which
+   * the command is executed through, and of every argument on the path to it, starting from the
+   * first argument. The tokens taken before a rate limiter rejects the sender are not given back.
+   *
+   * @param sender sender
+   * @param argument the last argument, or <code>null</code> if the command is executed without any
+   * @throws CommandSyntaxException if the sender executes the command through any of the arguments
+   *     too often
+   * @see Argument#getRateLimiter()
+   */
+  public void checkRateLimit(@NotNull S sender, @Nullable Argument argument)
+      throws CommandSyntaxException {
+    if (argument == null || pathRateLimiters.isEmpty()) {
+      return;
+    }
+    RateLimiter[] limiters = pathRateLimiters.get(argument);
+    if (limiters != null) {
+      for (RateLimiter limiter : limiters) {
+        acquire(limiter, sender);
+      }
+    }
+  }
+
+  private void acquire(RateLimiter limiter, S sender) throws CommandSyntaxException {
+    try {
+      limiter.acquire(getSenderId(sender));
+    } catch (CommandSyntaxException e) {
+      metrics.recordRejection();
+      throw e;
+    }
+  }
+
+  /**
+   * Forgets everything the rate limiters of the command and its arguments hold about the specified
+   * sender.
+   *
+   * @param sender sender
+   * @see CommandManager#evictSender(Object)
+   */
+  public void evictSender(@NotNull S sender) {
+    if (rateLimiters.length == 0) {
+      return;
+    }
+    long senderId = getSenderId(sender);
+    for (RateLimiter limiter : rateLimiters) {
+      limiter.evict(senderId);
+    }
+  }
+
+  private long getSenderId(S sender) {
+    return manager != null ? manager.getSenderId(sender) : System.identityHashCode(sender);
+  }
+
+  /**
+   * Returns the {@link CommandMetrics} of the command, which are recorded while the metrics of the
+   * command manager it's registered with are enabled.
+   *
+   * @return metrics
+   * @see CommandManager#setMetricsEnabled(boolean)
+   */
+  @NotNull
+  public CommandMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the {@link Bulkhead} limiting the executions of the represented command, if it's an
+   * {@link AsyncCommand} which has one.
+   *
+   * @return bulkhead, or null
+   */
+  @Nullable
+  public Bulkhead getBulkhead() {
+    return bulkhead;
+  }
+
+  /**
+   * Executes the represented command with the provided sender, label and arguments, the same way
+   * {@link #execute(Object, String, ArgumentHolder, BiConsumer, BiConsumer)} does, without handling
+   * the success state of async commands.
+   *
+   * @param sender sender
+   * @param label label
+   * @param args arguments
+   * @param syntaxExceptionHandler handler of the syntax exceptions of async commands
+   * @return success state
+   * @throws CommandSyntaxException if the command is not async, and failed with it, or if the
+   *     bulkhead of the command rejected it
+   */
+  public boolean execute(
+      @NotNull S sender,
+      @NotNull String label,
+      @NotNull ArgumentHolder args,
+      @NotNull BiConsumer<S, CommandSyntaxException> syntaxExceptionHandler)
+      throws CommandSyntaxException {
+    return execute(sender, label, args, IGNORE_RESULT, syntaxExceptionHandler);
+  }
+
+  /**
+   * Executes the represented command with the provided sender, label and arguments. This is what
+   * the platforms call when the command is dispatched.
+   *
+   * <p>If the command is an {@link AsyncCommand}, a snapshot of the arguments is taken and the
+   * command is executed on the {@link CommandManager#getExecutor() executor} of the command
+   * manager, and this returns <code>true</code> right away. Once the command completes, its
+   * success state is handed back through the {@link CommandManager#getScheduler() scheduler} to
+   * the specified result handler, and a {@link CommandSyntaxException} it failed with to the
+   * specified syntax exception handler. Any other failure is reported to the uncaught exception
+   * handler of the thread the scheduler runs it on.
+   *
+   * <p>If the command has a {@link #getBulkhead() bulkhead}, the command may instead wait for the
+   * executions running before it, or be rejected right away. Without one, the command is rejected
+   * with the {@link Bulkhead#DEFAULT_REJECT_MESSAGE} if the executor is saturated.
+   *
+   * @param sender sender
+   * @param label label
+   * @param args arguments
+   * @param resultHandler handler of the success states of async commands
+   * @param syntaxExceptionHandler handler of the syntax exceptions of async commands
+   * @return success state
+   * @throws CommandSyntaxException if the command is not async, and failed with it, or if the
+   *     bulkhead of the command or the executor rejected it
+   */
+  public boolean execute(
+      @NotNull S sender,
+      @NotNull String label,
+      @NotNull ArgumentHolder args,
+      @NotNull BiConsumer<? super S, Boolean> resultHandler,
+      @NotNull BiConsumer<S, CommandSyntaxException> syntaxExceptionHandler)
+      throws CommandSyntaxException {
+    CommandEvent event = CommandEvents.execute();
+    long start = metrics.start();
+    if (!(command instanceof AsyncCommand)) {
+      boolean failed = true;
+      try {
+        boolean success = command.execute(sender, label, args);
+        failed = false;
+        return success;
+      } finally {
+        metrics.recordExecute(start, failed);
+        commit(event, sender, label, args);
+      }
+    }
+    AsyncCommand<S> asyncCommand = (AsyncCommand<S>) command;
+    // the holder is reused once this returns, so the command gets a copy of its own
+    ArgumentHolder snapshot = args.snapshot();
+    Scheduler scheduler = manager != null ? manager.getScheduler() : Scheduler.direct();
+    Supplier<CompletableFuture<Boolean>> task =
+        () -> {
+          try {
+            return asyncCommand.executeAsync(sender, label, snapshot);
+          } catch (CommandSyntaxException e) {
+            throw new CompletionException(e);
+          }
+        };
+    CompletableFuture<Boolean> future;
+    if (bulkhead != null) {
+      try {
+        future = bulkhead.execute(sender, getExecutor(), task);
+      } catch (CommandSyntaxException e) {
+        metrics.recordRejection();
+        throw e;
+      }
+    } else {
+      try {
+        future =
+            CompletableFuture.supplyAsync(task, getExecutor()).thenCompose(Function.identity());
+      } catch (RejectedExecutionException e) {
+        // the executor is saturated, which is reported the same way a full bulkhead is
+        metrics.recordRejection();
+        throw CommandExceptions.of(Bulkhead.DEFAULT_REJECT_MESSAGE).create();
+      }
+    }
+    future.whenComplete(
+        (success, error) -> {
+          metrics.recordExecute(start, error != null);
+          commit(event, sender, label, snapshot);
+          if (error != null) {
+            scheduler.schedule(() -> handleFailure(sender, error, syntaxExceptionHandler));
+          } else if (resultHandler != IGNORE_RESULT) {
+            scheduler.schedule(() -> resultHandler.accept(sender, success));
+          }
+        });
+    return true;
+  }
+
+  private void commit(CommandEvent event, S sender, String label, ArgumentHolder args) {
+    if (event.shouldCommit()) {
+      event.commit(
+          label,
+          CommandEvents.nodePath(commandStructure, args.getLastArgument()),
+          sender,
+          args.getInput().length());
+    }
+  }
+
+  private Executor getExecutor() {
+    return manager != null ? manager.getExecutor() : CommandExecutors.defaultExecutor();
+  }
+
+  private void handleFailure(
+      S sender, Throwable error, BiConsumer<S, CommandSyntaxException> syntaxExceptionHandler) {
+    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+    if (cause instanceof CommandSyntaxException) {
+      syntaxExceptionHandler.accept(sender, (CommandSyntaxException) cause);
+    } else {
+      // thrown here, this would only complete the dependent future of the callback nobody holds,
+      // such as with the direct scheduler, so it's reported the way uncaught exceptions are
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, cause);
+    }
+  }
+
   @Override
   public String toString() {
     return "RegisteredCommand(command="
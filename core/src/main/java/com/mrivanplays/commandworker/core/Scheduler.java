@@ -0,0 +1,33 @@
+package com.mrivanplays.commandworker.core;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a scheduler, which runs tasks on the thread owning the senders of the commands, such
+ * as the main thread of the server. The results of {@link AsyncCommand}s are handed back through
+ * it.
+ *
+ * @see CommandManager#setScheduler(Scheduler)
+ * @see LocalScheduler
+ */
+@FunctionalInterface
+public interface Scheduler {
+
+  /**
+   * Returns a scheduler, which runs the tasks right away on the calling thread, for platforms
+   * without a thread owning the senders.
+   *
+   * @return direct scheduler
+   */
+  @NotNull
+  static Scheduler direct() {
+    return Runnable::run;
+  }
+
+  /**
+   * Schedules the specified task to run on the owning thread.
+   *
+   * @param task task
+   */
+  void schedule(@NotNull Runnable task);
+}
@@ -0,0 +1,136 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.ImmutableStringReader;
+import com.mojang.brigadier.Message;
+import com.mojang.brigadier.exceptions.CommandExceptionType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a {@link CommandExceptionType} with a constant message, which creates {@link
+ * CommandSyntaxException}s without filling their stack trace, as long as {@link
+ * CommandExceptions#isStackless()}.
+ *
+ * <p>The exception created without context is preallocated and shared by every {@link #create()}
+ * call, as it carries nothing more than the message. {@link #createNew()} creates one which is not
+ * shared.
+ *
+ * @see CommandExceptions
+ */
+public final class StacklessExceptionType implements CommandExceptionType {
+
+  private final CommandExceptionType type;
+  private final Message message;
+  private final String messageString;
+  private final CommandSyntaxException preallocated;
+
+  /**
+   * Creates a new stackless exception type with the specified message.
+   *
+   * @param message message
+   */
+  public StacklessExceptionType(@NotNull Message message) {
+    this(null, message);
+  }
+
+  /**
+   * Creates a new stackless exception type with the specified message, whose exceptions report the
+   * specified type as theirs. This is used to keep brigadier's built-in exception types, so
+   * exceptions can still be compared against them.
+   *
+   * @param type the type the created exceptions should report, or <code>null</code> for this one
+   * @param message message
+   */
+  public StacklessExceptionType(CommandExceptionType type, @NotNull Message message) {
+    this.type = type != null ? type : this;
+    this.message = Objects.requireNonNull(message, "message");
+    this.messageString = message.getString();
+    this.preallocated = new Stackless(this.type, message, null, -1);
+  }
+
+  /**
+   * Returns a {@link CommandSyntaxException} of this type. While {@link
+   * CommandExceptions#isStackless()}, this is the same instance every time, so it should only be
+   * thrown as is: a cause or a suppressed exception added to it would show up on every other
+   * exception of this type. Use {@link #createNew()} for an exception which is not shared.
+   *
+   * @return exception
+   */
+  @NotNull
+  public CommandSyntaxException create() {
+    if (CommandExceptions.isStackless()) {
+      return preallocated;
+    }
+    return new CommandSyntaxException(type, message);
+  }
+
+  /**
+   * Creates a new {@link CommandSyntaxException} of this type, which is not shared with any other
+   * caller, but still has no stack trace as long as {@link CommandExceptions#isStackless()}.
+   *
+   * @return exception
+   */
+  @NotNull
+  public CommandSyntaxException createNew() {
+    if (CommandExceptions.isStackless()) {
+      return new Stackless(type, message, null, -1);
+    }
+    return new CommandSyntaxException(type, message);
+  }
+
+  /**
+   * Creates a new {@link CommandSyntaxException} of this type, with the input and the cursor of the
+   * specified reader as context.
+   *
+   * @param reader reader
+   * @return exception
+   */
+  @NotNull
+  public CommandSyntaxException createWithContext(@NotNull ImmutableStringReader reader) {
+    Objects.requireNonNull(reader, "reader");
+    if (CommandExceptions.isStackless()) {
+      return new Stackless(type, message, reader.getString(), reader.getCursor());
+    }
+    return new CommandSyntaxException(type, message, reader.getString(), reader.getCursor());
+  }
+
+  /**
+   * Returns the raw message of this type.
+   *
+   * @return raw message
+   */
+  @NotNull
+  public Message getRawMessage() {
+    return message;
+  }
+
+  /**
+   * Returns the message of this type, as a string.
+   *
+   * @return message
+   */
+  @NotNull
+  public String getMessage() {
+    return messageString;
+  }
+
+  @Override
+  public String toString() {
+    return "StacklessExceptionType(message=" + messageString + ")";
+  }
+
+  private static final class Stackless extends CommandSyntaxException {
+
+    private static final long serialVersionUID = 1L;
+
+    Stackless(CommandExceptionType type, Message message, String input, int cursor) {
+      super(type, message, input, cursor);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+}
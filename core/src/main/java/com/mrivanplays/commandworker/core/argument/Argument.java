@@ -2,6 +2,8 @@ package com.mrivanplays.commandworker.core.argument;
 
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mrivanplays.commandworker.core.RateLimiter;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
@@ -58,6 +60,41 @@ public interface Argument {
     return null;
   }
 
+  /**
+   * Returns unmodifiable list of the {@link SuggestionsProvider}s of this argument, whose
+   * suggestions are merged with the ones of the {@link #getSuggestionsConsumer()}. By default,
+   * this returns an empty list.
+   *
+   * @return suggestions providers
+   */
+  @NotNull
+  default List<SuggestionsProvider> getSuggestionsProviders() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the {@link SuggestionsCache} the suggestions of this argument are cached in, if any. By
+   * default, this returns <code>null</code>.
+   *
+   * @return suggestions cache
+   */
+  @Nullable
+  default SuggestionsCache getSuggestionsCache() {
+    return null;
+  }
+
+  /**
+   * Returns the {@link RateLimiter} limiting how often each sender can execute the command through
+   * this argument, if any, which includes the executions through the children of this argument. By
+   * default, this returns <code>null</code>.
+   *
+   * @return rate limiter
+   */
+  @Nullable
+  default RateLimiter getRateLimiter() {
+    return null;
+  }
+
   /**
    * Returns whether or not this argument should call the base command's execute method when the
    * argument ends up being the last typed argument. This marking is being ignored if brigadier
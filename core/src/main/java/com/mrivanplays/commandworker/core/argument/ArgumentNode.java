@@ -0,0 +1,363 @@
+package com.mrivanplays.commandworker.core.argument;
+
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mrivanplays.commandworker.core.RateLimiter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a frozen, immutable node of a command structure, compiled out of an {@link Argument}
+ * when the {@link com.mrivanplays.commandworker.core.LiteralNode} holding it is being frozen.
+ *
+ * <p>Everything about the argument is read once and held in plain fields and arrays, along with
+ * the parent and the depth of the node, so walking the command structure neither calls back into
+ * the arguments nor allocates. An argument added as a child of multiple arguments is compiled into
+ * a node for each of them.
+ *
+ * @see com.mrivanplays.commandworker.core.LiteralNode#getTree()
+ */
+public final class ArgumentNode {
+
+  private static final ArgumentNode[] NO_CHILDREN = new ArgumentNode[0];
+
+  /**
+   * Compiles the specified base arguments, along with their children, into frozen nodes.
+   *
+   * @param arguments base arguments
+   * @return nodes
+   */
+  @NotNull
+  public static List<ArgumentNode> compile(@NotNull List<Argument> arguments) {
+    Objects.requireNonNull(arguments, "arguments");
+    return view(compile(arguments, null, 0, new int[1]));
+  }
+
+  // the nodes are numbered in preorder, so every node of a tree has an id of its own
+  private static ArgumentNode[] compile(
+      List<Argument> arguments, ArgumentNode parent, int depth, int[] nextId) {
+    if (arguments.isEmpty()) {
+      return NO_CHILDREN;
+    }
+    ArgumentNode[] nodes = new ArgumentNode[arguments.size()];
+    for (int i = 0; i < nodes.length; i++) {
+      ArgumentNode node = new ArgumentNode(arguments.get(i), parent, depth, nextId[0]++);
+      node.children = compile(node.argument.getChildren(), node, depth + 1, nextId);
+      node.childrenView = view(node.children);
+      nodes[i] = node;
+    }
+    return nodes;
+  }
+
+  private static List<ArgumentNode> view(ArgumentNode[] nodes) {
+    return nodes.length == 0
+        ? Collections.emptyList()
+        : Collections.unmodifiableList(Arrays.asList(nodes));
+  }
+
+  private final Argument argument;
+  private final String name;
+  private final ArgumentType<?> argumentType;
+  private final boolean literal;
+  private final boolean shouldExecuteCommand;
+  private final Consumer<SuggestionsBuilder> suggestionsConsumer;
+  private final SuggestionsProvider[] suggestionsProviders;
+  private final SuggestionsCache suggestionsCache;
+  private final RateLimiter rateLimiter;
+  private final ArgumentNode parent;
+  private final int depth;
+  private final int id;
+  private ArgumentNode[] children;
+  private List<ArgumentNode> childrenView;
+
+  private ArgumentNode(Argument argument, ArgumentNode parent, int depth, int id) {
+    this.argument = argument;
+    this.name = argument.getName();
+    this.argumentType = argument.getArgumentType();
+    this.literal = argument.isLiteral();
+    this.shouldExecuteCommand = argument.shouldExecuteCommand();
+    this.suggestionsConsumer = argument.getSuggestionsConsumer();
+    this.suggestionsProviders =
+        argument.getSuggestionsProviders().toArray(new SuggestionsProvider[0]);
+    this.suggestionsCache = argument.getSuggestionsCache();
+    this.rateLimiter = argument.getRateLimiter();
+    this.parent = parent;
+    this.depth = depth;
+    this.id = id;
+  }
+
+  /**
+   * Returns the argument this node was compiled out of.
+   *
+   * @return argument
+   */
+  @NotNull
+  public Argument getArgument() {
+    return argument;
+  }
+
+  /**
+   * Returns the name of the argument.
+   *
+   * @return name
+   * @see Argument#getName()
+   */
+  @NotNull
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the brigadier argument type of the argument, if it's required.
+   *
+   * @param <T> the type held by the argument type
+   * @return argument type
+   * @see Argument#getArgumentType()
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <T> ArgumentType<T> getArgumentType() {
+    return (ArgumentType<T>) argumentType;
+  }
+
+  /**
+   * Returns whether or not the argument is literal.
+   *
+   * @return <code>true</code> if literal, <code>false</code> otherwise
+   * @see Argument#isLiteral()
+   */
+  public boolean isLiteral() {
+    return literal;
+  }
+
+  /**
+   * Returns whether or not the argument should call the base command's execute method when it
+   * ends up being the last typed argument.
+   *
+   * @return <code>true</code> if should have execute, <code>false</code> otherwise
+   * @see Argument#shouldExecuteCommand()
+   */
+  public boolean shouldExecuteCommand() {
+    return shouldExecuteCommand;
+  }
+
+  /**
+   * Returns the {@link SuggestionsBuilder} consumer of the argument, if any.
+   *
+   * @return suggestions consumer
+   * @see Argument#getSuggestionsConsumer()
+   */
+  @Nullable
+  public Consumer<SuggestionsBuilder> getSuggestionsConsumer() {
+    return suggestionsConsumer;
+  }
+
+  /**
+   * Returns the {@link RateLimiter} of the argument, if any.
+   *
+   * @return rate limiter
+   * @see Argument#getRateLimiter()
+   */
+  @Nullable
+  public RateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  /**
+   * Returns whether or not the argument has suggestions of its own, through a suggestions consumer
+   * or {@link SuggestionsProvider}s, which replace the suggestions of its argument type.
+   *
+   * @return <code>true</code> if custom suggestions, <code>false</code> otherwise
+   */
+  public boolean hasCustomSuggestions() {
+    return suggestionsConsumer != null || suggestionsProviders.length != 0;
+  }
+
+  /**
+   * Lists the suggestions of the argument for the input of the specified builder. The suggestions
+   * of the consumer and every {@link SuggestionsProvider} are merged, and if there are none of
+   * them, the suggestions of the argument type are listed. This does not block, the returned future
+   * completes once every provider has completed, or timed out.
+   *
+   * @param builder suggestions builder
+   * @return future of the suggestions
+   */
+  @NotNull
+  public CompletableFuture<Suggestions> listSuggestions(@NotNull SuggestionsBuilder builder) {
+    return listSuggestions(builder, null);
+  }
+
+  /**
+   * Lists the suggestions of the argument for the input of the specified builder, the same way
+   * {@link #listSuggestions(SuggestionsBuilder)} does, for the specified sender. If the argument
+   * has a {@link SuggestionsCache}, the cached suggestions are returned when there are any, and
+   * the listed ones are cached otherwise.
+   *
+   * @param builder suggestions builder
+   * @param sender the sender the suggestions are for, or <code>null</code> if not known
+   * @return future of the suggestions
+   */
+  @NotNull
+  public CompletableFuture<Suggestions> listSuggestions(
+      @NotNull SuggestionsBuilder builder, @Nullable Object sender) {
+    Objects.requireNonNull(builder, "builder");
+    if (suggestionsCache == null) {
+      return listUncached(builder, null);
+    }
+    Object key = suggestionsCache.key(argument, builder, sender);
+    Suggestions cached = suggestionsCache.get(key, builder);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+    return listUncached(builder, key);
+  }
+
+  /**
+   * Lists the suggestions of the argument for the input of the specified builder, for a caller
+   * which can't wait for them, such as the legacy completions. Unless the argument has a {@link
+   * SuggestionsCache}, its {@link SuggestionsProvider}s are not even started, as their suggestions
+   * would be thrown away, and only the suggestions of the consumer are listed. With a cache, they
+   * are listed the way {@link #listSuggestions(SuggestionsBuilder, Object)} does, so the
+   * suggestions of the providers are cached for the next time.
+   *
+   * @param builder suggestions builder
+   * @param sender the sender the suggestions are for, or <code>null</code> if not known
+   * @return future of the suggestions, which may not be completed yet if the argument has a cache
+   */
+  @NotNull
+  public CompletableFuture<Suggestions> listSuggestionsNow(
+      @NotNull SuggestionsBuilder builder, @Nullable Object sender) {
+    Objects.requireNonNull(builder, "builder");
+    if (suggestionsProviders.length == 0 || suggestionsCache != null) {
+      return listSuggestions(builder, sender);
+    }
+    if (suggestionsConsumer == null) {
+      return Suggestions.empty();
+    }
+    suggestionsConsumer.accept(builder);
+    return builder.buildFuture();
+  }
+
+  private CompletableFuture<Suggestions> listUncached(SuggestionsBuilder builder, Object key) {
+    if (suggestionsProviders.length == 0) {
+      CompletableFuture<Suggestions> suggestions;
+      if (suggestionsConsumer != null) {
+        suggestionsConsumer.accept(builder);
+        suggestions = builder.buildFuture();
+      } else if (argumentType == null) {
+        return Suggestions.empty();
+      } else {
+        suggestions = argumentType.listSuggestions(null, builder);
+      }
+      if (key != null) {
+        suggestions.thenAccept(listed -> suggestionsCache.put(key, builder, listed));
+      }
+      return suggestions;
+    }
+    List<CompletableFuture<Suggestions>> suggestions = new ArrayList<>();
+    if (suggestionsConsumer != null) {
+      SuggestionsBuilder consumerBuilder = builder.restart();
+      suggestionsConsumer.accept(consumerBuilder);
+      suggestions.add(consumerBuilder.buildFuture());
+    }
+    for (SuggestionsProvider provider : suggestionsProviders) {
+      suggestions.add(provide(provider, builder.restart()));
+    }
+    return CompletableFuture.allOf(suggestions.toArray(new CompletableFuture<?>[0]))
+        .thenApply(
+            done -> {
+              List<Suggestions> merged = new ArrayList<>(suggestions.size());
+              boolean complete = true;
+              for (CompletableFuture<Suggestions> future : suggestions) {
+                Suggestions listed = future.join();
+                complete &= listed != SuggestionsTimeouts.NONE;
+                merged.add(listed);
+              }
+              Suggestions result = Suggestions.merge(builder.getInput(), merged);
+              // a provider which timed out may complete in time the next time
+              if (key != null && complete) {
+                suggestionsCache.put(key, builder, result);
+              }
+              return result;
+            });
+  }
+
+  // a failing provider is treated as having no suggestions, so it can't fail the others
+  private static CompletableFuture<Suggestions> provide(
+      SuggestionsProvider provider, SuggestionsBuilder builder) {
+    try {
+      return provider.getSuggestions(builder).exceptionally(error -> SuggestionsTimeouts.NONE);
+    } catch (RuntimeException e) {
+      return CompletableFuture.completedFuture(SuggestionsTimeouts.NONE);
+    }
+  }
+
+  /**
+   * Returns the parent of this node, or <code>null</code> if it's a base argument.
+   *
+   * @return parent
+   */
+  @Nullable
+  public ArgumentNode getParent() {
+    return parent;
+  }
+
+  /**
+   * Returns the depth of this node, which is <code>0</code> for the base arguments.
+   *
+   * @return depth
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the id of this node, its position in the tree it was compiled into, counting the nodes
+   * in preorder from <code>0</code>.
+   *
+   * @return id
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * Returns unmodifiable list of the children of this node.
+   *
+   * @return children
+   */
+  @NotNull
+  public List<ArgumentNode> getChildren() {
+    return childrenView;
+  }
+
+  /**
+   * Returns whether or not this node has no children.
+   *
+   * @return <code>true</code> if leaf, <code>false</code> otherwise
+   */
+  public boolean isLeaf() {
+    return children.length == 0;
+  }
+
+  @Override
+  public String toString() {
+    return "ArgumentNode(name="
+        + name
+        + ", literal="
+        + literal
+        + ", depth="
+        + depth
+        + ", children="
+        + childrenView
+        + ")";
+  }
+}
@@ -1,10 +1,12 @@
 package com.mrivanplays.commandworker.core.argument;
 
+import com.mrivanplays.commandworker.core.RateLimiter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents literal argument. This is a wrapper for brigadier's LiteralArgumentBuilder, wrapped
@@ -24,13 +26,16 @@ public final class LiteralArgument implements Argument {
   }
 
   private final String name;
-  private List<Argument> children;
+  private final List<Argument> children;
+  private final List<Argument> childrenView;
 
   private boolean shouldExecuteCommand = false;
+  private RateLimiter rateLimiter;
 
   private LiteralArgument(@NotNull String name) {
     this.name = Objects.requireNonNull(name, "name");
     this.children = new ArrayList<>();
+    this.childrenView = Collections.unmodifiableList(children);
   }
 
   @Override
@@ -72,6 +77,19 @@ public final class LiteralArgument implements Argument {
     return this;
   }
 
+  /**
+   * Limits how often each sender can execute the command through this argument with the specified
+   * {@link RateLimiter}.
+   *
+   * @param rateLimiter rate limiter, or <code>null</code> to not limit
+   * @return this instance for chaining
+   */
+  @NotNull
+  public LiteralArgument rateLimit(@Nullable RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+    return this;
+  }
+
   /**
    * @return this instance for chaining
    * @see Argument#shouldExecuteCommand()
@@ -82,6 +100,11 @@ public final class LiteralArgument implements Argument {
     return this;
   }
 
+  @Override
+  public @Nullable RateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
   @Override
   public boolean shouldExecuteCommand() {
     return shouldExecuteCommand;
@@ -89,7 +112,7 @@ public final class LiteralArgument implements Argument {
 
   @Override
   public @NotNull List<Argument> getChildren() {
-    return Collections.unmodifiableList(children);
+    return childrenView;
   }
 
   @Override
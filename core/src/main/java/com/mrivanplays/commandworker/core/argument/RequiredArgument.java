@@ -2,10 +2,13 @@ package com.mrivanplays.commandworker.core.argument;
 
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mrivanplays.commandworker.core.RateLimiter;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentKey;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -31,18 +34,32 @@ public final class RequiredArgument<V> implements Argument {
     return new RequiredArgument<>(name, type);
   }
 
+  /** The time an asynchronous suggestions provider is given to complete by default. */
+  public static final long DEFAULT_SUGGESTIONS_TIMEOUT_MILLIS = 1000;
+
   private final String name;
   private final ArgumentType<V> type;
-  private List<Argument> children;
+  private final List<Argument> children;
+  private final List<Argument> childrenView;
 
   private boolean shouldExecuteCommand = true;
 
   private Consumer<SuggestionsBuilder> suggestionsConsumer;
+  private final List<SuggestionsProvider> suggestionsProviders;
+  private final List<SuggestionsProvider> suggestionsProvidersView;
+  private SuggestionsCache suggestionsCache;
+  private RateLimiter rateLimiter;
+
+  private final ArgumentKey<V> key;
 
   private RequiredArgument(@NotNull String name, @NotNull ArgumentType<V> type) {
     this.name = Objects.requireNonNull(name, "name");
     this.type = Objects.requireNonNull(type, "type");
     this.children = new ArrayList<>();
+    this.childrenView = Collections.unmodifiableList(children);
+    this.suggestionsProviders = new ArrayList<>();
+    this.suggestionsProvidersView = Collections.unmodifiableList(suggestionsProviders);
+    this.key = new ArgumentKey<>(this);
   }
 
   @Override
@@ -105,6 +122,70 @@ public final class RequiredArgument<V> implements Argument {
     return this;
   }
 
+  /**
+   * Adds an asynchronous {@link SuggestionsProvider}, whose suggestions are merged with the ones of
+   * the other providers and the suggestions consumer. The provider is given up to {@link
+   * #DEFAULT_SUGGESTIONS_TIMEOUT_MILLIS} milliseconds to complete.
+   *
+   * <p>The providers are only asked by the completions which can wait for them: brigadier
+   * suggestions and {@link
+   * com.mrivanplays.commandworker.core.LiteralNode#completeToStringListAsync(String[])}. The
+   * blocking legacy completions, which the Bukkit versions without brigadier use, don't start them,
+   * unless the suggestions are {@link #cacheSuggestions(SuggestionsCache) cached}, in which case
+   * they suggest what the providers listed the previous time.
+   *
+   * @param provider suggestions provider
+   * @return this instance for chaining
+   */
+  @NotNull
+  public RequiredArgument<V> suggestsAsync(@NotNull SuggestionsProvider provider) {
+    return suggestsAsync(provider, DEFAULT_SUGGESTIONS_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Adds an asynchronous {@link SuggestionsProvider}, whose suggestions are merged with the ones of
+   * the other providers and the suggestions consumer. If the provider does not complete within the
+   * specified timeout, it's treated as if it had no suggestions.
+   *
+   * @param provider suggestions provider
+   * @param timeout timeout
+   * @param unit unit of the timeout
+   * @return this instance for chaining
+   */
+  @NotNull
+  public RequiredArgument<V> suggestsAsync(
+      @NotNull SuggestionsProvider provider, long timeout, @NotNull TimeUnit unit) {
+    suggestionsProviders.add(SuggestionsProvider.withTimeout(provider, timeout, unit));
+    return this;
+  }
+
+  /**
+   * Caches the suggestions of this argument in the specified {@link SuggestionsCache}, so the
+   * suggestions consumer and providers aren't called again for the same typed prefix until the
+   * cached suggestions expire.
+   *
+   * @param suggestionsCache suggestions cache, or <code>null</code> to not cache
+   * @return this instance for chaining
+   */
+  @NotNull
+  public RequiredArgument<V> cacheSuggestions(@Nullable SuggestionsCache suggestionsCache) {
+    this.suggestionsCache = suggestionsCache;
+    return this;
+  }
+
+  /**
+   * Limits how often each sender can execute the command through this argument with the specified
+   * {@link RateLimiter}.
+   *
+   * @param rateLimiter rate limiter, or <code>null</code> to not limit
+   * @return this instance for chaining
+   */
+  @NotNull
+  public RequiredArgument<V> rateLimit(@Nullable RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+    return this;
+  }
+
   /**
    * @return this instance for chaining
    * @see Argument#shouldExecuteCommand()
@@ -115,11 +196,38 @@ public final class RequiredArgument<V> implements Argument {
     return this;
   }
 
+  /**
+   * Returns the typed {@link ArgumentKey} of this argument, with which its value can be retrieved
+   * from an {@link com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder} without a
+   * lookup by name.
+   *
+   * @return key
+   */
+  @NotNull
+  public ArgumentKey<V> key() {
+    return key;
+  }
+
   @Override
   public @Nullable Consumer<SuggestionsBuilder> getSuggestionsConsumer() {
     return suggestionsConsumer;
   }
 
+  @Override
+  public @NotNull List<SuggestionsProvider> getSuggestionsProviders() {
+    return suggestionsProvidersView;
+  }
+
+  @Override
+  public @Nullable SuggestionsCache getSuggestionsCache() {
+    return suggestionsCache;
+  }
+
+  @Override
+  public @Nullable RateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
   @Override
   public boolean shouldExecuteCommand() {
     return shouldExecuteCommand;
@@ -127,7 +235,7 @@ public final class RequiredArgument<V> implements Argument {
 
   @Override
   public @NotNull List<Argument> getChildren() {
-    return Collections.unmodifiableList(children);
+    return childrenView;
   }
 
   @Override
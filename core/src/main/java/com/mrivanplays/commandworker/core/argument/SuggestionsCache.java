@@ -0,0 +1,234 @@
+package com.mrivanplays.commandworker.core.argument;
+
+import com.mojang.brigadier.context.StringRange;
+import com.mojang.brigadier.suggestion.IntegerSuggestion;
+import com.mojang.brigadier.suggestion.Suggestion;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a cache of the suggestions of {@link RequiredArgument}s, so expensive suggestions are
+ * not computed again on every key stroke. The suggestions are cached by the argument and the typed
+ * prefix, and optionally by the sender, for a time to live, and the least recently used ones are
+ * evicted once the cache is full.
+ *
+ * <p>A cache may be shared between multiple arguments, in which case they share its maximum size.
+ * The suggestions of providers which timed out or failed are not cached.
+ *
+ * @see RequiredArgument#cacheSuggestions(SuggestionsCache)
+ */
+public final class SuggestionsCache {
+
+  /**
+   * Creates a new suggestions cache, which does not tell the senders apart.
+   *
+   * @param timeToLive the time the suggestions are cached for
+   * @param unit unit of the time to live
+   * @param maximumSize the maximum amount of cached suggestions
+   * @return suggestions cache
+   */
+  @NotNull
+  public static SuggestionsCache create(long timeToLive, @NotNull TimeUnit unit, int maximumSize) {
+    return create(timeToLive, unit, maximumSize, null);
+  }
+
+  /**
+   * Creates a new suggestions cache, which caches the suggestions separately for every key the
+   * specified function returns for the sender, for example the unique id of a player. This is
+   * needed when the suggestions depend on who is asking for them.
+   *
+   * @param timeToLive the time the suggestions are cached for
+   * @param unit unit of the time to live
+   * @param maximumSize the maximum amount of cached suggestions
+   * @param senderKey function returning the key of the sender, or <code>null</code> to not tell
+   *     the senders apart
+   * @return suggestions cache
+   */
+  @NotNull
+  public static SuggestionsCache create(
+      long timeToLive,
+      @NotNull TimeUnit unit,
+      int maximumSize,
+      @Nullable Function<Object, ?> senderKey) {
+    Objects.requireNonNull(unit, "unit");
+    if (timeToLive <= 0) {
+      throw new IllegalArgumentException("timeToLive should be positive");
+    }
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize should be positive");
+    }
+    return new SuggestionsCache(unit.toNanos(timeToLive), maximumSize, senderKey);
+  }
+
+  private final long timeToLiveNanos;
+  private final int maximumSize;
+  private final Function<Object, ?> senderKey;
+  private final LinkedHashMap<Key, Entry> entries;
+
+  private SuggestionsCache(long timeToLiveNanos, int maximumSize, Function<Object, ?> senderKey) {
+    this.timeToLiveNanos = timeToLiveNanos;
+    this.maximumSize = maximumSize;
+    this.senderKey = senderKey;
+    // access ordered, so the eldest entry is the least recently used one
+    this.entries =
+        new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > SuggestionsCache.this.maximumSize;
+          }
+        };
+  }
+
+  /**
+   * Returns the key, under which the suggestions of the specified argument are cached for the
+   * input of the specified builder.
+   *
+   * @param argument argument
+   * @param builder suggestions builder
+   * @param sender sender, or <code>null</code> if not known
+   * @return key
+   */
+  Object key(Argument argument, SuggestionsBuilder builder, Object sender) {
+    Object sender0 = senderKey != null && sender != null ? senderKey.apply(sender) : null;
+    return new Key(argument, builder.getRemaining(), sender0);
+  }
+
+  /**
+   * Returns the cached suggestions under the specified key, for the input of the specified
+   * builder, or <code>null</code> if there are none.
+   *
+   * @param key key
+   * @param builder suggestions builder
+   * @return suggestions
+   */
+  Suggestions get(Object key, SuggestionsBuilder builder) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (System.nanoTime() - entry.cachedAt >= timeToLiveNanos) {
+        entries.remove(key);
+        return null;
+      }
+    }
+    int shift = builder.getStart() - entry.start;
+    if (shift == 0) {
+      return entry.suggestions;
+    }
+    // the same prefix was typed at a different position, for example after a different alias
+    List<Suggestion> suggestions = new ArrayList<>(entry.suggestions.getList().size());
+    for (Suggestion suggestion : entry.suggestions.getList()) {
+      StringRange range =
+          StringRange.between(
+              suggestion.getRange().getStart() + shift, suggestion.getRange().getEnd() + shift);
+      suggestions.add(
+          suggestion instanceof IntegerSuggestion
+              ? new IntegerSuggestion(
+                  range, ((IntegerSuggestion) suggestion).getValue(), suggestion.getTooltip())
+              : new Suggestion(range, suggestion.getText(), suggestion.getTooltip()));
+    }
+    return Suggestions.create(builder.getInput(), suggestions);
+  }
+
+  /**
+   * Caches the specified suggestions, listed for the input of the specified builder, under the
+   * specified key.
+   *
+   * @param key key
+   * @param builder suggestions builder
+   * @param suggestions suggestions
+   */
+  void put(Object key, SuggestionsBuilder builder, Suggestions suggestions) {
+    Entry entry = new Entry(suggestions, builder.getStart(), System.nanoTime());
+    synchronized (entries) {
+      entries.put((Key) key, entry);
+    }
+  }
+
+  /** Removes every cached suggestion. */
+  public void invalidateAll() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Returns the amount of cached suggestions, including the ones whose time to live has passed
+   * but which have not been evicted yet.
+   *
+   * @return size
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SuggestionsCache(timeToLiveNanos="
+        + timeToLiveNanos
+        + ", maximumSize="
+        + maximumSize
+        + ", perSender="
+        + (senderKey != null)
+        + ")";
+  }
+
+  private static final class Key {
+
+    private final Argument argument;
+    private final String prefix;
+    private final Object sender;
+
+    Key(Argument argument, String prefix, Object sender) {
+      this.argument = argument;
+      this.prefix = prefix;
+      this.sender = sender;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return argument == key.argument
+          && prefix.equals(key.prefix)
+          && Objects.equals(sender, key.sender);
+    }
+
+    @Override
+    public int hashCode() {
+      return (System.identityHashCode(argument) * 31 + prefix.hashCode()) * 31
+          + Objects.hashCode(sender);
+    }
+  }
+
+  private static final class Entry {
+
+    private final Suggestions suggestions;
+    private final int start;
+    private final long cachedAt;
+
+    Entry(Suggestions suggestions, int start, long cachedAt) {
+      this.suggestions = suggestions;
+      this.start = start;
+      this.cachedAt = cachedAt;
+    }
+  }
+}
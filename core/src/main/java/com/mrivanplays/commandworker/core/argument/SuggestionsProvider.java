@@ -0,0 +1,68 @@
+package com.mrivanplays.commandworker.core.argument;
+
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a provider of suggestions for a {@link RequiredArgument}, which may complete them
+ * asynchronously, for example when they come from a database.
+ *
+ * <p>A provider should not block, but return a future which is completed once the suggestions are
+ * there. If the future completes exceptionally, the provider is treated as if it had no
+ * suggestions.
+ *
+ * @see RequiredArgument#suggestsAsync(SuggestionsProvider, long, TimeUnit)
+ */
+@FunctionalInterface
+public interface SuggestionsProvider {
+
+  /**
+   * Returns a provider, which completes with the suggestions of the specified provider, or with no
+   * suggestions if the specified provider doesn't complete within the specified timeout.
+   *
+   * @param provider provider
+   * @param timeout timeout
+   * @param unit unit of the timeout
+   * @return provider with timeout
+   */
+  @NotNull
+  static SuggestionsProvider withTimeout(
+      @NotNull SuggestionsProvider provider, long timeout, @NotNull TimeUnit unit) {
+    Objects.requireNonNull(provider, "provider");
+    Objects.requireNonNull(unit, "unit");
+    return builder -> {
+      CompletableFuture<Suggestions> suggestions = provider.getSuggestions(builder);
+      if (suggestions.isDone()) {
+        return suggestions;
+      }
+      CompletableFuture<Suggestions> timed = new CompletableFuture<>();
+      ScheduledFuture<?> timeoutTask =
+          SuggestionsTimeouts.SCHEDULER.schedule(
+              () -> timed.complete(SuggestionsTimeouts.NONE), timeout, unit);
+      suggestions.whenComplete(
+          (result, error) -> {
+            timeoutTask.cancel(false);
+            if (error != null) {
+              timed.completeExceptionally(error);
+            } else {
+              timed.complete(result);
+            }
+          });
+      return timed;
+    };
+  }
+
+  /**
+   * Returns the suggestions for the input of the specified builder.
+   *
+   * @param builder suggestions builder, owned by this provider
+   * @return future of the suggestions
+   */
+  @NotNull
+  CompletableFuture<Suggestions> getSuggestions(@NotNull SuggestionsBuilder builder);
+}
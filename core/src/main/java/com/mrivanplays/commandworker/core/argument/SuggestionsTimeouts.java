@@ -0,0 +1,36 @@
+package com.mrivanplays.commandworker.core.argument;
+
+import com.mojang.brigadier.context.StringRange;
+import com.mojang.brigadier.suggestion.Suggestions;
+import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Holder of the state shared by the {@link SuggestionsProvider}s, such as the scheduler completing
+ * the ones which timed out.
+ */
+final class SuggestionsTimeouts {
+
+  static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+  // the suggestions of a provider which timed out or failed. It's an instance of its own, so the
+  // merged suggestions it's part of are told apart and not cached
+  static final Suggestions NONE = new Suggestions(StringRange.at(0), Collections.emptyList());
+
+  private SuggestionsTimeouts() {}
+
+  private static ScheduledExecutorService createScheduler() {
+    ScheduledThreadPoolExecutor scheduler =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable, "CommandWorker Suggestions Timeout");
+              thread.setDaemon(true);
+              return thread;
+            });
+    // most providers complete in time, so their timeouts shouldn't pile up in the queue
+    scheduler.setRemoveOnCancelPolicy(true);
+    return scheduler;
+  }
+}
@@ -0,0 +1,463 @@
+package com.mrivanplays.commandworker.core.argument;
+
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an index of strings by their trigrams, the sequences of three characters they hold,
+ * which finds the strings a typed query is a prefix or a substring of, or a prefix of with a typo,
+ * without testing every indexed string. The strings and the queries are matched ignoring case.
+ *
+ * <p>Only the strings sharing enough trigrams with the query are tested, so searches stay fast with
+ * tens of thousands of strings. The index can be updated at any time, for example when the
+ * suggested set of names changes, and searched from multiple threads at once. Substrings are only
+ * found for queries of at least three characters, and a typo only for queries of at least four.
+ *
+ * <p>Usage example:
+ *
+ * <pre>
+ *     TrigramIndex warps = TrigramIndex.of(warpNames);
+ *     RequiredArgument.argument("warp", StringArgumentType.word())
+ *         .suggests(builder -&gt; warps.suggest(builder, 20));
+ * </pre>
+ */
+public final class TrigramIndex {
+
+  /** The match of a string starting with the query. */
+  public static final int PREFIX = 0;
+
+  /** The match of a string holding the query. */
+  public static final int SUBSTRING = 1;
+
+  /** The match of a string starting with the query, with a typo. */
+  public static final int TYPO = 2;
+
+  private static final int NO_MATCH = -1;
+
+  // the amount of trigrams every string shares with the query, by id, reused by the searches of
+  // the thread, which reset the counts they touched once done
+  private static final ThreadLocal<int[]> SHARED = ThreadLocal.withInitial(() -> new int[16]);
+
+  /**
+   * Creates a new trigram index, holding the specified strings.
+   *
+   * @param strings strings
+   * @return trigram index
+   */
+  @NotNull
+  public static TrigramIndex of(@NotNull Collection<String> strings) {
+    Objects.requireNonNull(strings, "strings");
+    TrigramIndex index = new TrigramIndex();
+    for (String string : strings) {
+      index.add(string);
+    }
+    return index;
+  }
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Integer> ids = new HashMap<>();
+  private final Map<Long, Postings> postings = new HashMap<>();
+  private String[] strings = new String[16];
+  private String[] folded = new String[16];
+  private int[] freeIds = new int[0];
+  private int freeCount;
+  private int nextId;
+
+  /**
+   * Adds the specified string to this index. Adding a string which is already in it does nothing.
+   *
+   * @param string string
+   * @return <code>true</code> if added, <code>false</code> if already in the index
+   */
+  public boolean add(@NotNull String string) {
+    Objects.requireNonNull(string, "string");
+    lock.writeLock().lock();
+    try {
+      if (ids.containsKey(string)) {
+        return false;
+      }
+      int id;
+      if (freeCount != 0) {
+        id = freeIds[--freeCount];
+      } else {
+        id = nextId++;
+        if (id == strings.length) {
+          strings = Arrays.copyOf(strings, id * 2);
+          folded = Arrays.copyOf(folded, id * 2);
+        }
+      }
+      String fold = fold(string);
+      strings[id] = string;
+      folded[id] = fold;
+      ids.put(string, id);
+      for (long trigram : trigrams(fold)) {
+        postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+      }
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the specified string from this index.
+   *
+   * @param string string
+   * @return <code>true</code> if removed, <code>false</code> if not in the index
+   */
+  public boolean remove(@NotNull String string) {
+    Objects.requireNonNull(string, "string");
+    lock.writeLock().lock();
+    try {
+      Integer id = ids.remove(string);
+      if (id == null) {
+        return false;
+      }
+      for (long trigram : trigrams(folded[id])) {
+        Postings ofTrigram = postings.get(trigram);
+        ofTrigram.remove(id);
+        if (ofTrigram.size == 0) {
+          postings.remove(trigram);
+        }
+      }
+      strings[id] = null;
+      folded[id] = null;
+      if (freeCount == freeIds.length) {
+        freeIds = Arrays.copyOf(freeIds, Math.max(16, freeCount * 2));
+      }
+      freeIds[freeCount++] = id;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the amount of strings in this index.
+   *
+   * @return size
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return ids.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns unmodifiable list of up to the specified amount of the strings matching the specified
+   * query, best first: the ones starting with the query, then the ones holding it, and then the
+   * ones starting with it with a typo. Within the same match, the string equal to the query comes
+   * first, and then the ones sharing more trigrams with it.
+   *
+   * @param query query
+   * @param limit the maximum amount of strings
+   * @return matching strings
+   */
+  @NotNull
+  public List<String> search(@NotNull String query, int limit) {
+    Objects.requireNonNull(query, "query");
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit should be positive");
+    }
+    String fold = fold(query);
+    lock.readLock().lock();
+    try {
+      if (fold.isEmpty()) {
+        List<String> ret = new ArrayList<>(Math.min(limit, ids.size()));
+        for (int id = 0; id < nextId && ret.size() < limit; id++) {
+          if (strings[id] != null) {
+            ret.add(strings[id]);
+          }
+        }
+        return Collections.unmodifiableList(ret);
+      }
+      return Collections.unmodifiableList(search0(fold, limit));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<String> search0(String query, int limit) {
+    int typos = typos(query);
+    long[] queryTrigrams = trigrams(query);
+    int all = queryTrigrams.length;
+    // a string starting with the query shares every trigram of it, a string holding the query
+    // every trigram but the two padded ones, and every typo takes away up to four trigrams, as two
+    // swapped characters count as a single typo
+    int substringShared = Math.max(1, all - 2);
+    int minShared = Math.max(1, Math.min(substringShared, all - 4 * typos));
+    int[] shared = SHARED.get();
+    if (shared.length < nextId) {
+      shared = new int[Math.max(nextId, shared.length * 2)];
+      SHARED.set(shared);
+    }
+    // the strings sharing fewer trigrams than the candidates are counted too, so they're reset
+    int[] touched = new int[16];
+    int touchedCount = 0;
+    try {
+      int[] candidates = new int[16];
+      int candidateCount = 0;
+      for (long trigram : queryTrigrams) {
+        Postings ofTrigram = postings.get(trigram);
+        if (ofTrigram == null) {
+          continue;
+        }
+        for (int i = 0; i < ofTrigram.size; i++) {
+          int id = ofTrigram.ids[i];
+          if (shared[id]++ == 0) {
+            if (touchedCount == touched.length) {
+              touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = id;
+          }
+          if (shared[id] == minShared) {
+            if (candidateCount == candidates.length) {
+              candidates = Arrays.copyOf(candidates, candidateCount * 2);
+            }
+            candidates[candidateCount++] = id;
+          }
+        }
+      }
+      candidates = sortByShared(candidates, candidateCount, shared, all);
+      // the best matches are selected with a heap bounded by the limit. The rank of every match
+      // packs the match, how similar the string is, 0 when equal to the query and then the less
+      // trigrams it's missing the better, and the position of the candidate, so they're ordered the
+      // same way
+      long[] best = new long[Math.min(limit, candidateCount)];
+      int bestCount = 0;
+      for (int i = 0; i < candidateCount; i++) {
+        int id = candidates[i];
+        int missing = all - shared[id] + 1;
+        // the candidates sharing the most trigrams are tested first, so once the ones left can't
+        // rank better than the worst held match, they're not tested at all
+        if (bestCount == best.length) {
+          int bestMatch =
+              missing == 1 ? PREFIX : shared[id] >= substringShared ? SUBSTRING : TYPO;
+          // a candidate left which is missing no trigram may still be equal to the query
+          int bestSimilarity = missing <= 1 ? 0 : missing;
+          long bestRank = ((long) bestMatch << 56) | ((long) bestSimilarity << 40);
+          if (bestRank >= (best[0] & ~0xFFFFFFFFFFL)) {
+            break;
+          }
+        }
+        int match = match(folded[id], query, typos);
+        if (match == NO_MATCH) {
+          continue;
+        }
+        boolean sameLength = folded[id].length() == query.length();
+        int similarity = match == PREFIX && sameLength ? 0 : missing;
+        long rank = ((long) match << 56) | ((long) similarity << 40) | i;
+        if (bestCount < best.length) {
+          best[bestCount] = rank;
+          siftUp(best, bestCount++);
+        } else if (rank < best[0]) {
+          best[0] = rank;
+          siftDown(best, bestCount);
+        }
+      }
+      Arrays.sort(best, 0, bestCount);
+      List<String> ret = new ArrayList<>(bestCount);
+      for (int i = 0; i < bestCount; i++) {
+        ret.add(strings[candidates[(int) (best[i] & 0xFFFFFFFFFFL)]]);
+      }
+      return ret;
+    } finally {
+      for (int i = 0; i < touchedCount; i++) {
+        shared[touched[i]] = 0;
+      }
+    }
+  }
+
+  // counting sort of the candidates, the ones sharing the most trigrams first
+  private static int[] sortByShared(int[] candidates, int count, int[] shared, int max) {
+    int[] starts = new int[max + 2];
+    for (int i = 0; i < count; i++) {
+      starts[max - shared[candidates[i]] + 1]++;
+    }
+    for (int i = 1; i < starts.length; i++) {
+      starts[i] += starts[i - 1];
+    }
+    int[] sorted = new int[count];
+    for (int i = 0; i < count; i++) {
+      sorted[starts[max - shared[candidates[i]]]++] = candidates[i];
+    }
+    return sorted;
+  }
+
+  // the heap is ordered worst first, so the worst held match is the one replaced by a better one
+  private static void siftUp(long[] heap, int index) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (heap[parent] >= heap[index]) {
+        return;
+      }
+      swap(heap, parent, index);
+      index = parent;
+    }
+  }
+
+  private static void siftDown(long[] heap, int size) {
+    int index = 0;
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= size) {
+        return;
+      }
+      if (child + 1 < size && heap[child + 1] > heap[child]) {
+        child++;
+      }
+      if (heap[index] >= heap[child]) {
+        return;
+      }
+      swap(heap, index, child);
+      index = child;
+    }
+  }
+
+  private static void swap(long[] heap, int a, int b) {
+    long value = heap[a];
+    heap[a] = heap[b];
+    heap[b] = value;
+  }
+
+  /**
+   * Suggests up to the specified amount of the strings matching the remaining input of the
+   * specified builder, best first.
+   *
+   * @param builder suggestions builder
+   * @param limit the maximum amount of suggestions
+   * @return the specified builder
+   * @see #search(String, int)
+   */
+  @NotNull
+  public SuggestionsBuilder suggest(@NotNull SuggestionsBuilder builder, int limit) {
+    Objects.requireNonNull(builder, "builder");
+    for (String string : search(builder.getRemaining(), limit)) {
+      builder.suggest(string);
+    }
+    return builder;
+  }
+
+  /**
+   * Returns how the specified string matches the specified query, ignoring case.
+   *
+   * @param string string
+   * @param query query
+   * @return {@link #PREFIX}, {@link #SUBSTRING} or {@link #TYPO}, or <code>-1</code> if it does not
+   *     match
+   */
+  public static int match(@NotNull String string, @NotNull String query) {
+    String fold = fold(query);
+    int typos = typos(fold);
+    return match(fold(string), fold, typos);
+  }
+
+  private static int match(String string, String query, int typos) {
+    if (string.startsWith(query)) {
+      return PREFIX;
+    }
+    if (string.contains(query)) {
+      return SUBSTRING;
+    }
+    return typos != 0 && startsWithTypo(string, query) ? TYPO : NO_MATCH;
+  }
+
+  private static int typos(String query) {
+    return query.length() < 4 ? 0 : 1;
+  }
+
+  // whether or not the string starts with the query with a single character replaced, added,
+  // removed or swapped with the next one
+  private static boolean startsWithTypo(String string, String query) {
+    int length = query.length();
+    int mismatch = 0;
+    while (mismatch < length
+        && mismatch < string.length()
+        && string.charAt(mismatch) == query.charAt(mismatch)) {
+      mismatch++;
+    }
+    int next = mismatch + 1;
+    return string.regionMatches(next, query, next, length - next)
+        || string.regionMatches(mismatch, query, next, length - next)
+        || string.regionMatches(next, query, mismatch, length - mismatch)
+        || next < length
+            && next < string.length()
+            && string.charAt(mismatch) == query.charAt(next)
+            && string.charAt(next) == query.charAt(mismatch)
+            && string.regionMatches(next + 1, query, next + 1, length - next - 1);
+  }
+
+  private static String fold(String string) {
+    return string.toLowerCase(Locale.ROOT);
+  }
+
+  // the trigrams of the string padded with two spaces in front, so the strings starting with the
+  // query share its first trigrams, and queries shorter than three characters have trigrams too
+  private static long[] trigrams(String string) {
+    long[] trigrams = new long[string.length()];
+    char first = ' ';
+    char second = ' ';
+    int count = 0;
+    for (int i = 0; i < string.length(); i++) {
+      char third = string.charAt(i);
+      long trigram = ((long) first << 32) | ((long) second << 16) | third;
+      // a string repeating a trigram holds it once
+      if (!contains(trigrams, count, trigram)) {
+        trigrams[count++] = trigram;
+      }
+      first = second;
+      second = third;
+    }
+    return count == trigrams.length ? trigrams : Arrays.copyOf(trigrams, count);
+  }
+
+  private static boolean contains(long[] array, int length, long value) {
+    for (int i = 0; i < length; i++) {
+      if (array[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "TrigramIndex(size=" + size() + ")";
+  }
+
+  private static final class Postings {
+
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(int id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+
+    void remove(int id) {
+      for (int i = 0; i < size; i++) {
+        if (ids[i] == id) {
+          ids[i] = ids[--size];
+          return;
+        }
+      }
+    }
+  }
+}
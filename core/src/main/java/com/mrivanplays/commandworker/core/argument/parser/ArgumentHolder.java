@@ -4,20 +4,29 @@ import com.mojang.brigadier.StringReader;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mrivanplays.commandworker.core.LiteralNode;
 import com.mrivanplays.commandworker.core.argument.Argument;
-import java.util.Collection;
-import java.util.Collections;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
+import com.mrivanplays.commandworker.core.metrics.CommandEvent;
+import com.mrivanplays.commandworker.core.metrics.CommandEvents;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-/** Represents a holder of arguments. */
+/**
+ * Represents a holder of arguments.
+ *
+ * <p>The values of the arguments are stored in slots, assigned to every required argument of the
+ * command structure by its {@link ParsePlan}. They can be retrieved either by the argument name or,
+ * without any lookup, by the argument's {@link ArgumentKey}.
+ *
+ * <p>An argument holder can be {@link #reset(String) reset} with new input and reused, which is
+ * what the platforms do through an {@link ArgumentHolderPool}. Because of that, the argument holder
+ * given to a {@link com.mrivanplays.commandworker.core.Command} is only valid during its execution.
+ * If the arguments are needed after that, for example by a task running later, a {@link
+ * #snapshot()} should be taken and used instead. An argument holder is not thread safe.
+ */
 public final class ArgumentHolder {
 
   private static final Map<Class<?>, Class<?>> PRIMITIVE_TO_WRAPPER = new HashMap<>();
@@ -33,115 +42,546 @@ public final class ArgumentHolder {
     PRIMITIVE_TO_WRAPPER.put(double.class, Double.class);
   }
 
-  private final String input;
+  // slot states
+  private static final byte ABSENT = 0;
+  private static final byte UNTYPED = 1;
+  private static final byte TYPED = 2;
+  private static final byte FAILED = 3;
+  private static final byte PENDING = 4;
+
+  private String input;
+  private final TokenSpans tokens;
   private StringReader reader;
-  private Map<String, ArgumentData> argumentDataHolder;
+  boolean inUse;
+  private final ParsePlan plan;
   private LiteralNode commandStructure;
+  private final ParseMode parseMode;
+  private Argument lastArgument;
+
+  // the sender the input is parsed for, and the metrics the parsing is recorded to once the holder
+  // is released, along with the time spent parsing, including the deferred parsing, or -1 if it's
+  // not timed
+  private Object sender;
+  private CommandMetrics metrics;
+  private long parseNanos = -1;
+
+  // the state of every slot is held in parallel arrays, indexed by slot, so the common path only
+  // stores offsets into the input. The raw strings and index ranges are created when requested.
+  private final byte[] states;
+  private final Object[] values;
+  private final long[] primitives;
+  private final byte[] kinds;
+  private final ParseError[] errors;
+  private final CommandSyntaxException[] exceptions;
+  private final int[] rawStarts;
+  private final int[] rawEnds;
+  private final String[] raws;
+  private final int[] indexStarts;
+  private final int[] indexEnds;
+  private byte[] pendingWidths;
+
+  // the slots which are not absent, in the order they were reached, along with the amount of typed
+  // and successfully parsed ones, so no query has to go through every slot of the plan
+  private final int[] touched;
+  private int touchedCount;
+  private int typedCount;
+  private int rawCount;
 
   public ArgumentHolder(String input, LiteralNode commandStructure) {
-    this.input = input;
-    this.reader = new StringReader(input);
-    reader.setCursor(0);
-    this.argumentDataHolder = new HashMap<>();
+    this(input, commandStructure, ParseMode.FLATTENED);
+  }
+
+  public ArgumentHolder(String input, LiteralNode commandStructure, ParseMode parseMode) {
+    this(commandStructure, parseMode);
+    reset(input);
+  }
+
+  /**
+   * Creates a new argument holder out of the arguments, already split by the platform. This avoids
+   * joining the arguments only for them to be split again.
+   *
+   * @param args arguments
+   * @param commandStructure command structure
+   * @param parseMode parse mode
+   */
+  public ArgumentHolder(String[] args, LiteralNode commandStructure, ParseMode parseMode) {
+    this(commandStructure, parseMode);
+    reset(args);
+  }
+
+  ArgumentHolder(LiteralNode commandStructure, ParseMode parseMode) {
+    this.tokens = new TokenSpans();
+    this.plan = commandStructure.getParsePlan();
+    int size = plan.size();
+    this.states = new byte[size];
+    this.values = new Object[size];
+    this.primitives = new long[size];
+    this.kinds = new byte[size];
+    this.errors = new ParseError[size];
+    this.exceptions = new CommandSyntaxException[size];
+    this.rawStarts = new int[size];
+    this.rawEnds = new int[size];
+    this.raws = new String[size];
+    this.indexStarts = new int[size];
+    this.indexEnds = new int[size];
+    this.touched = new int[size];
 
     this.commandStructure = commandStructure;
-    this.handleArguments(commandStructure.getArguments());
+    this.parseMode = Objects.requireNonNull(parseMode, "parseMode");
+    if (parseMode == ParseMode.LAZY) {
+      this.pendingWidths = new byte[size];
+    }
+  }
+
+  private ArgumentHolder(ArgumentHolder holder) {
+    this(holder.commandStructure, holder.parseMode);
+    this.input = holder.input;
+    this.lastArgument = holder.lastArgument;
+    int size = states.length;
+    System.arraycopy(holder.states, 0, states, 0, size);
+    System.arraycopy(holder.values, 0, values, 0, size);
+    System.arraycopy(holder.primitives, 0, primitives, 0, size);
+    System.arraycopy(holder.kinds, 0, kinds, 0, size);
+    System.arraycopy(holder.errors, 0, errors, 0, size);
+    System.arraycopy(holder.exceptions, 0, exceptions, 0, size);
+    System.arraycopy(holder.rawStarts, 0, rawStarts, 0, size);
+    System.arraycopy(holder.rawEnds, 0, rawEnds, 0, size);
+    System.arraycopy(holder.raws, 0, raws, 0, size);
+    System.arraycopy(holder.indexStarts, 0, indexStarts, 0, size);
+    System.arraycopy(holder.indexEnds, 0, indexEnds, 0, size);
+    System.arraycopy(holder.touched, 0, touched, 0, holder.touchedCount);
+    this.touchedCount = holder.touchedCount;
+    this.typedCount = holder.typedCount;
+    this.rawCount = holder.rawCount;
+  }
+
+  /**
+   * Parses the specified input in place of the current one, so this argument holder can be reused.
+   *
+   * @param input new input
+   * @return this instance
+   */
+  @NotNull
+  public ArgumentHolder reset(@NotNull String input) {
+    Objects.requireNonNull(input, "input");
+    tokens.tokenize(input);
+    parse();
+    return this;
+  }
+
+  /**
+   * Parses the specified arguments, already split by the platform, in place of the current input,
+   * so this argument holder can be reused.
+   *
+   * @param args new arguments
+   * @return this instance
+   */
+  @NotNull
+  public ArgumentHolder reset(@NotNull String[] args) {
+    Objects.requireNonNull(args, "args");
+    tokens.join(args);
+    parse();
+    return this;
+  }
+
+  /**
+   * Returns a copy of this argument holder, which stays valid after the command execution, unlike
+   * this argument holder. Arguments whose parsing was deferred are parsed before copying.
+   *
+   * @return snapshot
+   */
+  @NotNull
+  public ArgumentHolder snapshot() {
+    for (int i = 0; i < touchedCount; i++) {
+      state(touched[i]);
+    }
+    return new ArgumentHolder(this);
+  }
+
+  private void parse() {
+    CommandEvent event = CommandEvents.parse();
+    long start = metrics != null ? metrics.start() : 0;
+    parseInput();
+    parseNanos = start != 0 ? System.nanoTime() - start : -1;
+    if (event.shouldCommit()) {
+      event.commit(
+          commandStructure.getCommandName(),
+          CommandEvents.nodePath(commandStructure, lastArgument),
+          sender,
+          input.length());
+    }
+  }
+
+  private void parseInput() {
+    this.input = tokens.input();
+    this.reader = null;
+    this.lastArgument = null;
+    for (int i = 0; i < touchedCount; i++) {
+      int slot = touched[i];
+      states[slot] = ABSENT;
+      values[slot] = null;
+      kinds[slot] = PrimitiveParsers.NONE;
+      errors[slot] = null;
+      exceptions[slot] = null;
+      raws[slot] = null;
+    }
+    this.touchedCount = 0;
+    this.typedCount = 0;
+    this.rawCount = 0;
+    if (parseMode == ParseMode.LAZY) {
+      this.handlePath(true);
+    } else if (parseMode == ParseMode.PATH_DIRECTED) {
+      this.handlePath(false);
+    } else {
+      this.handleArguments(plan);
+      this.lastArgument = findLastFlattenedArgument();
+    }
+  }
+
+  // sets the sender the next input is parsed for, and the metrics its parsing is recorded to
+  void parseFor(Object sender, CommandMetrics metrics) {
+    this.sender = sender;
+    this.metrics = metrics;
+  }
+
+  // records the parse time, deferred parsing included, once the command is done with the holder,
+  // which then no longer holds onto the sender
+  void recordParse() {
+    if (parseNanos != -1) {
+      metrics.recordParseNanos(parseNanos);
+      parseNanos = -1;
+    }
+    sender = null;
+    metrics = null;
   }
 
-  private void handleArguments(List<Argument> arguments) {
-    if (arguments.isEmpty()) {
+  // the reader is only needed when an argument type has to be used, so it's created on demand
+  private StringReader reader(int cursor) {
+    if (reader == null) {
+      reader = new StringReader(input);
+    }
+    reader.setCursor(cursor);
+    return reader;
+  }
+
+  // walks the frozen tree of the command structure along the typed path
+  private void handlePath(boolean lazy) {
+    int id = ParsePlan.ROOT;
+    int token = 0;
+    int count = tokens.count();
+    while (!plan.isLeaf(id) && token < count) {
+      int start = tokens.start(token);
+      int tokenEnd = tokens.end(token);
+
+      ArgumentNode next = null;
+      for (ArgumentNode literal : plan.getLiteralChildren(id)) {
+        String name = literal.getName();
+        if (name.length() == tokenEnd - start && input.startsWith(name, start)) {
+          next = literal;
+          break;
+        }
+      }
+      if (next != null) {
+        lastArgument = next.getArgument();
+        id = next.getId();
+        token++;
+        continue;
+      }
+
+      ArgumentNode[] requiredChildren = plan.getRequiredChildren(id);
+      if (lazy && requiredChildren.length == 1) {
+        ArgumentNode required = requiredChildren[0];
+        int width = KnownArgumentTypes.width(required.getArgumentType(), input, start, tokenEnd);
+        int end = -1;
+        if (width == KnownArgumentTypes.SINGLE_TOKEN) {
+          end = tokenEnd;
+        } else if (width == KnownArgumentTypes.GREEDY || required.isLeaf()) {
+          end = input.length();
+        }
+        if (end != -1) {
+          int slot = plan.getSlot(required);
+          setState(slot, PENDING);
+          rawStarts[slot] = start;
+          rawEnds[slot] = end;
+          indexStarts[slot] = token;
+          pendingWidths[slot] = (byte) width;
+          lastArgument = required.getArgument();
+          id = required.getId();
+          token = width == KnownArgumentTypes.SINGLE_TOKEN ? token + 1 : count;
+          continue;
+        }
+      }
+
+      Object parsed = null;
+      int end = start;
+      ArgumentNode failed = null;
+      CommandSyntaxException exception = null;
+      for (ArgumentNode required : requiredChildren) {
+        int slot = plan.getSlot(required);
+        byte kind = parsePrimitive(slot, start, tokenEnd);
+        if (kind > PrimitiveParsers.NONE) {
+          end = tokenEnd;
+          next = required;
+          break;
+        }
+        if (kind == PrimitiveParsers.FAILED) {
+          if (errors[slot] == ParseError.EXPECTED_ARGUMENT_SEPARATOR) {
+            // the value was read, but it ended in the middle of the token
+            end = rawEnds[slot];
+            next = required;
+            break;
+          }
+          if (failed == null) {
+            failed = required;
+          }
+          continue;
+        }
+        StringReader reader = reader(start);
+        try {
+          parsed = required.getArgumentType().parse(reader);
+          end = reader.getCursor();
+          next = required;
+          break;
+        } catch (CommandSyntaxException e) {
+          if (failed == null) {
+            failed = required;
+            exception = e;
+          }
+        }
+      }
+      if (next == null) {
+        if (failed != null) {
+          int slot = plan.getSlot(failed);
+          if (exception != null) {
+            fail(slot, exception);
+          } else {
+            failAt(slot, errors[slot], start, rawEnds[slot]);
+          }
+          lastArgument = failed.getArgument();
+        }
+        return;
+      }
+      if (end == start) {
+        return;
+      }
+      lastArgument = next.getArgument();
+      int slot = plan.getSlot(next);
+      int nextToken = tokens.next(token, end);
+      if (end != tokens.end(nextToken - 1)) {
+        // the argument ended in the middle of a token
+        failAt(slot, ParseError.EXPECTED_ARGUMENT_SEPARATOR, start, end);
+        return;
+      }
+      type(slot, parsed, start, end, token, nextToken - 1);
+      id = next.getId();
+      token = nextToken;
+    }
+  }
+
+  private void parsePending(int slot) {
+    if (parseNanos == -1) {
+      parsePending0(slot);
+      return;
+    }
+    long start = System.nanoTime();
+    parsePending0(slot);
+    parseNanos += System.nanoTime() - start;
+  }
+
+  private void parsePending0(int slot) {
+    Argument argument = plan.getArgument(slot);
+    int start = rawStarts[slot];
+    int end = rawEnds[slot];
+    boolean singleToken = pendingWidths[slot] == KnownArgumentTypes.SINGLE_TOKEN;
+    if (singleToken) {
+      byte kind = parsePrimitive(slot, start, end);
+      if (kind > PrimitiveParsers.NONE) {
+        type(slot, null, start, end, indexStarts[slot], indexStarts[slot]);
+        return;
+      }
+      if (kind == PrimitiveParsers.FAILED) {
+        failAt(slot, errors[slot], start, rawEnds[slot]);
+        return;
+      }
+    }
+    StringReader reader = reader(start);
+    try {
+      Object parsed = argument.getArgumentType().parse(reader);
+      int parsedEnd = reader.getCursor();
+      if (singleToken && parsedEnd != end) {
+        failAt(slot, ParseError.EXPECTED_ARGUMENT_SEPARATOR, start, parsedEnd);
+        return;
+      }
+      if (parsedEnd == start) {
+        setState(slot, UNTYPED);
+      } else {
+        int token = indexStarts[slot];
+        type(slot, parsed, start, parsedEnd, token, tokens.next(token, parsedEnd) - 1);
+      }
+    } catch (CommandSyntaxException e) {
+      fail(slot, e);
+    }
+  }
+
+  // the end of the read value goes to rawEnds, which type or failAt set again anyway
+  private byte parsePrimitive(int slot, int start, int end) {
+    byte kind =
+        PrimitiveParsers.parse(
+            plan.getArgument(slot).getArgumentType(),
+            input,
+            start,
+            end,
+            slot,
+            primitives,
+            rawEnds,
+            errors);
+    kinds[slot] = kind > PrimitiveParsers.NONE ? kind : PrimitiveParsers.NONE;
+    return kind;
+  }
+
+  private void type(int slot, Object parsed, int start, int end, int firstIndex, int lastIndex) {
+    setState(slot, TYPED);
+    values[slot] = parsed;
+    rawStarts[slot] = start;
+    rawEnds[slot] = end;
+    indexStarts[slot] = firstIndex;
+    indexEnds[slot] = lastIndex == firstIndex ? -1 : lastIndex;
+  }
+
+  private void fail(int slot, CommandSyntaxException exception) {
+    setState(slot, FAILED);
+    errors[slot] = ParseError.ARGUMENT_TYPE;
+    exceptions[slot] = exception;
+  }
+
+  // records the failure only, the exception is created if it's ever requested
+  private void failAt(int slot, ParseError error, int start, int end) {
+    setState(slot, FAILED);
+    errors[slot] = error;
+    rawStarts[slot] = start;
+    rawEnds[slot] = end;
+  }
+
+  private CommandSyntaxException exception(int slot) {
+    CommandSyntaxException exception = exceptions[slot];
+    if (exception == null) {
+      exception =
+          ParseFailure.createException(
+              errors[slot],
+              plan.getArgument(slot).getArgumentType(),
+              input,
+              rawStarts[slot],
+              rawEnds[slot],
+              primitives[slot]);
+      exceptions[slot] = exception;
+    }
+    return exception;
+  }
+
+  private void setState(int slot, byte state) {
+    byte previous = states[slot];
+    if (previous == ABSENT) {
+      touched[touchedCount++] = slot;
+    }
+    typedCount += (isTypedState(state) ? 1 : 0) - (isTypedState(previous) ? 1 : 0);
+    rawCount += (state == TYPED ? 1 : 0) - (previous == TYPED ? 1 : 0);
+    states[slot] = state;
+  }
+
+  // a pending argument is typed, whether its value is valid is not known until it's parsed
+  private static boolean isTypedState(byte state) {
+    return state == TYPED || state == FAILED || state == PENDING;
+  }
+
+  private byte state(int slot) {
+    if (states[slot] == PENDING) {
+      parsePending(slot);
+    }
+    return states[slot];
+  }
+
+  private int countTokens(int start, int end) {
+    int tokens = 0;
+    boolean inToken = false;
+    for (int i = start; i < end; i++) {
+      if (Character.isWhitespace(input.charAt(i))) {
+        inToken = false;
+      } else if (!inToken) {
+        inToken = true;
+        tokens++;
+      }
+    }
+    return tokens;
+  }
+
+  private void handleArguments(ParsePlan plan) {
+    int size = plan.size();
+    if (size == 0) {
       return;
     }
-    Map<Argument, Integer> newArgs = getRequiredArgs(arguments, -1);
     if (input.isEmpty()) {
-      for (Map.Entry<Argument, Integer> args : newArgs.entrySet()) {
-        Argument arg = args.getKey();
-        argumentDataHolder.put(
-            arg.getName(), ArgumentData.newArgumentData(null, arg, null, null, null));
+      for (int i = 0; i < size; i++) {
+        setState(i, UNTYPED);
       }
       return;
     }
-    Set<Entry<Argument, Integer>> entrySet =
-        newArgs.entrySet().stream()
-            .sorted(Entry.comparingByValue())
-            .collect(Collectors.toCollection(LinkedHashSet::new));
+    StringReader reader = reader(0);
     int index = 0;
-    for (Map.Entry<Argument, Integer> entry : entrySet) {
-      Argument argument = entry.getKey();
-      int argumentIndex = entry.getValue();
+    for (int i = 0; i < size; i++) {
+      Argument argument = plan.getArgument(i);
+      int argumentIndex = plan.getIndex(i);
       reader.skipWhitespace();
       int start = reader.getCursor();
       if (argument.getArgumentType() == null) {
         // we're at minecraft argument type, and brigadier is not supported.
-        if (index == (entrySet.size() - 1)) { // last argument
-          String raw = reader.getRemaining();
-          int splitIndex = raw.split(" ").length - 1;
-          IndexRange range;
-          if (argumentIndex == splitIndex) {
-            range = new IndexRange(argumentIndex);
-          } else {
-            range = new IndexRange(argumentIndex, argumentIndex + splitIndex);
-          }
-          argumentDataHolder.put(
-              argument.getName(), ArgumentData.newArgumentData(range, argument, null, raw, null));
+        int end;
+        if (index == (size - 1)) { // last argument
+          end = input.length();
         } else {
-          String raw = reader.readUnquotedString();
+          reader.readUnquotedString();
+          end = reader.getCursor();
           reader.skipWhitespace();
-          IndexRange range = new IndexRange(argumentIndex);
-          argumentDataHolder.put(
-              argument.getName(), ArgumentData.newArgumentData(range, argument, null, raw, null));
         }
+        typeFlattened(i, null, start, end, argumentIndex);
         continue;
       }
 
-      Object parsed;
-      try {
-        parsed = argument.getArgumentType().parse(reader);
-      } catch (CommandSyntaxException e) {
-        argumentDataHolder.put(
-            argument.getName(), ArgumentData.newArgumentData(null, argument, null, null, e));
+      Object parsed = null;
+      int tokenEnd = start;
+      while (tokenEnd < input.length() && !Character.isWhitespace(input.charAt(tokenEnd))) {
+        tokenEnd++;
+      }
+      byte kind = parsePrimitive(i, start, tokenEnd);
+      if (kind > PrimitiveParsers.NONE) {
+        reader.setCursor(tokenEnd);
+      } else if (kind == PrimitiveParsers.FAILED
+          && errors[i] != ParseError.EXPECTED_ARGUMENT_SEPARATOR) {
+        failAt(i, errors[i], start, rawEnds[i]);
         continue;
+      } else {
+        try {
+          parsed = argument.getArgumentType().parse(reader);
+        } catch (CommandSyntaxException e) {
+          fail(i, e);
+          continue;
+        }
       }
       int end = reader.getCursor();
       reader.skipWhitespace();
 
-      String raw = input.substring(start, end);
-      int splitIndex;
-      if ((raw.length() == 1 && raw.charAt(0) == ' ') || raw.isEmpty()) {
-        argumentDataHolder.put(
-            argument.getName(), ArgumentData.newArgumentData(null, argument, null, null, null));
+      if (end == start || (end - start == 1 && input.charAt(start) == ' ')) {
+        setState(i, UNTYPED);
         continue;
-      } else {
-        splitIndex = raw.split(" ").length - 1;
       }
-      IndexRange range;
-      if (argumentIndex == splitIndex) {
-        range = new IndexRange(argumentIndex);
-      } else {
-        range = new IndexRange(argumentIndex, argumentIndex + splitIndex);
-      }
-      argumentDataHolder.put(
-          argument.getName(), ArgumentData.newArgumentData(range, argument, parsed, raw, null));
+      typeFlattened(i, parsed, start, end, argumentIndex);
       index++;
     }
   }
 
-  private Map<Argument, Integer> getRequiredArgs(List<Argument> arguments, int previousIndex) {
-    if (arguments.isEmpty()) {
-      return Collections.emptyMap();
-    }
-    Map<Argument, Integer> args = new HashMap<>();
-    for (Argument argument : arguments) {
-      int currentIndex = previousIndex + 1;
-      if (!argument.isLiteral()) {
-        args.put(argument, currentIndex);
-      }
-      if (argument.getChildren().isEmpty()) {
-        continue;
-      }
-      args.putAll(getRequiredArgs(argument.getChildren(), currentIndex));
-    }
-    return args;
+  private void typeFlattened(int slot, Object parsed, int start, int end, int argumentIndex) {
+    int splitIndex = Math.max(countTokens(start, end), 1) - 1;
+    type(slot, parsed, start, end, argumentIndex, argumentIndex + splitIndex);
+    indexEnds[slot] = argumentIndex == splitIndex ? -1 : argumentIndex + splitIndex;
   }
 
   /**
@@ -157,19 +597,22 @@ public final class ArgumentHolder {
   public <V> V getRequiredArgument(@NotNull String name, @NotNull Class<V> type) throws CommandSyntaxException {
     Objects.requireNonNull(name, "name");
     Objects.requireNonNull(type, "type");
-    ArgumentData argumentData = argumentDataHolder.get(name);
-    if (argumentData != null) {
-      if (argumentData.getCommandSyntaxException() != null) {
-        throw argumentData.getCommandSyntaxException();
+    int slot = slotOf(name);
+    if (slot != -1) {
+      if (state(slot) == FAILED) {
+        throw exception(slot);
       }
 
-      if (argumentData.getArgument().getArgumentType() == null) {
+      if (plan.getArgument(slot).getArgumentType() == null) {
         throw new IllegalArgumentException(
             "Cannot parse minecraft argument type on non-brigadier supported version. \n "
                 + "THIS IS NOT A BUG !!! Please use getRawRequiredArgument and PARSE THE ARGUMENT YOURSELF");
       }
 
-      Object parsed = argumentData.getParsedValue();
+      Object parsed = value(slot);
+      if (parsed == null) {
+        return null;
+      }
       if (PRIMITIVE_TO_WRAPPER.getOrDefault(type, type).isAssignableFrom(parsed.getClass())) {
         return (V) parsed;
       } else {
@@ -188,31 +631,305 @@ public final class ArgumentHolder {
   }
 
   /**
-   * Returns the last argument, for which we have a value.
+   * Retrieves the value of the required argument the specified {@link ArgumentKey} is for. Unlike
+   * {@link #getRequiredArgument(String, Class)}, this is a direct slot access, without any lookup
+   * by name or type checks.
+   *
+   * @param key argument key
+   * @param <V> value type
+   * @return value
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public <V> V getRequiredArgument(@NotNull ArgumentKey<V> key) throws CommandSyntaxException {
+    int slot = slotOf(key);
+    if (state(slot) == FAILED) {
+      throw exception(slot);
+    }
+    return (V) value(slot);
+  }
+
+  /**
+   * Returns how the specified argument failed to parse, or <code>null</code> if it did not fail.
+   * Unlike retrieving the argument, this does not throw, and the message of the failure is only
+   * formatted if requested.
+   *
+   * @param name argument name
+   * @return failure
+   */
+  @Nullable
+  public ParseFailure getFailure(@NotNull String name) {
+    Objects.requireNonNull(name, "name");
+    int slot = slotOf(name);
+    return slot != -1 ? failure(slot) : null;
+  }
+
+  /**
+   * Returns how the argument the specified {@link ArgumentKey} is for failed to parse, or <code>
+   * null</code> if it did not fail.
+   *
+   * @param key argument key
+   * @return failure
+   */
+  @Nullable
+  public ParseFailure getFailure(@NotNull ArgumentKey<?> key) {
+    return failure(slotOf(key));
+  }
+
+  private ParseFailure failure(int slot) {
+    if (state(slot) != FAILED) {
+      return null;
+    }
+    return new ParseFailure(
+        errors[slot],
+        plan.getArgument(slot),
+        input,
+        rawStarts[slot],
+        rawEnds[slot],
+        primitives[slot],
+        exceptions[slot]);
+  }
+
+  private Object value(int slot) {
+    Object value = values[slot];
+    if (value == null && kinds[slot] != PrimitiveParsers.NONE) {
+      value = PrimitiveParsers.box(kinds[slot], primitives[slot]);
+      values[slot] = value;
+    }
+    return value;
+  }
+
+  /**
+   * Retrieves the value of the specified <code>int</code> argument, without boxing it.
+   *
+   * @param name argument name
+   * @return value
+   * @throws IllegalArgumentException if the argument is not typed, or is not an <code>int</code>
+   */
+  public int getInt(@NotNull String name) throws CommandSyntaxException {
+    return getInt(typedSlotOf(name), name);
+  }
+
+  /**
+   * Retrieves the value of the <code>int</code> argument the specified {@link ArgumentKey} is for,
+   * without boxing it.
+   *
+   * @param key argument key
+   * @return value
+   * @throws IllegalArgumentException if the argument is not typed
+   */
+  public int getInt(@NotNull ArgumentKey<Integer> key) throws CommandSyntaxException {
+    return getInt(typedSlotOf(key), key.getArgument().getName());
+  }
+
+  private int getInt(int slot, String name) {
+    if (kinds[slot] == PrimitiveParsers.INT) {
+      return (int) primitives[slot];
+    }
+    Object value = values[slot];
+    if (value instanceof Integer) {
+      return (Integer) value;
+    }
+    throw notDefinedAs(name, value, "int");
+  }
+
+  /**
+   * Retrieves the value of the specified <code>long</code> (or <code>int</code>) argument, without
+   * boxing it.
+   *
+   * @param name argument name
+   * @return value
+   * @throws IllegalArgumentException if the argument is not typed, or is not a <code>long</code>
+   */
+  public long getLong(@NotNull String name) throws CommandSyntaxException {
+    return getLong(typedSlotOf(name), name);
+  }
+
+  /**
+   * Retrieves the value of the <code>long</code> argument the specified {@link ArgumentKey} is
+   * for, without boxing it.
+   *
+   * @param key argument key
+   * @return value
+   * @throws IllegalArgumentException if the argument is not typed
+   */
+  public long getLong(@NotNull ArgumentKey<Long> key) throws CommandSyntaxException {
+    return getLong(typedSlotOf(key), key.getArgument().getName());
+  }
+
+  private long getLong(int slot, String name) {
+    byte kind = kinds[slot];
+    if (kind == PrimitiveParsers.INT || kind == PrimitiveParsers.LONG) {
+      return primitives[slot];
+    }
+    Object value = values[slot];
+    if (value instanceof Integer || value instanceof Long) {
+      return ((Number) value).longValue();
+    }
+    throw notDefinedAs(name, value, "long");
+  }
+
+  /**
+   * Retrieves the value of the specified numeric argument as a <code>double</code>, without boxing
+   * it.
+   *
+   * @param name argument name
+   * @return value
+   * @throws IllegalArgumentException if the argument is not typed, or is not a number
+   */
+  public double getDouble(@NotNull String name) throws CommandSyntaxException {
+    return getDouble(typedSlotOf(name), name);
+  }
+
+  /**
+   * Retrieves the value of the <code>double</code> argument the specified {@link ArgumentKey} is
+   * for, without boxing it.
+   *
+   * @param key argument key
+   * @return value
+   * @throws IllegalArgumentException if the argument is not typed
+   */
+  public double getDouble(@NotNull ArgumentKey<Double> key) throws CommandSyntaxException {
+    return getDouble(typedSlotOf(key), key.getArgument().getName());
+  }
+
+  private double getDouble(int slot, String name) {
+    byte kind = kinds[slot];
+    if (kind == PrimitiveParsers.FLOAT || kind == PrimitiveParsers.DOUBLE) {
+      return Double.longBitsToDouble(primitives[slot]);
+    }
+    if (kind == PrimitiveParsers.INT || kind == PrimitiveParsers.LONG) {
+      return primitives[slot];
+    }
+    Object value = values[slot];
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    throw notDefinedAs(name, value, "double");
+  }
+
+  /**
+   * Retrieves the value of the specified <code>boolean</code> argument, without boxing it.
+   *
+   * @param name argument name
+   * @return value
+   * @throws IllegalArgumentException if the argument is not typed, or is not a <code>boolean
+   *     </code>
+   */
+  public boolean getBoolean(@NotNull String name) throws CommandSyntaxException {
+    return getBoolean(typedSlotOf(name), name);
+  }
+
+  /**
+   * Retrieves the value of the <code>boolean</code> argument the specified {@link ArgumentKey} is
+   * for, without boxing it.
+   *
+   * @param key argument key
+   * @return value
+   * @throws IllegalArgumentException if the argument is not typed
+   */
+  public boolean getBoolean(@NotNull ArgumentKey<Boolean> key) throws CommandSyntaxException {
+    return getBoolean(typedSlotOf(key), key.getArgument().getName());
+  }
+
+  private boolean getBoolean(int slot, String name) {
+    if (kinds[slot] == PrimitiveParsers.BOOLEAN) {
+      return primitives[slot] != 0;
+    }
+    Object value = values[slot];
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    }
+    throw notDefinedAs(name, value, "boolean");
+  }
+
+  private int typedSlotOf(String name) throws CommandSyntaxException {
+    Objects.requireNonNull(name, "name");
+    int slot = slotOf(name);
+    if (slot == -1) {
+      throw new IllegalArgumentException("Argument '" + name + "' is not typed");
+    }
+    return typedSlot(slot, name);
+  }
+
+  private int typedSlotOf(ArgumentKey<?> key) throws CommandSyntaxException {
+    return typedSlot(slotOf(key), key.getArgument().getName());
+  }
+
+  private int typedSlot(int slot, String name) throws CommandSyntaxException {
+    byte state = state(slot);
+    if (state == FAILED) {
+      throw exception(slot);
+    }
+    if (state != TYPED) {
+      throw new IllegalArgumentException("Argument '" + name + "' is not typed");
+    }
+    return slot;
+  }
+
+  private static IllegalArgumentException notDefinedAs(String name, Object value, String type) {
+    return new IllegalArgumentException(
+        "Argument '"
+            + name
+            + "' is defined as '"
+            + (value != null ? value.getClass().getSimpleName() : "null")
+            + "', not "
+            + type);
+  }
+
+  private int slotOf(String name) {
+    int[] slots = plan.getSlots(name);
+    return slots != null ? reachedSlot(slots, -1) : -1;
+  }
+
+  // the last reached of the specified slots, as only the ones of the typed path are reached
+  private int reachedSlot(int[] slots, int absent) {
+    for (int i = slots.length - 1; i >= 0; i--) {
+      int slot = slots[i];
+      if (states[slot] != ABSENT) {
+        return slot;
+      }
+    }
+    return absent;
+  }
+
+  private int slotOf(ArgumentKey<?> key) {
+    Objects.requireNonNull(key, "key");
+    int[] slots = plan.getSlots(key);
+    if (slots == null) {
+      throw new IllegalArgumentException(
+          "Argument '" + key.getArgument().getName() + "' is not part of the command structure");
+    }
+    // an argument shared by multiple parents is read from the slot of the typed path
+    return slots.length == 1 ? slots[0] : reachedSlot(slots, slots[0]);
+  }
+
+  /**
+   * Returns the last argument, for which we have a value. If the input was parsed {@link
+   * ParseMode#PATH_DIRECTED path directed}, this is the deepest typed argument of the path, which
+   * may also be a literal one.
    *
    * @return last argument
    */
   @Nullable
   public Argument getLastArgument() {
-    Collection<ArgumentData> argumentData = argumentDataHolder.values();
-    Argument argument = null;
-    for (ArgumentData data : argumentData) {
-      if (isTyped(data)) {
-        IndexRange indexRange = data.getIndex();
-        if (indexRange != null) {
-          int compared =
-              indexRange.isRange() ? (indexRange.getEnd() + 1) : (indexRange.getIndex() + 1);
-          if (compared == size()) {
-            argument = data.getArgument();
-            break;
-          }
-        } else if (data.getCommandSyntaxException() != null) {
-          argument = data.getArgument();
-          break;
+    return lastArgument;
+  }
+
+  private Argument findLastFlattenedArgument() {
+    for (int i = 0; i < touchedCount; i++) {
+      int slot = touched[i];
+      byte state = states[slot];
+      if (state == TYPED) {
+        int compared = indexEnds[slot] != -1 ? (indexEnds[slot] + 1) : (indexStarts[slot] + 1);
+        if (compared == typedCount) {
+          return plan.getArgument(slot);
         }
+      } else if (state == FAILED) {
+        return plan.getArgument(slot);
       }
     }
-    return argument;
+    return null;
   }
 
   /**
@@ -225,8 +942,27 @@ public final class ArgumentHolder {
   @Nullable
   public IndexRange getArgumentIndex(@NotNull String argumentName) {
     Objects.requireNonNull(argumentName, "argumentName");
-    ArgumentData data = argumentDataHolder.get(argumentName);
-    return data != null ? data.getIndex() : null;
+    int slot = slotOf(argumentName);
+    return slot != -1 ? getArgumentIndex(slot) : null;
+  }
+
+  /**
+   * Returns the {@link IndexRange} of the argument the specified {@link ArgumentKey} is for.
+   *
+   * @param key argument key
+   * @return range if present
+   */
+  @Nullable
+  public IndexRange getArgumentIndex(@NotNull ArgumentKey<?> key) {
+    return getArgumentIndex(slotOf(key));
+  }
+
+  private IndexRange getArgumentIndex(int slot) {
+    if (state(slot) != TYPED) {
+      return null;
+    }
+    int end = indexEnds[slot];
+    return end == -1 ? new IndexRange(indexStarts[slot]) : new IndexRange(indexStarts[slot], end);
   }
 
   /**
@@ -238,12 +974,23 @@ public final class ArgumentHolder {
    */
   public boolean isTyped(@NotNull String argumentName) {
     Objects.requireNonNull(argumentName, "argumentName");
-    return isTyped(argumentDataHolder.get(argumentName));
+    int slot = slotOf(argumentName);
+    return slot != -1 && isTyped(slot);
   }
 
-  private boolean isTyped(ArgumentData argumentData) {
-    return argumentData != null
-        && (argumentData.getRawValue() != null || argumentData.getCommandSyntaxException() != null);
+  /**
+   * Returns whether or not the argument the specified {@link ArgumentKey} is for is typed.
+   *
+   * @param key argument key
+   * @return <code>true</code> if typed, <code>false</code> otherwise
+   * @see #isTyped(String)
+   */
+  public boolean isTyped(@NotNull ArgumentKey<?> key) {
+    return isTyped(slotOf(key));
+  }
+
+  private boolean isTyped(int slot) {
+    return isTypedState(states[slot]);
   }
 
   /**
@@ -255,14 +1002,36 @@ public final class ArgumentHolder {
   @Nullable
   public String getRawRequiredArgument(@NotNull String argumentName) throws CommandSyntaxException {
     Objects.requireNonNull(argumentName, "argumentName");
-    ArgumentData argumentData = argumentDataHolder.get(argumentName);
-    if (argumentData == null) {
-      return null;
+    int slot = slotOf(argumentName);
+    return slot != -1 ? getRawValue(slot) : null;
+  }
+
+  /**
+   * Returns the argument the specified {@link ArgumentKey} is for in its raw state, if typed.
+   *
+   * @param key argument key
+   * @return argument
+   */
+  @Nullable
+  public String getRawRequiredArgument(@NotNull ArgumentKey<?> key) throws CommandSyntaxException {
+    return getRawValue(slotOf(key));
+  }
+
+  private String getRawValue(int slot) throws CommandSyntaxException {
+    byte state = state(slot);
+    if (state == FAILED) {
+      throw exception(slot);
     }
-    if (argumentData.getCommandSyntaxException() != null) {
-      throw argumentData.getCommandSyntaxException();
+    return state == TYPED ? raw(slot) : null;
+  }
+
+  private String raw(int slot) {
+    String raw = raws[slot];
+    if (raw == null) {
+      raw = input.substring(rawStarts[slot], rawEnds[slot]);
+      raws[slot] = raw;
     }
-    return argumentData.getRawValue();
+    return raw;
   }
 
   /**
@@ -271,38 +1040,31 @@ public final class ArgumentHolder {
    * @return length
    */
   public int size() {
-    int size = 0;
-    Collection<ArgumentData> values = argumentDataHolder.values();
-    for (ArgumentData data : values) {
-      if (isTyped(data)) {
-        size++;
-      }
-    }
-    return size;
+    return typedCount;
   }
 
   /**
-   * Returns the arguments in their raw state.
+   * Returns the arguments in their raw state, in the order they were typed.
    *
    * @return raw arguments
    */
   @NotNull
   public String[] getRawArgs() {
-    int rawArgsSizeInitialize = 0;
-    Collection<ArgumentData> values = argumentDataHolder.values();
-    for (ArgumentData data : values) {
-      if (data.getRawValue() != null) {
-        rawArgsSizeInitialize++;
+    if (parseMode == ParseMode.LAZY) {
+      // pending arguments may turn out invalid, so they have to be parsed first
+      for (int i = 0; i < touchedCount; i++) {
+        state(touched[i]);
       }
     }
-    if (rawArgsSizeInitialize == 0) {
+    if (rawCount == 0) {
       return new String[0];
     }
-    String[] ret = new String[rawArgsSizeInitialize];
+    String[] ret = new String[rawCount];
     int index = 0;
-    for (ArgumentData data : values) {
-      if (data.getRawValue() != null) {
-        ret[index] = data.getRawValue();
+    for (int i = 0; i < touchedCount; i++) {
+      int slot = touched[i];
+      if (states[slot] == TYPED) {
+        ret[index] = raw(slot);
         index++;
       }
     }
@@ -319,6 +1081,16 @@ public final class ArgumentHolder {
     return input;
   }
 
+  /**
+   * Returns the {@link ParseMode} the input was parsed with.
+   *
+   * @return parse mode
+   */
+  @NotNull
+  public ParseMode getParseMode() {
+    return parseMode;
+  }
+
   /**
    * Returns the command structure of the arguments held by this argument holder.
    *
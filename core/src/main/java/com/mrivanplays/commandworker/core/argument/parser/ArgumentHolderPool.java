@@ -0,0 +1,154 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+import com.mrivanplays.commandworker.core.LiteralNode;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a pool of {@link ArgumentHolder}s for a command structure, holding one argument
+ * holder per thread and {@link ParseMode}, which gets {@link ArgumentHolder#reset(String) reset}
+ * for every command execution instead of a new one being created.
+ *
+ * <p>Every {@link #acquire(String, ParseMode) acquired} argument holder should be {@link
+ * #release(ArgumentHolder) released} once the command has executed. If the pooled argument holder
+ * is still in use when one is acquired, for example when a command dispatches itself, a new,
+ * not pooled argument holder is returned.
+ */
+public final class ArgumentHolderPool {
+
+  private final LiteralNode commandStructure;
+  private final ThreadLocal<ArgumentHolder[]> holders;
+
+  public ArgumentHolderPool(@NotNull LiteralNode commandStructure) {
+    this.commandStructure = Objects.requireNonNull(commandStructure, "commandStructure");
+    this.holders = ThreadLocal.withInitial(() -> new ArgumentHolder[ParseMode.values().length]);
+  }
+
+  /**
+   * Acquires an argument holder, holding the specified input parsed with the specified {@link
+   * ParseMode}.
+   *
+   * @param input input
+   * @param parseMode parse mode
+   * @return argument holder
+   */
+  @NotNull
+  public ArgumentHolder acquire(@NotNull String input, @NotNull ParseMode parseMode) {
+    Objects.requireNonNull(input, "input");
+    ArgumentHolder holder = pooled(parseMode);
+    if (holder == null) {
+      return new ArgumentHolder(input, commandStructure, parseMode);
+    }
+    return holder.reset(input);
+  }
+
+  /**
+   * Acquires an argument holder, holding the specified input parsed with the specified {@link
+   * ParseMode} for the specified sender, whose type the <code>CommandParse</code> flight recorder
+   * event holds. The parse time is recorded to the specified metrics once the argument holder is
+   * {@link #release(ArgumentHolder) released}, so it includes the parsing deferred by the {@link
+   * ParseMode#LAZY lazy} parse mode until the arguments are requested.
+   *
+   * @param input input
+   * @param parseMode parse mode
+   * @param sender the sender the input is parsed for, or <code>null</code> if not known
+   * @param metrics the metrics of the command, or <code>null</code> to not record the parse time
+   * @return argument holder
+   * @see com.mrivanplays.commandworker.core.metrics.CommandEvents
+   */
+  @NotNull
+  public ArgumentHolder acquire(
+      @NotNull String input,
+      @NotNull ParseMode parseMode,
+      @Nullable Object sender,
+      @Nullable CommandMetrics metrics) {
+    Objects.requireNonNull(input, "input");
+    return pooledFor(parseMode, sender, metrics).reset(input);
+  }
+
+  /**
+   * Acquires an argument holder, holding the specified arguments, already split by the platform,
+   * parsed with the specified {@link ParseMode} for the specified sender, the same way {@link
+   * #acquire(String, ParseMode, Object, CommandMetrics)} does.
+   *
+   * @param args arguments
+   * @param parseMode parse mode
+   * @param sender the sender the arguments are parsed for, or <code>null</code> if not known
+   * @param metrics the metrics of the command, or <code>null</code> to not record the parse time
+   * @return argument holder
+   */
+  @NotNull
+  public ArgumentHolder acquire(
+      @NotNull String[] args,
+      @NotNull ParseMode parseMode,
+      @Nullable Object sender,
+      @Nullable CommandMetrics metrics) {
+    Objects.requireNonNull(args, "args");
+    return pooledFor(parseMode, sender, metrics).reset(args);
+  }
+
+  private ArgumentHolder pooledFor(ParseMode parseMode, Object sender, CommandMetrics metrics) {
+    ArgumentHolder holder = pooled(parseMode);
+    if (holder == null) {
+      holder = new ArgumentHolder(commandStructure, parseMode);
+    }
+    holder.parseFor(sender, metrics);
+    return holder;
+  }
+
+  /**
+   * Acquires an argument holder, holding the specified arguments, already split by the platform,
+   * parsed with the specified {@link ParseMode}.
+   *
+   * @param args arguments
+   * @param parseMode parse mode
+   * @return argument holder
+   */
+  @NotNull
+  public ArgumentHolder acquire(@NotNull String[] args, @NotNull ParseMode parseMode) {
+    Objects.requireNonNull(args, "args");
+    ArgumentHolder holder = pooled(parseMode);
+    if (holder == null) {
+      return new ArgumentHolder(args, commandStructure, parseMode);
+    }
+    return holder.reset(args);
+  }
+
+  private ArgumentHolder pooled(ParseMode parseMode) {
+    Objects.requireNonNull(parseMode, "parseMode");
+    ArgumentHolder[] pooled = holders.get();
+    ArgumentHolder holder = pooled[parseMode.ordinal()];
+    if (holder == null) {
+      holder = new ArgumentHolder(new String[0], commandStructure, parseMode);
+      pooled[parseMode.ordinal()] = holder;
+    } else if (holder.inUse) {
+      return null;
+    }
+    holder.inUse = true;
+    return holder;
+  }
+
+  /**
+   * Releases the specified argument holder, after which it may be reused by the next acquire on
+   * the same thread.
+   *
+   * @param holder argument holder
+   */
+  public void release(@NotNull ArgumentHolder holder) {
+    Objects.requireNonNull(holder, "holder");
+    holder.recordParse();
+    holder.inUse = false;
+  }
+
+  /**
+   * Returns the command structure the pooled argument holders are for.
+   *
+   * @return command structure
+   */
+  @NotNull
+  public LiteralNode getCommandStructure() {
+    return commandStructure;
+  }
+}
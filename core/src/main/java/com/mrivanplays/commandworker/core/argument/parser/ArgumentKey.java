@@ -0,0 +1,55 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+import com.mrivanplays.commandworker.core.argument.RequiredArgument;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a typed key of a {@link RequiredArgument}, which can be used to retrieve the argument's
+ * value from an {@link ArgumentHolder} without looking it up by name. The key gets resolved to the
+ * slot of its argument when the command structure is being frozen.
+ *
+ * <p>Usually obtained through {@link RequiredArgument#key()}.
+ *
+ * @param <V> type of the argument
+ */
+public final class ArgumentKey<V> {
+
+  private final RequiredArgument<V> argument;
+  private volatile int slot = -1;
+
+  public ArgumentKey(@NotNull RequiredArgument<V> argument) {
+    this.argument = Objects.requireNonNull(argument, "argument");
+  }
+
+  /**
+   * Returns the {@link RequiredArgument} this key is for.
+   *
+   * @return argument
+   */
+  @NotNull
+  public RequiredArgument<V> getArgument() {
+    return argument;
+  }
+
+  /**
+   * Returns the slot this key was resolved to, or <code>-1</code> if the argument wasn't part of a
+   * frozen command structure yet.
+   *
+   * @return slot
+   */
+  public int getSlot() {
+    return slot;
+  }
+
+  void resolve(int slot) {
+    if (this.slot == -1) {
+      this.slot = slot;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ArgumentKey(argument=" + argument.getName() + ", slot=" + slot + ")";
+  }
+}
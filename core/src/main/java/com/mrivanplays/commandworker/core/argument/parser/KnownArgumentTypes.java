@@ -0,0 +1,137 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.FloatArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** Knowledge about the brigadier built-in argument types, which the parser can rely on. */
+public final class KnownArgumentTypes {
+
+  /** The amount of input the argument type consumes can't be known without parsing it. */
+  static final int UNKNOWN = 0;
+
+  /** The argument type consumes exactly one whitespace separated token. */
+  static final int SINGLE_TOKEN = 1;
+
+  /** The argument type consumes the whole remaining input. */
+  static final int GREEDY = 2;
+
+  // the buffers the primitive parsers write the checked tokens to, reused by the checks of the
+  // thread, as only the kind they return is read
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+  private KnownArgumentTypes() {}
+
+  /**
+   * Returns how much of the input the specified argument type would consume if it was parsed at
+   * the specified token.
+   *
+   * @param type argument type
+   * @param input input
+   * @param start token start
+   * @param end token end
+   * @return {@link #UNKNOWN}, {@link #SINGLE_TOKEN} or {@link #GREEDY}
+   */
+  static int width(ArgumentType<?> type, String input, int start, int end) {
+    if (isPrimitive(type)) {
+      return SINGLE_TOKEN;
+    }
+    if (type instanceof StringArgumentType) {
+      switch (((StringArgumentType) type).getType()) {
+        case GREEDY_PHRASE:
+          return GREEDY;
+        case QUOTABLE_PHRASE:
+          // an unquoted phrase is read as a single word
+          return StringReader.isQuotedStringStart(input.charAt(start))
+              ? UNKNOWN
+              : wordWidth(input, start, end);
+        case SINGLE_WORD:
+          return wordWidth(input, start, end);
+        default:
+          return UNKNOWN;
+      }
+    }
+    return UNKNOWN;
+  }
+
+  /**
+   * Returns whether or not the specified argument type accepts the specified token as a whole, as
+   * far as it can be told cheaply. The brigadier numeric and boolean types are checked by the
+   * primitive parsers, and the string types by the characters of the token. Any other argument
+   * type is never called, and is assumed to accept every token, as its parsing may do lookups.
+   *
+   * @param type argument type, or <code>null</code> for a minecraft argument type on a version
+   *     without brigadier
+   * @param token token
+   * @return <code>true</code> if accepted or not known, <code>false</code> otherwise
+   */
+  public static boolean acceptsToken(@Nullable ArgumentType<?> type, @NotNull String token) {
+    if (type instanceof StringArgumentType) {
+      switch (((StringArgumentType) type).getType()) {
+        case GREEDY_PHRASE:
+          return true;
+        case QUOTABLE_PHRASE:
+          return token.isEmpty() || StringReader.isQuotedStringStart(token.charAt(0))
+              ? parsesWhole(type, token)
+              : wordWidth(token, 0, token.length()) == SINGLE_TOKEN;
+        default:
+          return wordWidth(token, 0, token.length()) == SINGLE_TOKEN;
+      }
+    }
+    if (!isPrimitive(type)) {
+      return true;
+    }
+    Scratch scratch = SCRATCH.get();
+    byte kind =
+        PrimitiveParsers.parse(
+            type, token, 0, token.length(), 0, scratch.values, scratch.ends, scratch.errors);
+    if (kind == PrimitiveParsers.NONE) {
+      // the primitive parsers weren't sure, but the built-in type is cheap to parse with
+      return parsesWhole(type, token);
+    }
+    return kind != PrimitiveParsers.FAILED;
+  }
+
+  // the types the primitive parsers handle
+  private static boolean isPrimitive(ArgumentType<?> type) {
+    return type instanceof IntegerArgumentType
+        || type instanceof LongArgumentType
+        || type instanceof DoubleArgumentType
+        || type instanceof FloatArgumentType
+        || type instanceof BoolArgumentType;
+  }
+
+  private static boolean parsesWhole(ArgumentType<?> type, String token) {
+    StringReader reader = new StringReader(token);
+    try {
+      type.parse(reader);
+      return !reader.canRead();
+    } catch (CommandSyntaxException e) {
+      return false;
+    }
+  }
+
+  private static int wordWidth(String input, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!StringReader.isAllowedInUnquotedString(input.charAt(i))) {
+        return UNKNOWN;
+      }
+    }
+    return SINGLE_TOKEN;
+  }
+
+  private static final class Scratch {
+
+    private final long[] values = new long[1];
+    private final int[] ends = new int[1];
+    private final ParseError[] errors = new ParseError[1];
+  }
+}
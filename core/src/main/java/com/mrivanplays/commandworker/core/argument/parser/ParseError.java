@@ -0,0 +1,33 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+/**
+ * Represents the reason an argument failed to parse.
+ *
+ * @see ParseFailure
+ */
+public enum ParseError {
+  EXPECTED_INT,
+  INVALID_INT,
+  INTEGER_TOO_LOW,
+  INTEGER_TOO_HIGH,
+  EXPECTED_LONG,
+  INVALID_LONG,
+  LONG_TOO_LOW,
+  LONG_TOO_HIGH,
+  EXPECTED_FLOAT,
+  INVALID_FLOAT,
+  FLOAT_TOO_LOW,
+  FLOAT_TOO_HIGH,
+  EXPECTED_DOUBLE,
+  INVALID_DOUBLE,
+  DOUBLE_TOO_LOW,
+  DOUBLE_TOO_HIGH,
+  EXPECTED_BOOL,
+  INVALID_BOOL,
+
+  /** The argument was parsed, but did not end where the typed word ends. */
+  EXPECTED_ARGUMENT_SEPARATOR,
+
+  /** The argument type threw a {@link com.mojang.brigadier.exceptions.CommandSyntaxException}. */
+  ARGUMENT_TYPE
+}
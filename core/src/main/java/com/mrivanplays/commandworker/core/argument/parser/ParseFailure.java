@@ -0,0 +1,220 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.FloatArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
+import com.mojang.brigadier.exceptions.BuiltInExceptionProvider;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.CommandExceptions;
+import com.mrivanplays.commandworker.core.argument.Argument;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an argument, which failed to parse.
+ *
+ * <p>The parser records failures of the brigadier built-in argument types as plain values, and the
+ * {@link CommandSyntaxException} describing the failure is only created when it's requested, for
+ * example when the failed argument is retrieved from the {@link ArgumentHolder}, or when {@link
+ * #getMessage()} is called. A failure is not bound to the argument holder it came from.
+ */
+public final class ParseFailure {
+
+  private final ParseError error;
+  private final Argument argument;
+  private final String input;
+  private final int start;
+  private final int end;
+  private final long value;
+  private CommandSyntaxException exception;
+
+  ParseFailure(
+      ParseError error,
+      Argument argument,
+      String input,
+      int start,
+      int end,
+      long value,
+      CommandSyntaxException exception) {
+    this.error = error;
+    this.argument = argument;
+    this.input = input;
+    this.start = start;
+    this.end = end;
+    this.value = value;
+    this.exception = exception;
+  }
+
+  /**
+   * Returns the reason of the failure.
+   *
+   * @return error
+   */
+  @NotNull
+  public ParseError getError() {
+    return error;
+  }
+
+  /**
+   * Returns the argument, which failed to parse.
+   *
+   * @return argument
+   */
+  @NotNull
+  public Argument getArgument() {
+    return argument;
+  }
+
+  /**
+   * Returns the input, in which the failure occurred.
+   *
+   * @return input
+   */
+  @NotNull
+  public String getInput() {
+    return input;
+  }
+
+  /**
+   * Returns the position in the input where the failure occurred.
+   *
+   * @return cursor
+   */
+  public int getCursor() {
+    switch (error) {
+      case EXPECTED_ARGUMENT_SEPARATOR:
+        return end;
+      case ARGUMENT_TYPE:
+        return exception.getCursor();
+      default:
+        return start;
+    }
+  }
+
+  /**
+   * Returns the message describing the failure. The message is formatted the first time it's
+   * requested.
+   *
+   * @return message
+   */
+  @NotNull
+  public String getMessage() {
+    return toException().getMessage();
+  }
+
+  /**
+   * Returns the {@link CommandSyntaxException} describing the failure, which is created the first
+   * time it's requested.
+   *
+   * @return exception
+   */
+  @NotNull
+  public CommandSyntaxException toException() {
+    if (exception == null) {
+      exception = createException(error, argument.getArgumentType(), input, start, end, value);
+    }
+    return exception;
+  }
+
+  @Override
+  public String toString() {
+    return "ParseFailure(error="
+        + error
+        + ", argument="
+        + argument.getName()
+        + ", cursor="
+        + getCursor()
+        + ")";
+  }
+
+  /**
+   * Creates the exception brigadier would have thrown for the specified failure.
+   *
+   * @param error error
+   * @param type argument type
+   * @param input input
+   * @param start start of the failed argument
+   * @param end end of what the argument would have read
+   * @param value the read value, if any
+   * @return exception
+   */
+  static CommandSyntaxException createException(
+      ParseError error, ArgumentType<?> type, String input, int start, int end, long value) {
+    BuiltInExceptionProvider exceptions = CommandSyntaxException.BUILT_IN_EXCEPTIONS;
+    StringReader reader = new StringReader(input);
+    reader.setCursor(start);
+    switch (error) {
+      case EXPECTED_INT:
+        return exceptions.readerExpectedInt().createWithContext(reader);
+      case INVALID_INT:
+        return exceptions.readerInvalidInt().createWithContext(reader, input.substring(start, end));
+      case INTEGER_TOO_LOW:
+        return exceptions
+            .integerTooLow()
+            .createWithContext(reader, (int) value, ((IntegerArgumentType) type).getMinimum());
+      case INTEGER_TOO_HIGH:
+        return exceptions
+            .integerTooHigh()
+            .createWithContext(reader, (int) value, ((IntegerArgumentType) type).getMaximum());
+      case EXPECTED_LONG:
+        return exceptions.readerExpectedLong().createWithContext(reader);
+      case INVALID_LONG:
+        return exceptions.readerInvalidLong().createWithContext(reader, input.substring(start, end));
+      case LONG_TOO_LOW:
+        return exceptions
+            .longTooLow()
+            .createWithContext(reader, value, ((LongArgumentType) type).getMinimum());
+      case LONG_TOO_HIGH:
+        return exceptions
+            .longTooHigh()
+            .createWithContext(reader, value, ((LongArgumentType) type).getMaximum());
+      case EXPECTED_FLOAT:
+        return exceptions.readerExpectedFloat().createWithContext(reader);
+      case INVALID_FLOAT:
+        return exceptions
+            .readerInvalidFloat()
+            .createWithContext(reader, input.substring(start, end));
+      case FLOAT_TOO_LOW:
+        return exceptions
+            .floatTooLow()
+            .createWithContext(
+                reader,
+                (float) Double.longBitsToDouble(value),
+                ((FloatArgumentType) type).getMinimum());
+      case FLOAT_TOO_HIGH:
+        return exceptions
+            .floatTooHigh()
+            .createWithContext(
+                reader,
+                (float) Double.longBitsToDouble(value),
+                ((FloatArgumentType) type).getMaximum());
+      case EXPECTED_DOUBLE:
+        return exceptions.readerExpectedDouble().createWithContext(reader);
+      case INVALID_DOUBLE:
+        return exceptions
+            .readerInvalidDouble()
+            .createWithContext(reader, input.substring(start, end));
+      case DOUBLE_TOO_LOW:
+        return exceptions
+            .doubleTooLow()
+            .createWithContext(
+                reader, Double.longBitsToDouble(value), ((DoubleArgumentType) type).getMinimum());
+      case DOUBLE_TOO_HIGH:
+        return exceptions
+            .doubleTooHigh()
+            .createWithContext(
+                reader, Double.longBitsToDouble(value), ((DoubleArgumentType) type).getMaximum());
+      case EXPECTED_BOOL:
+        return exceptions.readerExpectedBool().createWithContext(reader);
+      case INVALID_BOOL:
+        return exceptions.readerInvalidBool().createWithContext(reader, input.substring(start, end));
+      case EXPECTED_ARGUMENT_SEPARATOR:
+        reader.setCursor(end);
+        return CommandExceptions.EXPECTED_ARGUMENT_SEPARATOR.createWithContext(reader);
+      default:
+        throw new IllegalArgumentException("No exception can be created for " + error);
+    }
+  }
+}
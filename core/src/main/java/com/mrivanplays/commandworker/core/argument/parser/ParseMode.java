@@ -0,0 +1,29 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+/** Represents the way an {@link ArgumentHolder} parses the input it was given. */
+public enum ParseMode {
+
+  /**
+   * Every required argument of the command structure is being parsed in the order of the index
+   * it's expected at, no matter which branch of the structure the input actually follows.
+   */
+  FLATTENED,
+
+  /**
+   * The literal arguments are matched first, and only the branch of the command structure which
+   * was actually typed is being descended into. Sibling branches are never parsed, which makes the
+   * parsing cost depend only on the length of the typed path.
+   */
+  PATH_DIRECTED,
+
+  /**
+   * Same as {@link #PATH_DIRECTED}, but the construction of the {@link ArgumentHolder} only splits
+   * the input into the spans of the arguments, wherever the span can be known without parsing. An
+   * argument then gets parsed the first time its value is requested, and the result is remembered.
+   * Checking whether an argument is typed, the size or the last argument never triggers parsing.
+   *
+   * <p>An argument of a type which consumes a single word has to consume the whole word, otherwise
+   * it fails with an "expected whitespace" error when its value is requested.
+   */
+  LAZY
+}
@@ -0,0 +1,273 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+import com.mrivanplays.commandworker.core.LiteralNode;
+import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
+import com.mrivanplays.commandworker.core.argument.RequiredArgument;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a precompiled, immutable parse plan of a {@link LiteralNode}.
+ *
+ * <p>The plan holds the required arguments of the whole command structure flattened into arrays,
+ * ordered by the index (depth) they're expected at. The position of an argument in the plan is
+ * also its slot, under which the {@link ArgumentHolder} stores its parsed value. It is compiled
+ * once, over the frozen {@link LiteralNode#getTree() tree} of the node, and then is only read by
+ * every {@link ArgumentHolder} created for that node, which walks that same tree when parsing
+ * along the typed path.
+ *
+ * @see LiteralNode#freeze()
+ */
+public final class ParsePlan {
+
+  private static final ArgumentNode[] NO_NODES = new ArgumentNode[0];
+
+  // the id of the root, which the base nodes of the tree are the children of
+  static final int ROOT = -1;
+
+  /**
+   * Compiles a new {@link ParsePlan} out of the specified base arguments.
+   *
+   * @param arguments base arguments
+   * @return parse plan
+   * @see #compileTree(List)
+   */
+  @NotNull
+  public static ParsePlan compile(@NotNull List<Argument> arguments) {
+    Objects.requireNonNull(arguments, "arguments");
+    return compileTree(ArgumentNode.compile(arguments));
+  }
+
+  /**
+   * Compiles a new {@link ParsePlan} over the specified frozen tree, which the path directed
+   * parsing then walks.
+   *
+   * @param tree base nodes of the tree, as compiled by {@link ArgumentNode#compile(List)}
+   * @return parse plan
+   * @see LiteralNode#getTree()
+   */
+  @NotNull
+  public static ParsePlan compileTree(@NotNull List<ArgumentNode> tree) {
+    Objects.requireNonNull(tree, "tree");
+    List<List<ArgumentNode>> byIndex = new ArrayList<>();
+    int nodeCount = collect(tree, 0, byIndex);
+
+    int size = 0;
+    for (List<ArgumentNode> atIndex : byIndex) {
+      size += atIndex.size();
+    }
+    Argument[] requiredArguments = new Argument[size];
+    int[] indices = new int[size];
+    int[] slots = new int[nodeCount];
+    Arrays.fill(slots, -1);
+    Map<String, int[]> slotsByName = new HashMap<>();
+    Map<Argument, int[]> slotsByArgument = new IdentityHashMap<>();
+    int slot = 0;
+    for (int index = 0, len = byIndex.size(); index < len; index++) {
+      for (ArgumentNode node : byIndex.get(index)) {
+        Argument argument = node.getArgument();
+        slots[node.getId()] = slot;
+        requiredArguments[slot] = argument;
+        indices[slot] = index;
+        slotsByName.merge(argument.getName(), new int[] {slot}, ParsePlan::append);
+        // an argument added as a child of multiple arguments has a slot for each of them
+        slotsByArgument.merge(argument, new int[] {slot}, ParsePlan::append);
+        if (argument instanceof RequiredArgument) {
+          ((RequiredArgument<?>) argument).key().resolve(slot);
+        }
+        slot++;
+      }
+    }
+
+    int[][] argumentSlots = new int[size][];
+    for (int i = 0; i < size; i++) {
+      argumentSlots[i] = slotsByArgument.get(requiredArguments[i]);
+    }
+
+    // the children of every node are split into literals and required arguments, by id, with the
+    // children of the root first
+    ArgumentNode[][] literalChildren = new ArgumentNode[nodeCount + 1][];
+    ArgumentNode[][] requiredChildren = new ArgumentNode[nodeCount + 1][];
+    split(ROOT, tree, literalChildren, requiredChildren);
+    return new ParsePlan(
+        requiredArguments,
+        indices,
+        slotsByName,
+        argumentSlots,
+        slots,
+        literalChildren,
+        requiredChildren);
+  }
+
+  private static int[] append(int[] present, int[] added) {
+    int[] merged = Arrays.copyOf(present, present.length + 1);
+    merged[present.length] = added[0];
+    return merged;
+  }
+
+  // collects the required nodes by the index they're expected at, and returns the amount of ids
+  private static int collect(
+      List<ArgumentNode> nodes, int index, List<List<ArgumentNode>> byIndex) {
+    int nodeCount = 0;
+    for (ArgumentNode node : nodes) {
+      nodeCount = Math.max(nodeCount, node.getId() + 1);
+      if (!node.isLiteral()) {
+        while (byIndex.size() <= index) {
+          byIndex.add(new ArrayList<>());
+        }
+        byIndex.get(index).add(node);
+      }
+      nodeCount = Math.max(nodeCount, collect(node.getChildren(), index + 1, byIndex));
+    }
+    return nodeCount;
+  }
+
+  private static void split(
+      int id,
+      List<ArgumentNode> children,
+      ArgumentNode[][] literalChildren,
+      ArgumentNode[][] requiredChildren) {
+    int literalCount = 0;
+    for (ArgumentNode child : children) {
+      if (child.isLiteral()) {
+        literalCount++;
+      }
+    }
+    ArgumentNode[] literals = literalCount == 0 ? NO_NODES : new ArgumentNode[literalCount];
+    ArgumentNode[] required =
+        literalCount == children.size()
+            ? NO_NODES
+            : new ArgumentNode[children.size() - literalCount];
+    int literalIndex = 0;
+    int requiredIndex = 0;
+    for (ArgumentNode child : children) {
+      if (child.isLiteral()) {
+        literals[literalIndex++] = child;
+      } else {
+        required[requiredIndex++] = child;
+      }
+      split(child.getId(), child.getChildren(), literalChildren, requiredChildren);
+    }
+    literalChildren[id + 1] = literals;
+    requiredChildren[id + 1] = required;
+  }
+
+  private final Argument[] requiredArguments;
+  private final int[] indices;
+  private final Map<String, int[]> slotsByName;
+  private final int[][] argumentSlots;
+  private final int[] slots;
+  private final ArgumentNode[][] literalChildren;
+  private final ArgumentNode[][] requiredChildren;
+
+  private ParsePlan(
+      Argument[] requiredArguments,
+      int[] indices,
+      Map<String, int[]> slotsByName,
+      int[][] argumentSlots,
+      int[] slots,
+      ArgumentNode[][] literalChildren,
+      ArgumentNode[][] requiredChildren) {
+    this.requiredArguments = requiredArguments;
+    this.indices = indices;
+    this.slotsByName = slotsByName;
+    this.argumentSlots = argumentSlots;
+    this.slots = slots;
+    this.literalChildren = literalChildren;
+    this.requiredChildren = requiredChildren;
+  }
+
+  /**
+   * Returns how many required arguments this plan holds.
+   *
+   * @return size
+   */
+  public int size() {
+    return requiredArguments.length;
+  }
+
+  /**
+   * Returns the required argument at the specified position of this plan.
+   *
+   * @param position position
+   * @return argument
+   */
+  @NotNull
+  public Argument getArgument(int position) {
+    return requiredArguments[position];
+  }
+
+  /**
+   * Returns the index (depth) at which the argument at the specified position of this plan is
+   * expected.
+   *
+   * @param position position
+   * @return argument index
+   */
+  public int getIndex(int position) {
+    return indices[position];
+  }
+
+  /**
+   * Returns the slot of the argument the specified {@link ArgumentKey} is for. An argument added as
+   * a child of multiple arguments has a slot for each of them, in which case this is the first
+   * one, and the {@link ArgumentHolder} reads the one of the typed path.
+   *
+   * @param key key
+   * @return slot, or <code>-1</code> if the argument is not part of this plan
+   */
+  public int getSlot(@NotNull ArgumentKey<?> key) {
+    Objects.requireNonNull(key, "key");
+    Argument argument = key.getArgument();
+    int slot = key.getSlot();
+    if (slot >= 0 && slot < requiredArguments.length && requiredArguments[slot] == argument) {
+      return slot;
+    }
+    // the key was resolved against another structure; look the argument up instead
+    for (int i = 0, len = requiredArguments.length; i < len; i++) {
+      if (requiredArguments[i] == argument) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Nullable
+  int[] getSlots(String name) {
+    return slotsByName.get(name);
+  }
+
+  // every slot of the argument the specified key is for
+  @Nullable
+  int[] getSlots(ArgumentKey<?> key) {
+    int slot = getSlot(key);
+    return slot != -1 ? argumentSlots[slot] : null;
+  }
+
+  // the slot of the specified required node
+  int getSlot(ArgumentNode node) {
+    return slots[node.getId()];
+  }
+
+  // the literal children of the node with the specified id, or of the root
+  ArgumentNode[] getLiteralChildren(int id) {
+    return literalChildren[id + 1];
+  }
+
+  // the required children of the node with the specified id, or of the root
+  ArgumentNode[] getRequiredChildren(int id) {
+    return requiredChildren[id + 1];
+  }
+
+  boolean isLeaf(int id) {
+    return literalChildren[id + 1].length == 0 && requiredChildren[id + 1].length == 0;
+  }
+}
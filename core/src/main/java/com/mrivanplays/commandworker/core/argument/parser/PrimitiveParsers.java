@@ -0,0 +1,321 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.FloatArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
+
+/**
+ * Parsers for the brigadier numeric and boolean argument types, which read a token straight into a
+ * <code>long</code>, without boxing the value. Doubles and floats are stored as their raw bits.
+ *
+ * <p>The parsers handle the plain inputs, and the failures which can be told apart without doubt,
+ * recording those as a {@link ParseError} instead of throwing. Whenever they can't be sure (for
+ * example a number with too many digits, or a quoted string) they bail out, and the argument type
+ * itself has to be used, so the results are exactly the brigadier ones.
+ */
+final class PrimitiveParsers {
+
+  /** The token could not be handled, the argument type has to be used. */
+  static final byte NONE = 0;
+
+  static final byte INT = 1;
+  static final byte LONG = 2;
+  static final byte FLOAT = 3;
+  static final byte DOUBLE = 4;
+  static final byte BOOLEAN = 5;
+
+  /** The token failed to parse, and the reason was recorded. */
+  static final byte FAILED = -1;
+
+  // powers of ten which are exactly representable
+  private static final double[] DOUBLE_POWERS = new double[23];
+  private static final float[] FLOAT_POWERS = new float[11];
+
+  static {
+    DOUBLE_POWERS[0] = 1;
+    for (int i = 1; i < DOUBLE_POWERS.length; i++) {
+      DOUBLE_POWERS[i] = DOUBLE_POWERS[i - 1] * 10;
+    }
+    FLOAT_POWERS[0] = 1;
+    for (int i = 1; i < FLOAT_POWERS.length; i++) {
+      FLOAT_POWERS[i] = FLOAT_POWERS[i - 1] * 10;
+    }
+  }
+
+  private PrimitiveParsers() {}
+
+  /**
+   * Parses the specified token with the specified argument type, storing the result in the
+   * specified slot of the specified arrays. The value read, if any, is stored in <code>values
+   * </code>, and the end of what the argument type would read in <code>ends</code>. If the token
+   * fails to parse, the reason is stored in <code>errors</code>.
+   *
+   * @param type argument type
+   * @param input input
+   * @param start token start
+   * @param end token end
+   * @param slot the slot to store the result into
+   * @param values the array to store the value into
+   * @param ends the array to store the end of the read value into
+   * @param errors the array to store the failure reason into
+   * @return the kind of the stored value, {@link #FAILED} or {@link #NONE}
+   */
+  static byte parse(
+      ArgumentType<?> type,
+      String input,
+      int start,
+      int end,
+      int slot,
+      long[] values,
+      int[] ends,
+      ParseError[] errors) {
+    if (start == end) {
+      return NONE;
+    }
+    if (type instanceof IntegerArgumentType) {
+      IntegerArgumentType integer = (IntegerArgumentType) type;
+      int numberEnd = numberEnd(input, start, end);
+      ends[slot] = numberEnd;
+      if (numberEnd == start) {
+        return fail(errors, slot, ParseError.EXPECTED_INT);
+      }
+      if (!isInteger(input, start, numberEnd, 10)) {
+        return isInvalidNumber(input, start, numberEnd, false)
+            ? fail(errors, slot, ParseError.INVALID_INT)
+            : NONE;
+      }
+      long value = parseInteger(input, start, numberEnd);
+      if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+        return fail(errors, slot, ParseError.INVALID_INT);
+      }
+      values[slot] = value;
+      if (value < integer.getMinimum()) {
+        return fail(errors, slot, ParseError.INTEGER_TOO_LOW);
+      }
+      if (value > integer.getMaximum()) {
+        return fail(errors, slot, ParseError.INTEGER_TOO_HIGH);
+      }
+      return numberEnd == end ? INT : fail(errors, slot, ParseError.EXPECTED_ARGUMENT_SEPARATOR);
+    }
+    if (type instanceof LongArgumentType) {
+      LongArgumentType longType = (LongArgumentType) type;
+      int numberEnd = numberEnd(input, start, end);
+      ends[slot] = numberEnd;
+      if (numberEnd == start) {
+        return fail(errors, slot, ParseError.EXPECTED_LONG);
+      }
+      // at most 18 digits, so it can't overflow
+      if (!isInteger(input, start, numberEnd, 18)) {
+        return isInvalidNumber(input, start, numberEnd, false)
+            ? fail(errors, slot, ParseError.INVALID_LONG)
+            : NONE;
+      }
+      long value = parseInteger(input, start, numberEnd);
+      values[slot] = value;
+      if (value < longType.getMinimum()) {
+        return fail(errors, slot, ParseError.LONG_TOO_LOW);
+      }
+      if (value > longType.getMaximum()) {
+        return fail(errors, slot, ParseError.LONG_TOO_HIGH);
+      }
+      return numberEnd == end ? LONG : fail(errors, slot, ParseError.EXPECTED_ARGUMENT_SEPARATOR);
+    }
+    if (type instanceof DoubleArgumentType) {
+      DoubleArgumentType doubleType = (DoubleArgumentType) type;
+      int numberEnd = numberEnd(input, start, end);
+      ends[slot] = numberEnd;
+      if (numberEnd == start) {
+        return fail(errors, slot, ParseError.EXPECTED_DOUBLE);
+      }
+      if (isInvalidNumber(input, start, numberEnd, true)) {
+        return fail(errors, slot, ParseError.INVALID_DOUBLE);
+      }
+      // up to 15 significant digits and 22 fraction digits, both the mantissa and the power of
+      // ten are exact, so a single division is correctly rounded
+      long mantissa = mantissa(input, start, numberEnd, 15);
+      int fraction = fractionDigits(input, start, numberEnd);
+      if (mantissa == -1 || fraction > 22) {
+        return NONE;
+      }
+      double value = mantissa / DOUBLE_POWERS[fraction];
+      if (input.charAt(start) == '-') {
+        value = -value;
+      }
+      values[slot] = Double.doubleToRawLongBits(value);
+      if (value < doubleType.getMinimum()) {
+        return fail(errors, slot, ParseError.DOUBLE_TOO_LOW);
+      }
+      if (value > doubleType.getMaximum()) {
+        return fail(errors, slot, ParseError.DOUBLE_TOO_HIGH);
+      }
+      return numberEnd == end ? DOUBLE : fail(errors, slot, ParseError.EXPECTED_ARGUMENT_SEPARATOR);
+    }
+    if (type instanceof FloatArgumentType) {
+      FloatArgumentType floatType = (FloatArgumentType) type;
+      int numberEnd = numberEnd(input, start, end);
+      ends[slot] = numberEnd;
+      if (numberEnd == start) {
+        return fail(errors, slot, ParseError.EXPECTED_FLOAT);
+      }
+      if (isInvalidNumber(input, start, numberEnd, true)) {
+        return fail(errors, slot, ParseError.INVALID_FLOAT);
+      }
+      // same as for doubles, but within the float precision
+      long mantissa = mantissa(input, start, numberEnd, 7);
+      int fraction = fractionDigits(input, start, numberEnd);
+      if (mantissa == -1 || fraction > 10) {
+        return NONE;
+      }
+      float value = mantissa / FLOAT_POWERS[fraction];
+      if (input.charAt(start) == '-') {
+        value = -value;
+      }
+      values[slot] = Double.doubleToRawLongBits(value);
+      if (value < floatType.getMinimum()) {
+        return fail(errors, slot, ParseError.FLOAT_TOO_LOW);
+      }
+      if (value > floatType.getMaximum()) {
+        return fail(errors, slot, ParseError.FLOAT_TOO_HIGH);
+      }
+      return numberEnd == end ? FLOAT : fail(errors, slot, ParseError.EXPECTED_ARGUMENT_SEPARATOR);
+    }
+    if (type instanceof BoolArgumentType) {
+      if (StringReader.isQuotedStringStart(input.charAt(start))) {
+        return NONE;
+      }
+      int wordEnd = start;
+      while (wordEnd < end && StringReader.isAllowedInUnquotedString(input.charAt(wordEnd))) {
+        wordEnd++;
+      }
+      ends[slot] = wordEnd;
+      int length = wordEnd - start;
+      if (length == 0) {
+        return fail(errors, slot, ParseError.EXPECTED_BOOL);
+      }
+      if (length == 4 && input.startsWith("true", start)) {
+        values[slot] = 1;
+      } else if (length == 5 && input.startsWith("false", start)) {
+        values[slot] = 0;
+      } else {
+        return fail(errors, slot, ParseError.INVALID_BOOL);
+      }
+      return wordEnd == end ? BOOLEAN : fail(errors, slot, ParseError.EXPECTED_ARGUMENT_SEPARATOR);
+    }
+    return NONE;
+  }
+
+  private static byte fail(ParseError[] errors, int slot, ParseError error) {
+    errors[slot] = error;
+    return FAILED;
+  }
+
+  /**
+   * Boxes the specified stored value of the specified kind.
+   *
+   * @param kind kind
+   * @param value stored value
+   * @return boxed value
+   */
+  static Object box(byte kind, long value) {
+    switch (kind) {
+      case INT:
+        return (int) value;
+      case LONG:
+        return value;
+      case FLOAT:
+        return (float) Double.longBitsToDouble(value);
+      case DOUBLE:
+        return Double.longBitsToDouble(value);
+      case BOOLEAN:
+        return value != 0;
+      default:
+        throw new IllegalArgumentException("Unknown kind " + kind);
+    }
+  }
+
+  // the end of what brigadier reads as a number
+  private static int numberEnd(String input, int start, int end) {
+    int i = start;
+    while (i < end && StringReader.isAllowedNumber(input.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  // whether the specified number, made of allowed number characters, fails to parse for sure
+  private static boolean isInvalidNumber(String input, int start, int end, boolean decimal) {
+    boolean digits = false;
+    boolean point = false;
+    for (int i = start; i < end; i++) {
+      char c = input.charAt(i);
+      if (c == '-') {
+        if (i != start) {
+          return true;
+        }
+      } else if (c == '.') {
+        if (!decimal || point) {
+          return true;
+        }
+        point = true;
+      } else {
+        digits = true;
+      }
+    }
+    return !digits;
+  }
+
+  private static boolean isInteger(String input, int start, int end, int maxDigits) {
+    int i = input.charAt(start) == '-' ? start + 1 : start;
+    if (i == end || end - i > maxDigits) {
+      return false;
+    }
+    for (; i < end; i++) {
+      char c = input.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long parseInteger(String input, int start, int end) {
+    boolean negative = input.charAt(start) == '-';
+    long value = 0;
+    for (int i = negative ? start + 1 : start; i < end; i++) {
+      value = value * 10 + (input.charAt(i) - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  // returns the digits of the number, ignoring the sign and the decimal point, or -1 if the number
+  // is not a plain decimal one, or has more than the specified amount of digits
+  private static long mantissa(String input, int start, int end, int maxDigits) {
+    int i = input.charAt(start) == '-' ? start + 1 : start;
+    long mantissa = 0;
+    int digits = 0;
+    boolean point = false;
+    for (; i < end; i++) {
+      char c = input.charAt(i);
+      if (c == '.' && !point) {
+        point = true;
+      } else if (c >= '0' && c <= '9') {
+        if (++digits > maxDigits) {
+          return -1;
+        }
+        mantissa = mantissa * 10 + (c - '0');
+      } else {
+        return -1;
+      }
+    }
+    return digits == 0 ? -1 : mantissa;
+  }
+
+  private static int fractionDigits(String input, int start, int end) {
+    int point = input.indexOf('.', start);
+    return point == -1 || point >= end ? 0 : end - point - 1;
+  }
+}
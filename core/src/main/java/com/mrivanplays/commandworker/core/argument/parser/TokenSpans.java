@@ -0,0 +1,119 @@
+package com.mrivanplays.commandworker.core.argument.parser;
+
+import java.util.Arrays;
+
+/**
+ * Holds the start and end offsets of the whitespace separated tokens of an input, so the parser can
+ * address them without creating a string per token.
+ */
+final class TokenSpans {
+
+  private String input;
+  private int[] starts;
+  private int[] ends;
+  private int count;
+
+  TokenSpans() {
+    this.starts = new int[8];
+    this.ends = new int[8];
+  }
+
+  /**
+   * Splits the specified input into tokens.
+   *
+   * @param input input
+   * @return this instance
+   */
+  TokenSpans tokenize(String input) {
+    this.input = input;
+    this.count = 0;
+    int length = input.length();
+    int i = 0;
+    while (i < length) {
+      if (Character.isWhitespace(input.charAt(i))) {
+        i++;
+        continue;
+      }
+      int start = i;
+      while (i < length && !Character.isWhitespace(input.charAt(i))) {
+        i++;
+      }
+      add(start, i);
+    }
+    return this;
+  }
+
+  /**
+   * Joins the specified already split arguments with a space, recording their spans while doing
+   * so, instead of tokenizing the joined input again.
+   *
+   * @param args arguments
+   * @return this instance
+   */
+  TokenSpans join(String[] args) {
+    this.count = 0;
+    if (args.length == 0) {
+      this.input = "";
+      return this;
+    }
+    int length = args.length - 1;
+    for (String arg : args) {
+      length += arg.length();
+    }
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0, len = args.length; i < len; i++) {
+      if (i != 0) {
+        builder.append(' ');
+      }
+      String arg = args[i];
+      if (!arg.isEmpty()) {
+        int start = builder.length();
+        builder.append(arg);
+        add(start, builder.length());
+      }
+    }
+    this.input = builder.toString();
+    return this;
+  }
+
+  private void add(int start, int end) {
+    if (count == starts.length) {
+      starts = Arrays.copyOf(starts, count * 2);
+      ends = Arrays.copyOf(ends, count * 2);
+    }
+    starts[count] = start;
+    ends[count] = end;
+    count++;
+  }
+
+  /**
+   * Returns the index of the first token, starting from the specified token, which starts at or
+   * after the specified offset. If there's no such token, {@link #count()} is returned.
+   *
+   * @param token token to start searching from
+   * @param offset offset
+   * @return token index
+   */
+  int next(int token, int offset) {
+    while (token < count && starts[token] < offset) {
+      token++;
+    }
+    return token;
+  }
+
+  String input() {
+    return input;
+  }
+
+  int count() {
+    return count;
+  }
+
+  int start(int token) {
+    return starts[token];
+  }
+
+  int end(int token) {
+    return ends[token];
+  }
+}
@@ -0,0 +1,53 @@
+package com.mrivanplays.commandworker.core.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a JDK Flight Recorder event of a command phase, which began when it was created
+ * through {@link CommandEvents}. While nothing is being recorded, the created events are a shared
+ * instance which never commits.
+ *
+ * <p>The fields of the event are only computed once {@link #shouldCommit()} returned <code>true
+ * </code>:
+ *
+ * <pre>{@code
+ * CommandEvent event = CommandEvents.parse();
+ * // ...
+ * if (event.shouldCommit()) {
+ *   event.commit(alias, CommandEvents.nodePath(structure, argument), sender, input.length());
+ * }
+ * }</pre>
+ */
+public interface CommandEvent {
+
+  /**
+   * Returns whether or not the event is recorded, as the event type is enabled and the phase took
+   * longer than its threshold.
+   *
+   * @return <code>true</code> if it should be committed, <code>false</code> otherwise
+   */
+  boolean shouldCommit();
+
+  /**
+   * Ends the phase, if not ended yet, and commits the event with the specified fields. The fields
+   * the event type doesn't hold, such as the node path and input length of a permission check, are
+   * left out.
+   *
+   * @param alias the alias of the command, or its name if not known
+   * @param nodePath the path of the argument node the phase reached
+   * @param sender the sender, whose type is recorded, or <code>null</code> if not known
+   * @param inputLength the length of the input
+   */
+  void commit(
+      @Nullable String alias, @NotNull String nodePath, @Nullable Object sender, int inputLength);
+
+  /**
+   * Ends the phase, if not ended yet, and commits the event with the specified fields, for the
+   * phases which don't have an input, such as the permission check.
+   *
+   * @param alias the alias of the command, or its name if not known
+   * @param sender the sender, whose type is recorded, or <code>null</code> if not known
+   */
+  void commit(@Nullable String alias, @Nullable Object sender);
+}
@@ -0,0 +1,219 @@
+package com.mrivanplays.commandworker.core.metrics;
+
+import com.mrivanplays.commandworker.core.LiteralNode;
+import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates the JDK Flight Recorder events of the command phases: <code>CommandParse</code>, <code>
+ * CommandExecute</code>, <code>CommandSuggest</code> and <code>CommandPermissionCheck</code>, in
+ * the <code>CommandWorker</code> category, which hold the alias of the command and the type of the
+ * sender, along with the duration of the phase. The events of the phases with an input, all but the
+ * permission check, also hold the path of the argument node the phase reached and the length of
+ * the input.
+ *
+ * <p>The events are emitted while the JVM records, by the {@link
+ * com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder}, the {@link LiteralNode}
+ * completions, the {@link com.mrivanplays.commandworker.core.RegisteredCommand} and the brigadier
+ * suggestions of the platforms. A listener of the flight recorder tracks whether or not anything
+ * is recorded, so while nothing is, creating an event is a single read of a field, which returns
+ * a shared event that never commits.
+ *
+ * <p>The event classes are only loaded if the JVM has the <code>jdk.jfr</code> module, so this
+ * still works on Java 8 runtimes without it, where no events are ever created.
+ */
+public final class CommandEvents {
+
+  private CommandEvents() {}
+
+  private static final CommandEvent DISABLED =
+      new CommandEvent() {
+        @Override
+        public boolean shouldCommit() {
+          return false;
+        }
+
+        @Override
+        public void commit(
+            @Nullable String alias,
+            @NotNull String nodePath,
+            @Nullable Object sender,
+            int inputLength) {}
+
+        @Override
+        public void commit(@Nullable String alias, @Nullable Object sender) {}
+      };
+
+  private static final boolean AVAILABLE;
+  private static volatile boolean enabled;
+
+  static {
+    boolean available;
+    try {
+      Class.forName("jdk.jfr.FlightRecorder", false, CommandEvents.class.getClassLoader());
+      available = JfrCommandEvents.install();
+    } catch (ClassNotFoundException | LinkageError | SecurityException e) {
+      available = false;
+    }
+    AVAILABLE = available;
+  }
+
+  /**
+   * Returns whether or not the JVM has a flight recorder the events can be emitted to.
+   *
+   * @return <code>true</code> if available, <code>false</code> otherwise
+   */
+  public static boolean isAvailable() {
+    return AVAILABLE;
+  }
+
+  /**
+   * Returns whether or not the flight recorder is recording, in which case the created events are
+   * committed, if their types are enabled.
+   *
+   * @return <code>true</code> if enabled, <code>false</code> otherwise
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  static void setEnabled(boolean enabled) {
+    CommandEvents.enabled = enabled;
+  }
+
+  /**
+   * Begins a <code>CommandParse</code> event, of parsing the input of a command.
+   *
+   * @return event
+   */
+  @NotNull
+  public static CommandEvent parse() {
+    return enabled ? JfrCommandEvents.parse() : DISABLED;
+  }
+
+  /**
+   * Begins a <code>CommandExecute</code> event, of executing a command.
+   *
+   * @return event
+   */
+  @NotNull
+  public static CommandEvent execute() {
+    return enabled ? JfrCommandEvents.execute() : DISABLED;
+  }
+
+  /**
+   * Begins a <code>CommandSuggest</code> event, of completing a command.
+   *
+   * @return event
+   */
+  @NotNull
+  public static CommandEvent suggest() {
+    return enabled ? JfrCommandEvents.suggest() : DISABLED;
+  }
+
+  /**
+   * Begins a <code>CommandPermissionCheck</code> event, of checking the permission of a command.
+   *
+   * @return event
+   */
+  @NotNull
+  public static CommandEvent permissionCheck() {
+    return enabled ? JfrCommandEvents.permissionCheck() : DISABLED;
+  }
+
+  /**
+   * Commits the specified event once the specified future completes, if it should be committed
+   * then.
+   *
+   * @param event event
+   * @param future future of the phase
+   * @param alias the alias of the command, or its name if not known
+   * @param node the argument node the phase reached, or <code>null</code> for the command itself
+   * @param sender the sender, or <code>null</code> if not known
+   * @param inputLength the length of the input
+   * @param <T> the type of the future
+   * @return the specified future
+   */
+  @NotNull
+  public static <T> CompletableFuture<T> commitWhenComplete(
+      @NotNull CommandEvent event,
+      @NotNull CompletableFuture<T> future,
+      @Nullable String alias,
+      @Nullable ArgumentNode node,
+      @Nullable Object sender,
+      int inputLength) {
+    if (event != DISABLED) {
+      future.whenComplete(
+          (result, error) -> {
+            if (event.shouldCommit()) {
+              event.commit(alias, nodePath(node), sender, inputLength);
+            }
+          });
+    }
+    return future;
+  }
+
+  /**
+   * Returns the path of the specified argument node, the names of the arguments leading to it
+   * separated by spaces, with the required arguments enclosed in <code>&lt;&gt;</code>.
+   *
+   * @param node argument node, or <code>null</code> for the command itself
+   * @return node path, empty for the command itself
+   */
+  @NotNull
+  public static String nodePath(@Nullable ArgumentNode node) {
+    if (node == null) {
+      return "";
+    }
+    StringBuilder path = new StringBuilder();
+    appendPath(node, path);
+    return path.toString();
+  }
+
+  /**
+   * Returns the path of the first argument node of the specified command structure, which holds
+   * the specified argument.
+   *
+   * @param structure command structure
+   * @param argument argument, or <code>null</code> for the command itself
+   * @return node path, empty for the command itself or if the argument is not part of the command
+   *     structure
+   * @see #nodePath(ArgumentNode)
+   */
+  @NotNull
+  public static String nodePath(@NotNull LiteralNode structure, @Nullable Argument argument) {
+    Objects.requireNonNull(structure, "structure");
+    return argument == null ? "" : nodePath(find(structure.getTree(), argument));
+  }
+
+  private static ArgumentNode find(List<ArgumentNode> nodes, Argument argument) {
+    for (ArgumentNode node : nodes) {
+      if (node.getArgument() == argument) {
+        return node;
+      }
+      ArgumentNode found = find(node.getChildren(), argument);
+      if (found != null) {
+        return found;
+      }
+    }
+    return null;
+  }
+
+  private static void appendPath(ArgumentNode node, StringBuilder path) {
+    ArgumentNode parent = node.getParent();
+    if (parent != null) {
+      appendPath(parent, path);
+      path.append(' ');
+    }
+    if (node.isLiteral()) {
+      path.append(node.getName());
+    } else {
+      path.append('<').append(node.getName()).append('>');
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package com.mrivanplays.commandworker.core.metrics;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the metrics of a single registered command: latency histograms of parsing its
+ * arguments, checking its permission, completing it and executing it, along with counters of its
+ * invocations, errors, denials, rejections and completions.
+ *
+ * <p>The metrics are opt-in, through {@link
+ * com.mrivanplays.commandworker.core.CommandManager#setMetricsEnabled(boolean)}. The platforms
+ * time every phase as <code>start()</code> followed by the matching <code>record</code> method,
+ * and while the metrics are disabled, {@link #start()} returns 0 without reading the clock, which
+ * makes the <code>record</code> methods return right away. Recording is lock-free and does not
+ * allocate, the invocations and completions are the counts of the matching histograms, so timing a
+ * phase costs two reads of the clock and a single atomic increment.
+ *
+ * @see com.mrivanplays.commandworker.core.RegisteredCommand#getMetrics()
+ * @see CommandMetricsMBeans
+ */
+public final class CommandMetrics implements CommandMetricsMXBean {
+
+  private final String name;
+  private volatile boolean enabled;
+
+  private final LatencyHistogram parse = new LatencyHistogram();
+  private final LatencyHistogram permissionCheck = new LatencyHistogram();
+  private final LatencyHistogram suggest = new LatencyHistogram();
+  private final LatencyHistogram execute = new LatencyHistogram();
+
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder denials = new LongAdder();
+  private final LongAdder rejections = new LongAdder();
+
+  public CommandMetrics(@NotNull String name) {
+    this.name = Objects.requireNonNull(name, "name");
+  }
+
+  @Override
+  @NotNull
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Sets whether or not the metrics are being recorded.
+   *
+   * @param enabled value
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns the start time of a phase, which is handed to the matching <code>record</code> method
+   * once the phase ends, or 0 if the metrics are disabled.
+   *
+   * @return start time
+   */
+  public long start() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the arguments of the command being parsed since the specified start time.
+   *
+   * @param start start time
+   */
+  public void recordParse(long start) {
+    if (start != 0) {
+      parse.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Records the arguments of the command being parsed for the specified amount of nanoseconds, for
+   * parsing which is split across multiple steps, such as the {@link
+   * com.mrivanplays.commandworker.core.argument.parser.ParseMode#LAZY lazy} one.
+   *
+   * @param nanos parse time, in nanoseconds
+   */
+  public void recordParseNanos(long nanos) {
+    if (enabled) {
+      parse.record(nanos);
+    }
+  }
+
+  /**
+   * Records the permission of the command being checked since the specified start time.
+   *
+   * @param start start time
+   * @param allowed whether or not the check passed
+   */
+  public void recordPermissionCheck(long start, boolean allowed) {
+    if (start != 0) {
+      permissionCheck.record(System.nanoTime() - start);
+      if (!allowed) {
+        denials.increment();
+      }
+    }
+  }
+
+  /**
+   * Records the command being completed since the specified start time.
+   *
+   * @param start start time
+   */
+  public void recordSuggest(long start) {
+    if (start != 0) {
+      suggest.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Records the command being completed since the specified start time, once the specified future
+   * of the completions completes.
+   *
+   * @param start start time
+   * @param future future of the completions
+   * @param <T> the type of the completions
+   * @return the specified future
+   */
+  @NotNull
+  public <T> CompletableFuture<T> recordSuggest(long start, @NotNull CompletableFuture<T> future) {
+    if (start != 0) {
+      future.whenComplete((result, error) -> recordSuggest(start));
+    }
+    return future;
+  }
+
+  /**
+   * Records the command being executed since the specified start time.
+   *
+   * @param start start time
+   * @param failed whether or not the execution failed
+   */
+  public void recordExecute(long start, boolean failed) {
+    if (start != 0) {
+      execute.record(System.nanoTime() - start);
+      if (failed) {
+        errors.increment();
+      }
+    }
+  }
+
+  /**
+   * Records an execution of the command being rejected by a rate limiter, a bulkhead or a
+   * saturated executor.
+   */
+  public void recordRejection() {
+    if (enabled) {
+      rejections.increment();
+    }
+  }
+
+  @Override
+  public long getInvocations() {
+    return execute.getCount();
+  }
+
+  @Override
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Brigadier checks the permissions of the commands also when sending them to the players and
+   * when completing them, which are counted too.
+   *
+   * @return denials
+   */
+  @Override
+  public long getDenials() {
+    return denials.sum();
+  }
+
+  @Override
+  public long getRejections() {
+    return rejections.sum();
+  }
+
+  @Override
+  public long getCompletions() {
+    return suggest.getCount();
+  }
+
+  @Override
+  @NotNull
+  public LatencySnapshot getParseLatency() {
+    return parse.snapshot();
+  }
+
+  @Override
+  @NotNull
+  public LatencySnapshot getPermissionCheckLatency() {
+    return permissionCheck.snapshot();
+  }
+
+  @Override
+  @NotNull
+  public LatencySnapshot getSuggestLatency() {
+    return suggest.snapshot();
+  }
+
+  @Override
+  @NotNull
+  public LatencySnapshot getExecuteLatency() {
+    return execute.snapshot();
+  }
+
+  @Override
+  public void reset() {
+    parse.reset();
+    permissionCheck.reset();
+    suggest.reset();
+    execute.reset();
+    errors.reset();
+    denials.reset();
+    rejections.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "CommandMetrics(name="
+        + name
+        + ", enabled="
+        + enabled
+        + ", invocations="
+        + getInvocations()
+        + ", errors="
+        + errors.sum()
+        + ", denials="
+        + denials.sum()
+        + ", rejections="
+        + rejections.sum()
+        + ", completions="
+        + getCompletions()
+        + ")";
+  }
+}
@@ -0,0 +1,75 @@
+package com.mrivanplays.commandworker.core.metrics;
+
+import com.mrivanplays.commandworker.core.RegisteredCommand;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registers the {@link CommandMetrics} of commands as MBeans of the platform MBean server, named
+ * <code>&lt;domain&gt;:type=CommandMetrics,name=&lt;command name&gt;</code>, so they can be read
+ * through JMX, such as with JConsole or Java Mission Control.
+ */
+public final class CommandMetricsMBeans {
+
+  private CommandMetricsMBeans() {}
+
+  /**
+   * Registers the metrics of the specified commands under the specified domain, such as the name
+   * of the plugin. MBeans already registered under the same names are replaced.
+   *
+   * @param domain domain
+   * @param commands commands
+   * @return unmodifiable list of the names of the registered MBeans
+   */
+  @NotNull
+  public static List<ObjectName> register(
+      @NotNull String domain, @NotNull Iterable<? extends RegisteredCommand<?>> commands) {
+    Objects.requireNonNull(domain, "domain");
+    Objects.requireNonNull(commands, "commands");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    List<ObjectName> names = new ArrayList<>();
+    try {
+      for (RegisteredCommand<?> command : commands) {
+        CommandMetrics metrics = command.getMetrics();
+        ObjectName name =
+            new ObjectName(
+                domain + ":type=CommandMetrics,name=" + ObjectName.quote(metrics.getName()));
+        if (server.isRegistered(name)) {
+          server.unregisterMBean(name);
+        }
+        server.registerMBean(metrics, name);
+        names.add(name);
+      }
+    } catch (JMException e) {
+      throw new IllegalStateException("Could not register the metrics MBeans", e);
+    }
+    return Collections.unmodifiableList(names);
+  }
+
+  /**
+   * Unregisters the MBeans with the specified names, which were returned by {@link
+   * #register(String, Iterable)}.
+   *
+   * @param names names
+   */
+  public static void unregister(@NotNull Iterable<ObjectName> names) {
+    Objects.requireNonNull(names, "names");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      for (ObjectName name : names) {
+        if (server.isRegistered(name)) {
+          server.unregisterMBean(name);
+        }
+      }
+    } catch (JMException e) {
+      throw new IllegalStateException("Could not unregister the metrics MBeans", e);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.mrivanplays.commandworker.core.metrics;
+
+/**
+ * Represents the JMX management interface of the {@link CommandMetrics} of a single command.
+ *
+ * @see CommandMetricsMBeans
+ */
+public interface CommandMetricsMXBean {
+
+  /**
+   * Returns the name of the command.
+   *
+   * @return name
+   */
+  String getName();
+
+  /**
+   * Returns whether or not the metrics are being recorded.
+   *
+   * @return <code>true</code> if enabled, <code>false</code> otherwise
+   */
+  boolean isEnabled();
+
+  /**
+   * Returns the amount of executions of the command.
+   *
+   * @return invocations
+   */
+  long getInvocations();
+
+  /**
+   * Returns the amount of executions of the command which failed, with a syntax exception or any
+   * other exception.
+   *
+   * @return errors
+   */
+  long getErrors();
+
+  /**
+   * Returns the amount of permission checks of the command which failed.
+   *
+   * @return denials
+   */
+  long getDenials();
+
+  /**
+   * Returns the amount of executions of the command rejected by its rate limiters, its bulkhead
+   * or a saturated executor.
+   *
+   * @return rejections
+   */
+  long getRejections();
+
+  /**
+   * Returns the amount of times the command was completed.
+   *
+   * @return completions
+   */
+  long getCompletions();
+
+  /**
+   * Returns the latencies of parsing the arguments of the command, including the arguments whose
+   * parsing was deferred until the command requested them.
+   *
+   * @return parse latencies
+   */
+  LatencySnapshot getParseLatency();
+
+  /**
+   * Returns the latencies of the permission checks of the command.
+   *
+   * @return permission check latencies
+   */
+  LatencySnapshot getPermissionCheckLatency();
+
+  /**
+   * Returns the latencies of completing the command.
+   *
+   * @return suggest latencies
+   */
+  LatencySnapshot getSuggestLatency();
+
+  /**
+   * Returns the latencies of the executions of the command, until the future of an async command
+   * completes.
+   *
+   * @return execute latencies
+   */
+  LatencySnapshot getExecuteLatency();
+
+  /** Forgets everything recorded so far. */
+  void reset();
+}
@@ -0,0 +1,140 @@
+package com.mrivanplays.commandworker.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// the only class referencing jdk.jfr, which is loaded by CommandEvents once it's known to exist
+final class JfrCommandEvents {
+
+  private JfrCommandEvents() {}
+
+  static boolean install() {
+    if (!FlightRecorder.isAvailable()) {
+      return false;
+    }
+    FlightRecorder.addListener(
+        new FlightRecorderListener() {
+          @Override
+          public void recorderInitialized(FlightRecorder recorder) {
+            update(recorder);
+          }
+
+          @Override
+          public void recordingStateChanged(Recording recording) {
+            update(FlightRecorder.getFlightRecorder());
+          }
+        });
+    return true;
+  }
+
+  private static void update(FlightRecorder recorder) {
+    boolean recording = false;
+    for (Recording running : recorder.getRecordings()) {
+      if (running.getState() == RecordingState.RUNNING) {
+        recording = true;
+        break;
+      }
+    }
+    CommandEvents.setEnabled(recording);
+  }
+
+  static CommandEvent parse() {
+    Parse event = new Parse();
+    event.begin();
+    return event;
+  }
+
+  static CommandEvent execute() {
+    Execute event = new Execute();
+    event.begin();
+    return event;
+  }
+
+  static CommandEvent suggest() {
+    Suggest event = new Suggest();
+    event.begin();
+    return event;
+  }
+
+  static CommandEvent permissionCheck() {
+    PermissionCheck event = new PermissionCheck();
+    event.begin();
+    return event;
+  }
+
+  @Category("CommandWorker")
+  @StackTrace(false)
+  abstract static class PhaseEvent extends Event implements CommandEvent {
+
+    @Label("Alias")
+    @Description("The alias of the command, or its name if not known")
+    String alias;
+
+    @Label("Sender Type")
+    Class<?> senderType;
+
+    @Override
+    public void commit(
+        @Nullable String alias,
+        @NotNull String nodePath,
+        @Nullable Object sender,
+        int inputLength) {
+      commit(alias, sender);
+    }
+
+    @Override
+    public void commit(@Nullable String alias, @Nullable Object sender) {
+      this.alias = alias;
+      this.senderType = sender != null ? sender.getClass() : null;
+      commit();
+    }
+  }
+
+  // the events of the phases parsing or completing an input
+  abstract static class InputPhaseEvent extends PhaseEvent {
+
+    @Label("Node Path")
+    @Description("The path of the argument node the phase reached")
+    String nodePath;
+
+    @Label("Input Length")
+    int inputLength;
+
+    @Override
+    public void commit(
+        @Nullable String alias,
+        @NotNull String nodePath,
+        @Nullable Object sender,
+        int inputLength) {
+      this.nodePath = nodePath;
+      this.inputLength = inputLength;
+      commit(alias, sender);
+    }
+  }
+
+  @Name("com.mrivanplays.commandworker.CommandParse")
+  @Label("Command Parse")
+  static final class Parse extends InputPhaseEvent {}
+
+  @Name("com.mrivanplays.commandworker.CommandExecute")
+  @Label("Command Execute")
+  static final class Execute extends InputPhaseEvent {}
+
+  @Name("com.mrivanplays.commandworker.CommandSuggest")
+  @Label("Command Suggest")
+  static final class Suggest extends InputPhaseEvent {}
+
+  @Name("com.mrivanplays.commandworker.CommandPermissionCheck")
+  @Label("Command Permission Check")
+  static final class PermissionCheck extends PhaseEvent {}
+}
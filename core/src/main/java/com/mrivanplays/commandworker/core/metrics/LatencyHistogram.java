@@ -0,0 +1,165 @@
+package com.mrivanplays.commandworker.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a histogram of latencies, in nanoseconds, laid out the way HdrHistogram lays out its
+ * buckets: every power of two is split into {@value #SUB_BUCKETS} equally wide buckets, so every
+ * recorded value is within 12.5% of the bucket it's counted in, and the whole range of a <code>
+ * long</code> fits in a fixed array of a few hundred counters.
+ *
+ * <p>Recording a value only increments a counter of the array, without any locking or allocation,
+ * so it can be called from any thread while the histogram is read. Everything else, such as the
+ * count and the mean, is computed out of the counters when the histogram is read.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return value < 0 ? 0 : (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  // returns the lowest value counted in the specified bucket
+  static long lowestValueOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+  }
+
+  // returns the highest value counted in the specified bucket
+  static long highestValueOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    return lowestValueOf(bucket) + (1L << (bucket / SUB_BUCKETS - 1)) - 1;
+  }
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records the specified latency.
+   *
+   * @param nanos latency in nanoseconds
+   */
+  public void record(long nanos) {
+    counts.incrementAndGet(bucketOf(nanos));
+    long currentMax;
+    while (nanos > (currentMax = max.get()) && !max.compareAndSet(currentMax, nanos)) {
+      // another thread raised the max, compared again
+    }
+  }
+
+  /**
+   * Returns the amount of recorded latencies.
+   *
+   * @return count
+   */
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the latency, in nanoseconds, which the specified percentage of the recorded latencies
+   * are lower than or equal to, within the precision of the buckets.
+   *
+   * @param percentile percentile, between 0 and 100
+   * @return latency in nanoseconds, or 0 if nothing was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    long[] snapshot = copyCounts();
+    return valueAtPercentile(snapshot, sum(snapshot), percentile);
+  }
+
+  /**
+   * Returns a snapshot of this histogram. The mean is computed out of the middle values of the
+   * buckets, so it's within the precision of the buckets too.
+   *
+   * @return snapshot
+   */
+  @NotNull
+  public LatencySnapshot snapshot() {
+    long[] snapshot = copyCounts();
+    long count = sum(snapshot);
+    double mean = 0;
+    if (count != 0) {
+      for (int i = 0; i < BUCKETS; i++) {
+        if (snapshot[i] != 0) {
+          long middle = lowestValueOf(i) + (highestValueOf(i) - lowestValueOf(i)) / 2;
+          mean += (double) middle * snapshot[i] / count;
+        }
+      }
+    }
+    return new LatencySnapshot(
+        count,
+        mean,
+        valueAtPercentile(snapshot, count, 50),
+        valueAtPercentile(snapshot, count, 90),
+        valueAtPercentile(snapshot, count, 99),
+        valueAtPercentile(snapshot, count, 99.9),
+        max.get());
+  }
+
+  private long[] copyCounts() {
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+    }
+    return snapshot;
+  }
+
+  private static long sum(long[] snapshot) {
+    long sum = 0;
+    for (long count : snapshot) {
+      sum += count;
+    }
+    return sum;
+  }
+
+  private long valueAtPercentile(long[] snapshot, long count, double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile should be between 0 and 100");
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(highestValueOf(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /** Forgets every recorded latency. */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts.set(i, 0);
+    }
+    max.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return "LatencyHistogram(count=" + getCount() + ", max=" + max.get() + ")";
+  }
+}
@@ -0,0 +1,109 @@
+package com.mrivanplays.commandworker.core.metrics;
+
+/**
+ * Represents a snapshot of a {@link LatencyHistogram}. All the latencies are in nanoseconds.
+ *
+ * <p>This is exposed through JMX as composite data, with an item for every getter.
+ */
+public final class LatencySnapshot {
+
+  private final long count;
+  private final double mean;
+  private final long p50;
+  private final long p90;
+  private final long p99;
+  private final long p999;
+  private final long max;
+
+  LatencySnapshot(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+    this.count = count;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.p999 = p999;
+    this.max = max;
+  }
+
+  /**
+   * Returns the amount of recorded latencies.
+   *
+   * @return count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the mean of the recorded latencies.
+   *
+   * @return mean
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * Returns the median of the recorded latencies.
+   *
+   * @return 50th percentile
+   */
+  public long getP50() {
+    return p50;
+  }
+
+  /**
+   * Returns the 90th percentile of the recorded latencies.
+   *
+   * @return 90th percentile
+   */
+  public long getP90() {
+    return p90;
+  }
+
+  /**
+   * Returns the 99th percentile of the recorded latencies.
+   *
+   * @return 99th percentile
+   */
+  public long getP99() {
+    return p99;
+  }
+
+  /**
+   * Returns the 99.9th percentile of the recorded latencies.
+   *
+   * @return 99.9th percentile
+   */
+  public long getP999() {
+    return p999;
+  }
+
+  /**
+   * Returns the highest recorded latency.
+   *
+   * @return max
+   */
+  public long getMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "LatencySnapshot(count="
+        + count
+        + ", mean="
+        + mean
+        + ", p50="
+        + p50
+        + ", p90="
+        + p90
+        + ", p99="
+        + p99
+        + ", p999="
+        + p999
+        + ", max="
+        + max
+        + ")";
+  }
+}
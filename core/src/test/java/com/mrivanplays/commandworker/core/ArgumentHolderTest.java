@@ -1,10 +1,21 @@
 package com.mrivanplays.commandworker.core;
 
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.argument.LiteralArgument;
 import com.mrivanplays.commandworker.core.argument.RequiredArgument;
 import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.IndexRange;
+import com.mrivanplays.commandworker.core.argument.parser.ParseError;
+import com.mrivanplays.commandworker.core.argument.parser.ParseFailure;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -44,4 +55,287 @@ public class ArgumentHolderTest {
 
     Assert.assertTrue(holder.isTyped("myint"));
   }
+
+  @Test
+  public void testPathDirectedFollowsTypedBranch() throws CommandSyntaxException {
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(
+                LiteralArgument.literal("give")
+                    .then(
+                        RequiredArgument.argument("player", StringArgumentType.word())
+                            .then(
+                                RequiredArgument.argument(
+                                    "amount", IntegerArgumentType.integer()))))
+            .argument(
+                LiteralArgument.literal("reset")
+                    .then(RequiredArgument.argument("target", IntegerArgumentType.integer())));
+
+    ArgumentHolder holder =
+        new ArgumentHolder("give MrIvanPlays 10", structure, ParseMode.PATH_DIRECTED);
+
+    Assert.assertFalse(holder.isTyped("target"));
+    Assert.assertEquals("MrIvanPlays", holder.getRawRequiredArgument("player"));
+    Assert.assertEquals(Integer.valueOf(10), holder.getRequiredArgument("amount", int.class));
+    Assert.assertEquals("amount", holder.getLastArgument().getName());
+    Assert.assertEquals(2, holder.getArgumentIndex("amount").getIndex());
+  }
+
+  @Test
+  public void testPathDirectedStopsAtFailure() {
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(
+                LiteralArgument.literal("give")
+                    .then(
+                        RequiredArgument.argument("amount", IntegerArgumentType.integer())
+                            .then(
+                                RequiredArgument.argument(
+                                    "message", StringArgumentType.greedyString()))));
+
+    ArgumentHolder literalOnly = new ArgumentHolder("give", structure, ParseMode.PATH_DIRECTED);
+    Assert.assertEquals("give", literalOnly.getLastArgument().getName());
+
+    ArgumentHolder holder =
+        new ArgumentHolder("give abc hello", structure, ParseMode.PATH_DIRECTED);
+    Assert.assertTrue(holder.isTyped("amount"));
+    Assert.assertFalse(holder.isTyped("message"));
+    Assert.assertEquals("amount", holder.getLastArgument().getName());
+  }
+
+  @Test
+  public void testArgumentKeys() throws CommandSyntaxException {
+    RequiredArgument<Integer> amount =
+        RequiredArgument.argument("amount", IntegerArgumentType.integer());
+    RequiredArgument<String> message =
+        RequiredArgument.argument("message", StringArgumentType.greedyString());
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(LiteralArgument.literal("pay").then(amount.then(message)))
+            .freeze();
+
+    Assert.assertEquals(0, amount.key().getSlot());
+    Assert.assertEquals(1, message.key().getSlot());
+
+    ArgumentHolder holder =
+        new ArgumentHolder("pay 5 for the pizza", structure, ParseMode.PATH_DIRECTED);
+    Assert.assertEquals(Integer.valueOf(5), holder.getRequiredArgument(amount.key()));
+    Assert.assertEquals("for the pizza", holder.getRequiredArgument(message.key()));
+    Assert.assertArrayEquals(new String[] {"5", "for the pizza"}, holder.getRawArgs());
+  }
+
+  @Test
+  public void testSharedArgumentKeys() throws CommandSyntaxException {
+    RequiredArgument<String> player =
+        RequiredArgument.argument("player", StringArgumentType.word());
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(LiteralArgument.literal("give").then(player))
+            .argument(LiteralArgument.literal("take").then(player))
+            .freeze();
+
+    for (ParseMode mode : new ParseMode[] {ParseMode.PATH_DIRECTED, ParseMode.LAZY}) {
+      ArgumentHolder take = new ArgumentHolder("take Notch", structure, mode);
+      Assert.assertTrue(take.isTyped(player.key()));
+      Assert.assertEquals("Notch", take.getRequiredArgument(player.key()));
+      Assert.assertEquals("Notch", take.getRawRequiredArgument(player.key()));
+
+      ArgumentHolder give = new ArgumentHolder("give jeb_", structure, mode);
+      Assert.assertEquals("jeb_", give.getRequiredArgument(player.key()));
+
+      Assert.assertFalse(new ArgumentHolder("take", structure, mode).isTyped(player.key()));
+    }
+  }
+
+  @Test
+  public void testLazyParsing() throws CommandSyntaxException {
+    int[] parses = new int[1];
+    RequiredArgument<Integer> amount =
+        RequiredArgument.argument("amount", IntegerArgumentType.integer());
+    RequiredArgument<String> reason =
+        RequiredArgument.argument(
+            "reason",
+            reader -> {
+              parses[0]++;
+              String remaining = reader.getRemaining();
+              reader.setCursor(reader.getTotalLength());
+              return remaining;
+            });
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(LiteralArgument.literal("pay").then(amount.then(reason)))
+            .freeze();
+
+    ArgumentHolder holder = new ArgumentHolder("pay 5 for the pizza", structure, ParseMode.LAZY);
+    Assert.assertEquals(2, holder.size());
+    Assert.assertTrue(holder.isTyped(reason.key()));
+    Assert.assertEquals(reason, holder.getLastArgument());
+    Assert.assertEquals(0, parses[0]);
+
+    Assert.assertEquals("for the pizza", holder.getRequiredArgument(reason.key()));
+    Assert.assertEquals("for the pizza", holder.getRequiredArgument(reason.key()));
+    Assert.assertEquals(1, parses[0]);
+    Assert.assertEquals(Integer.valueOf(5), holder.getRequiredArgument(amount.key()));
+
+    ArgumentHolder invalid = new ArgumentHolder("pay 5x", structure, ParseMode.LAZY);
+    Assert.assertTrue(invalid.isTyped(amount.key()));
+    Assert.assertThrows(
+        CommandSyntaxException.class, () -> invalid.getRequiredArgument(amount.key()));
+  }
+
+  @Test
+  public void testSplitArguments() throws CommandSyntaxException {
+    RequiredArgument<Integer> amount =
+        RequiredArgument.argument("amount", IntegerArgumentType.integer());
+    RequiredArgument<String> message =
+        RequiredArgument.argument("message", StringArgumentType.greedyString());
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(LiteralArgument.literal("pay").then(amount.then(message)))
+            .freeze();
+
+    ArgumentHolder holder =
+        new ArgumentHolder(
+            new String[] {"pay", "5", "for", "", "pizza"}, structure, ParseMode.PATH_DIRECTED);
+    Assert.assertEquals("pay 5 for  pizza", holder.getInput());
+    Assert.assertEquals(Integer.valueOf(5), holder.getRequiredArgument(amount.key()));
+    Assert.assertEquals("for  pizza", holder.getRawRequiredArgument(message.key()));
+
+    IndexRange range = holder.getArgumentIndex(message.key());
+    Assert.assertTrue(range.isRange());
+    Assert.assertEquals(2, range.getStart());
+    Assert.assertEquals(3, range.getEnd());
+  }
+
+  @Test
+  public void testPrimitiveAccessors() throws CommandSyntaxException {
+    RequiredArgument<Integer> amount =
+        RequiredArgument.argument("amount", IntegerArgumentType.integer(0, 100));
+    RequiredArgument<Double> x = RequiredArgument.argument("x", DoubleArgumentType.doubleArg());
+    RequiredArgument<Boolean> silent = RequiredArgument.argument("silent", BoolArgumentType.bool());
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(LiteralArgument.literal("give").then(amount.then(x.then(silent))))
+            .freeze();
+
+    ArgumentHolder holder =
+        new ArgumentHolder("give 64 -12.75 true", structure, ParseMode.PATH_DIRECTED);
+    Assert.assertEquals(64, holder.getInt(amount.key()));
+    Assert.assertEquals(64L, holder.getLong("amount"));
+    Assert.assertEquals(-12.75, holder.getDouble(x.key()), 0);
+    Assert.assertTrue(holder.getBoolean("silent"));
+    Assert.assertEquals(Integer.valueOf(64), holder.getRequiredArgument("amount", int.class));
+    Assert.assertEquals("-12.75", holder.getRawRequiredArgument(x.key()));
+
+    ArgumentHolder outOfBounds = new ArgumentHolder("give 101", structure, ParseMode.LAZY);
+    Assert.assertThrows(CommandSyntaxException.class, () -> outOfBounds.getInt(amount.key()));
+    Assert.assertThrows(IllegalArgumentException.class, () -> outOfBounds.getDouble(x.key()));
+  }
+
+  @Test
+  public void testParseFailures() throws CommandSyntaxException {
+    IntegerArgumentType type = IntegerArgumentType.integer(0, 100);
+    RequiredArgument<Integer> amount = RequiredArgument.argument("amount", type);
+    LiteralNode structure =
+        LiteralNode.node().argument(LiteralArgument.literal("give").then(amount)).freeze();
+
+    ArgumentHolder holder = new ArgumentHolder("give 101", structure, ParseMode.PATH_DIRECTED);
+    ParseFailure failure = holder.getFailure(amount.key());
+    Assert.assertNotNull(failure);
+    Assert.assertEquals(ParseError.INTEGER_TOO_HIGH, failure.getError());
+    Assert.assertEquals(5, failure.getCursor());
+
+    StringReader reader = new StringReader("give 101");
+    reader.setCursor(5);
+    CommandSyntaxException expected =
+        Assert.assertThrows(CommandSyntaxException.class, () -> type.parse(reader));
+    Assert.assertEquals(expected.getMessage(), failure.getMessage());
+    CommandSyntaxException thrown =
+        Assert.assertThrows(CommandSyntaxException.class, () -> holder.getInt(amount.key()));
+    Assert.assertEquals(expected.getMessage(), thrown.getMessage());
+
+    holder.reset("give 12a");
+    ParseFailure separator = holder.getFailure("amount");
+    Assert.assertEquals(ParseError.EXPECTED_ARGUMENT_SEPARATOR, separator.getError());
+    Assert.assertEquals(7, separator.getCursor());
+    holder.reset("give 12");
+    Assert.assertNull(holder.getFailure(amount.key()));
+  }
+
+  @Test
+  public void testResetAndSnapshot() throws CommandSyntaxException {
+    RequiredArgument<Integer> amount =
+        RequiredArgument.argument("amount", IntegerArgumentType.integer());
+    LiteralNode structure =
+        LiteralNode.node().argument(LiteralArgument.literal("pay").then(amount)).freeze();
+    ArgumentHolderPool pool = structure.getArgumentHolderPool();
+
+    ArgumentHolder holder = pool.acquire("pay 5", ParseMode.PATH_DIRECTED);
+    ArgumentHolder snapshot = holder.snapshot();
+    Assert.assertNotSame(holder, pool.acquire("pay 6", ParseMode.PATH_DIRECTED));
+    pool.release(holder);
+
+    Assert.assertSame(holder, pool.acquire("pay 7", ParseMode.PATH_DIRECTED));
+    Assert.assertEquals(7, holder.getInt(amount.key()));
+    Assert.assertEquals(5, snapshot.getInt(amount.key()));
+    Assert.assertEquals("5", snapshot.getRawRequiredArgument("amount"));
+    pool.release(holder);
+
+    Assert.assertFalse(pool.acquire("pay", ParseMode.PATH_DIRECTED).isTyped(amount.key()));
+  }
+
+  @Test
+  public void testPooledDispatchDoesNotAllocate() throws CommandSyntaxException {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return;
+    }
+    com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+    if (!allocations.isThreadAllocatedMemorySupported()) {
+      return;
+    }
+    allocations.setThreadAllocatedMemoryEnabled(true);
+
+    RequiredArgument<Integer> amount =
+        RequiredArgument.argument("amount", IntegerArgumentType.integer());
+    RequiredArgument<Boolean> silent = RequiredArgument.argument("silent", BoolArgumentType.bool());
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(LiteralArgument.literal("pay").then(amount.then(silent)))
+            .freeze();
+    ArgumentHolderPool pool = structure.getArgumentHolderPool();
+    String[] inputs = {"pay 5 true", "pay 10 false", "pay 1500 true"};
+
+    int iterations = 10_000;
+    long sum = 0;
+    for (int i = 0; i < iterations; i++) {
+      sum += dispatch(pool, inputs[i % inputs.length], amount, silent);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = allocations.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < iterations; i++) {
+      sum += dispatch(pool, inputs[i % inputs.length], amount, silent);
+    }
+    long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+    Assert.assertTrue(sum > 0);
+    Assert.assertTrue(
+        "expected near-zero garbage, but " + allocated + " bytes were allocated",
+        allocated / iterations < 8);
+  }
+
+  private static int dispatch(
+      ArgumentHolderPool pool,
+      String input,
+      RequiredArgument<Integer> amount,
+      RequiredArgument<Boolean> silent)
+      throws CommandSyntaxException {
+    ArgumentHolder holder = pool.acquire(input, ParseMode.PATH_DIRECTED);
+    try {
+      return holder.getBoolean(silent.key()) ? holder.getInt(amount.key()) : 1;
+    } finally {
+      pool.release(holder);
+    }
+  }
 }
@@ -0,0 +1,268 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.argument.RequiredArgument;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncCommandTest {
+
+  private ExecutorService executor;
+  private LocalScheduler scheduler;
+  private TestCommandManager manager;
+
+  @Before
+  public void init() {
+    executor = CommandExecutors.bounded(1, 16);
+    scheduler = new LocalScheduler();
+    manager = new TestCommandManager();
+    manager.setExecutor(executor);
+    manager.setScheduler(scheduler);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testAsyncCommand() throws Exception {
+    CountDownLatch done = new CountDownLatch(1);
+    List<String> executed = new ArrayList<>();
+    manager.register(
+        new AsyncCommand<String>() {
+          @Override
+          public @NotNull CompletableFuture<Boolean> executeAsync(
+              @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args)
+              throws CommandSyntaxException {
+            executed.add(Thread.currentThread().getName());
+            executed.add(args.getRawRequiredArgument("player"));
+            done.countDown();
+            throw syntaxException("Player not found");
+          }
+
+          @Override
+          public @NotNull LiteralNode createCommandStructure() {
+            return LiteralNode.node()
+                .argument(RequiredArgument.argument("player", StringArgumentType.word()));
+          }
+        },
+        "seen");
+    RegisteredCommand<String> command = manager.getRegisteredCommands().get(0);
+
+    ArgumentHolderPool holders = command.getCommandStructure().getArgumentHolderPool();
+    ArgumentHolder holder = holders.acquire(new String[] {"Notch"}, ParseMode.PATH_DIRECTED);
+    List<String> failures = new ArrayList<>();
+    Assert.assertTrue(
+        command.execute("console", "seen", holder, (sender, e) -> failures.add(e.getMessage())));
+    // the holder is reused right away, the command works on a snapshot of it
+    holders.release(holder);
+
+    Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+    Assert.assertTrue(executed.get(0).startsWith("CommandWorker Command Executor"));
+    Assert.assertEquals("Notch", executed.get(1));
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (scheduler.getPending() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    Assert.assertTrue(failures.isEmpty());
+    Assert.assertEquals(1, scheduler.runPending());
+    Assert.assertEquals(1, failures.size());
+    Assert.assertEquals("Player not found", failures.get(0));
+  }
+
+  @Test
+  public void testAsyncResult() throws Exception {
+    manager.setExecutor(Runnable::run);
+    manager.register(
+        new AsyncCommand<String>() {
+          @Override
+          public @NotNull CompletableFuture<Boolean> executeAsync(
+              @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args) {
+            return CompletableFuture.completedFuture(!sender.equals("console"));
+          }
+
+          @Override
+          public @NotNull LiteralNode createCommandStructure() {
+            return LiteralNode.node();
+          }
+        },
+        "home");
+    RegisteredCommand<String> command = manager.getRegisteredCommands().get(0);
+
+    ArgumentHolderPool holders = command.getCommandStructure().getArgumentHolderPool();
+    ArgumentHolder holder = holders.acquire(new String[0], ParseMode.PATH_DIRECTED);
+    List<String> results = new ArrayList<>();
+    List<String> failures = new ArrayList<>();
+    command.execute(
+        "Notch",
+        "home",
+        holder,
+        (sender, success) -> results.add(sender + "=" + success),
+        (sender, e) -> failures.add(e.getMessage()));
+    command.execute(
+        "console",
+        "home",
+        holder,
+        (sender, success) -> results.add(sender + "=" + success),
+        (sender, e) -> failures.add(e.getMessage()));
+    holders.release(holder);
+
+    // the results are handed back through the scheduler only
+    Assert.assertTrue(results.isEmpty());
+    Assert.assertEquals(2, scheduler.runPending());
+    Assert.assertEquals(Arrays.asList("Notch=true", "console=false"), results);
+    Assert.assertTrue(failures.isEmpty());
+  }
+
+  @Test
+  public void testAsyncFailureReported() throws Exception {
+    manager.setExecutor(Runnable::run);
+    manager.setScheduler(Scheduler.direct());
+    manager.register(
+        new AsyncCommand<String>() {
+          @Override
+          public @NotNull CompletableFuture<Boolean> executeAsync(
+              @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args) {
+            throw new IllegalStateException("database down");
+          }
+
+          @Override
+          public @NotNull LiteralNode createCommandStructure() {
+            return LiteralNode.node();
+          }
+        },
+        "balance");
+    RegisteredCommand<String> command = manager.getRegisteredCommands().get(0);
+
+    ArgumentHolderPool holders = command.getCommandStructure().getArgumentHolderPool();
+    ArgumentHolder holder = holders.acquire(new String[0], ParseMode.PATH_DIRECTED);
+    List<Throwable> uncaught = new ArrayList<>();
+    Thread thread = Thread.currentThread();
+    Thread.UncaughtExceptionHandler previous = thread.getUncaughtExceptionHandler();
+    thread.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+    try {
+      command.execute("Notch", "balance", holder, (sender, e) -> Assert.fail(e.getMessage()));
+    } finally {
+      thread.setUncaughtExceptionHandler(previous);
+      holders.release(holder);
+    }
+    Assert.assertEquals(1, uncaught.size());
+    Assert.assertEquals("database down", uncaught.get(0).getMessage());
+  }
+
+  @Test
+  public void testExecutorSaturated() throws Exception {
+    manager.setExecutor(
+        task -> {
+          throw new RejectedExecutionException();
+        });
+    manager.setMetricsEnabled(true);
+    manager.register(
+        new AsyncCommand<String>() {
+          @Override
+          public @NotNull CompletableFuture<Boolean> executeAsync(
+              @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args) {
+            return CompletableFuture.completedFuture(true);
+          }
+
+          @Override
+          public @NotNull LiteralNode createCommandStructure() {
+            return LiteralNode.node();
+          }
+        },
+        "backup");
+    RegisteredCommand<String> command = manager.getRegisteredCommands().get(0);
+
+    ArgumentHolderPool holders = command.getCommandStructure().getArgumentHolderPool();
+    ArgumentHolder holder = holders.acquire(new String[0], ParseMode.PATH_DIRECTED);
+    try {
+      command.execute("Notch", "backup", holder, (sender, e) -> Assert.fail(e.getMessage()));
+      Assert.fail("executor did not reject");
+    } catch (CommandSyntaxException e) {
+      Assert.assertEquals(Bulkhead.DEFAULT_REJECT_MESSAGE, e.getMessage());
+    } finally {
+      holders.release(holder);
+    }
+    Assert.assertEquals(1, command.getMetrics().getRejections());
+  }
+
+  @Test
+  public void testBulkhead() throws Exception {
+    manager.setExecutor(Runnable::run);
+    Bulkhead bulkhead = Bulkhead.create(1, 1).limitPerSender(2).rejectMessage("Busy");
+    List<CompletableFuture<Boolean>> running = new ArrayList<>();
+    manager.register(
+        new AsyncCommand<String>() {
+          @Override
+          public @NotNull CompletableFuture<Boolean> executeAsync(
+              @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args) {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            running.add(future);
+            return future;
+          }
+
+          @Override
+          public Bulkhead getBulkhead() {
+            return bulkhead;
+          }
+
+          @Override
+          public @NotNull LiteralNode createCommandStructure() {
+            return LiteralNode.node();
+          }
+        },
+        "backup");
+    RegisteredCommand<String> command = manager.getRegisteredCommands().get(0);
+    Assert.assertSame(bulkhead, command.getBulkhead());
+
+    ArgumentHolderPool holders = command.getCommandStructure().getArgumentHolderPool();
+    ArgumentHolder holder = holders.acquire(new String[0], ParseMode.PATH_DIRECTED);
+    List<String> failures = new ArrayList<>();
+    command.execute("a", "backup", holder, (sender, e) -> failures.add(e.getMessage()));
+    command.execute("a", "backup", holder, (sender, e) -> failures.add(e.getMessage()));
+    Assert.assertEquals(1, running.size());
+    Assert.assertEquals(1, bulkhead.getRunning());
+    Assert.assertEquals(1, bulkhead.getQueued());
+
+    try {
+      command.execute("a", "backup", holder, (sender, e) -> failures.add(e.getMessage()));
+      Assert.fail("sender limit not reached");
+    } catch (CommandSyntaxException e) {
+      Assert.assertEquals("Busy", e.getMessage());
+    }
+    try {
+      command.execute("b", "backup", holder, (sender, e) -> failures.add(e.getMessage()));
+      Assert.fail("queue not full");
+    } catch (CommandSyntaxException e) {
+      Assert.assertEquals("Busy", e.getMessage());
+    }
+    Assert.assertEquals(1, bulkhead.getRejectedPerSender());
+    Assert.assertEquals(1, bulkhead.getRejectedQueueFull());
+
+    running.get(0).complete(true);
+    Assert.assertEquals(2, running.size());
+    Assert.assertEquals(1, bulkhead.getRunning());
+    Assert.assertEquals(0, bulkhead.getQueued());
+    running.get(1).complete(true);
+    Assert.assertEquals(0, bulkhead.getRunning());
+    Assert.assertTrue(failures.isEmpty());
+    holders.release(holder);
+  }
+}
@@ -0,0 +1,118 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BulkheadTest {
+
+  private static final Executor DIRECT = Runnable::run;
+
+  private final List<CompletableFuture<Boolean>> running = new ArrayList<>();
+
+  private CompletableFuture<Boolean> task() {
+    CompletableFuture<Boolean> future = new CompletableFuture<>();
+    running.add(future);
+    return future;
+  }
+
+  @Test
+  public void testQueueFull() throws CommandSyntaxException {
+    Bulkhead bulkhead = Bulkhead.create(1, 1).rejectMessage("Busy");
+    bulkhead.execute("a", DIRECT, this::task);
+    bulkhead.execute("b", DIRECT, this::task);
+    Assert.assertEquals(1, bulkhead.getRunning());
+    Assert.assertEquals(1, bulkhead.getQueued());
+
+    CommandSyntaxException e =
+        Assert.assertThrows(
+            CommandSyntaxException.class, () -> bulkhead.execute("c", DIRECT, this::task));
+    Assert.assertEquals("Busy", e.getMessage());
+    Assert.assertEquals(1, bulkhead.getRejectedQueueFull());
+    Assert.assertEquals(1, bulkhead.getQueued());
+    Assert.assertEquals(1, running.size());
+  }
+
+  @Test
+  public void testSenderLimit() throws CommandSyntaxException {
+    Bulkhead bulkhead = Bulkhead.create(1, 5).limitPerSender(2);
+    bulkhead.execute("a", DIRECT, this::task);
+    bulkhead.execute("a", DIRECT, this::task);
+    Assert.assertThrows(
+        CommandSyntaxException.class, () -> bulkhead.execute("a", DIRECT, this::task));
+    Assert.assertEquals(1, bulkhead.getRejectedPerSender());
+    // other senders have limits of their own
+    bulkhead.execute("b", DIRECT, this::task);
+    Assert.assertEquals(2, bulkhead.getQueued());
+
+    // a completed execution makes room for the next one of the sender
+    running.get(0).complete(true);
+    bulkhead.execute("a", DIRECT, this::task);
+    Assert.assertEquals(2, bulkhead.getQueued());
+  }
+
+  @Test
+  public void testQueueDrained() throws Exception {
+    Bulkhead bulkhead = Bulkhead.create(2, 2);
+    CompletableFuture<Boolean> first = bulkhead.execute("a", DIRECT, this::task);
+    bulkhead.execute("b", DIRECT, this::task);
+    CompletableFuture<Boolean> third = bulkhead.execute("c", DIRECT, this::task);
+    bulkhead.execute("d", DIRECT, this::task);
+    Assert.assertEquals(2, running.size());
+    Assert.assertEquals(2, bulkhead.getQueued());
+
+    running.get(0).complete(true);
+    Assert.assertTrue(first.get());
+    Assert.assertEquals(3, running.size());
+    Assert.assertEquals(2, bulkhead.getRunning());
+    Assert.assertEquals(1, bulkhead.getQueued());
+
+    running.get(1).completeExceptionally(new IllegalStateException());
+    Assert.assertEquals(4, running.size());
+    Assert.assertEquals(0, bulkhead.getQueued());
+
+    running.get(2).complete(false);
+    running.get(3).complete(true);
+    Assert.assertFalse(third.get());
+    Assert.assertEquals(0, bulkhead.getRunning());
+  }
+
+  @Test
+  public void testExecutorRejection() throws CommandSyntaxException {
+    Bulkhead bulkhead = Bulkhead.create(1, 1).rejectMessage("Busy");
+    Executor rejecting =
+        task -> {
+          throw new RejectedExecutionException();
+        };
+    CompletableFuture<Boolean> result = bulkhead.execute("a", rejecting, this::task);
+    Assert.assertTrue(result.isCompletedExceptionally());
+    ExecutionException e = Assert.assertThrows(ExecutionException.class, result::get);
+    Assert.assertEquals("Busy", e.getCause().getMessage());
+    Assert.assertEquals(0, bulkhead.getRunning());
+    Assert.assertEquals(1, bulkhead.getRejectedQueueFull());
+
+    // the released slot is reused
+    bulkhead.execute("a", DIRECT, this::task);
+    Assert.assertEquals(1, bulkhead.getRunning());
+    Assert.assertEquals(1, running.size());
+  }
+
+  @Test
+  public void testNullFuture() throws CommandSyntaxException {
+    Bulkhead bulkhead = Bulkhead.create(1, 1).limitPerSender(1);
+    CompletableFuture<Boolean> result = bulkhead.execute("a", DIRECT, () -> null);
+    ExecutionException e = Assert.assertThrows(ExecutionException.class, result::get);
+    Assert.assertTrue(e.getCause() instanceof NullPointerException);
+    Assert.assertEquals(0, bulkhead.getRunning());
+
+    // the sender is released as well
+    bulkhead.execute("a", DIRECT, this::task);
+    Assert.assertEquals(1, bulkhead.getRunning());
+  }
+}
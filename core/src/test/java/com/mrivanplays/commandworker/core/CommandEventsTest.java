@@ -0,0 +1,120 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.argument.LiteralArgument;
+import com.mrivanplays.commandworker.core.argument.RequiredArgument;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import com.mrivanplays.commandworker.core.metrics.CommandEvents;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class CommandEventsTest {
+
+  @Test
+  public void testEvents() throws Exception {
+    Assume.assumeTrue(CommandEvents.isAvailable());
+    TestCommandManager manager = new TestCommandManager();
+    manager.register(
+        new Command<String>() {
+          @Override
+          public boolean execute(
+              @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args)
+              throws CommandSyntaxException {
+            return true;
+          }
+
+          @Override
+          public @NotNull LiteralNode createCommandStructure() {
+            return LiteralNode.node()
+                .argument(
+                    LiteralArgument.literal("give")
+                        .then(
+                            RequiredArgument.argument("player", StringArgumentType.word())
+                                .then(
+                                    RequiredArgument.argument(
+                                        "amount", IntegerArgumentType.integer()))));
+          }
+        },
+        sender -> true,
+        "items",
+        "i");
+    RegisteredCommand<String> command = manager.getRegisteredCommands().get(0);
+    LiteralNode structure = command.getCommandStructure();
+    ArgumentHolderPool holders = structure.getArgumentHolderPool();
+
+    Path file = Files.createTempFile("commandworker", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.start();
+      Assert.assertTrue(CommandEvents.isEnabled());
+
+      ArgumentHolder holder =
+          holders.acquire("give Notch 10", ParseMode.PATH_DIRECTED, "Notch", null);
+      command.execute("Notch", "i", holder, (sender, e) -> {});
+      holders.release(holder);
+      command.hasPermission("Notch");
+      structure.completeToStringList(new String[] {"give", ""}, "Notch");
+
+      recording.stop();
+      recording.dump(file);
+    }
+    Assert.assertFalse(CommandEvents.isEnabled());
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Files.delete(file);
+    assertEvent(events, "CommandParse", "items", "give <player> <amount>", String.class, 13);
+    assertEvent(events, "CommandExecute", "i", "give <player> <amount>", String.class, 13);
+    assertEvent(events, "CommandSuggest", "items", "give", String.class, 5);
+
+    RecordedEvent permissionCheck = null;
+    for (RecordedEvent event : events) {
+      if (event
+          .getEventType()
+          .getName()
+          .equals("com.mrivanplays.commandworker.CommandPermissionCheck")) {
+        permissionCheck = event;
+      }
+    }
+    Assert.assertNotNull(permissionCheck);
+    Assert.assertEquals("items", permissionCheck.getString("alias"));
+    Assert.assertEquals(String.class.getName(), permissionCheck.getClass("senderType").getName());
+    Assert.assertFalse(permissionCheck.hasField("nodePath"));
+    Assert.assertFalse(permissionCheck.hasField("inputLength"));
+  }
+
+  private static void assertEvent(
+      List<RecordedEvent> events,
+      String name,
+      String alias,
+      String nodePath,
+      Class<?> senderType,
+      int inputLength) {
+    RecordedEvent found = null;
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals("com.mrivanplays.commandworker." + name)
+          && event.getInt("inputLength") == inputLength) {
+        found = event;
+      }
+    }
+    Assert.assertNotNull(found);
+    Assert.assertEquals(alias, found.getString("alias"));
+    Assert.assertEquals(nodePath, found.getString("nodePath"));
+    if (senderType == null) {
+      Assert.assertNull(found.getClass("senderType"));
+    } else {
+      Assert.assertEquals(senderType.getName(), found.getClass("senderType").getName());
+    }
+    Assert.assertFalse(found.getDuration().isNegative());
+  }
+}
@@ -0,0 +1,41 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CommandExceptionsTest {
+
+  @Test
+  public void testStacklessExceptions() {
+    StacklessExceptionType type = CommandExceptions.of("Player not found");
+    Assert.assertSame(type, CommandExceptions.of("Player not found"));
+
+    CommandSyntaxException exception = type.create();
+    Assert.assertEquals("Player not found", exception.getMessage());
+    Assert.assertEquals(0, exception.getStackTrace().length);
+    Assert.assertSame(exception, type.create());
+
+    CommandSyntaxException created = type.createNew();
+    Assert.assertNotSame(created, type.createNew());
+    Assert.assertNotSame(exception, created);
+    Assert.assertEquals(0, created.getStackTrace().length);
+
+    StringReader reader = new StringReader("tp MrIvanPlays");
+    reader.setCursor(3);
+    CommandSyntaxException withContext = type.createWithContext(reader);
+    Assert.assertEquals(3, withContext.getCursor());
+    Assert.assertEquals(0, withContext.getStackTrace().length);
+  }
+
+  @Test
+  public void testBuiltInTypes() {
+    Assert.assertSame(
+        CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownCommand(),
+        CommandExceptions.UNKNOWN_COMMAND.create().getType());
+    Assert.assertEquals(
+        CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownCommand().create().getMessage(),
+        CommandExceptions.UNKNOWN_COMMAND.getMessage());
+  }
+}
@@ -0,0 +1,126 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.argument.RequiredArgument;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
+import com.mrivanplays.commandworker.core.metrics.CommandMetricsMBeans;
+import com.mrivanplays.commandworker.core.metrics.LatencyHistogram;
+import com.mrivanplays.commandworker.core.metrics.LatencySnapshot;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CommandMetricsTest {
+
+  @Test
+  public void testHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000);
+    }
+    LatencySnapshot snapshot = histogram.snapshot();
+    Assert.assertEquals(1000, snapshot.getCount());
+    Assert.assertEquals(1_000_000, snapshot.getMax());
+    // every value is within the 12.5% precision of the buckets
+    Assert.assertEquals(500_500, snapshot.getMean(), 500_500 * 0.125);
+    Assert.assertTrue(snapshot.getP50() >= 500_000 && snapshot.getP50() <= 562_500);
+    Assert.assertTrue(snapshot.getP99() >= 990_000 && snapshot.getP99() <= 1_000_000);
+
+    histogram.reset();
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void testCommandMetrics() throws Exception {
+    TestCommandManager manager = new TestCommandManager();
+    manager.register(
+        new Command<String>() {
+          @Override
+          public boolean execute(
+              @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args)
+              throws CommandSyntaxException {
+            if (sender.equals("console")) {
+              throw CommandExceptions.of("Players only").create();
+            }
+            return true;
+          }
+
+          @Override
+          public @NotNull LiteralNode createCommandStructure() {
+            return LiteralNode.node();
+          }
+        },
+        sender -> !sender.equals("guest"),
+        "home");
+    RegisteredCommand<String> command = manager.getRegisteredCommands().get(0);
+    CommandMetrics metrics = command.getMetrics();
+    ArgumentHolder holder =
+        command
+            .getCommandStructure()
+            .getArgumentHolderPool()
+            .acquire(new String[0], ParseMode.PATH_DIRECTED);
+
+    // disabled by default, so nothing is recorded
+    command.execute("Notch", "home", holder, (sender, e) -> {});
+    Assert.assertEquals(0, metrics.start());
+    Assert.assertEquals(0, metrics.getInvocations());
+
+    manager.setMetricsEnabled(true);
+    command.execute("Notch", "home", holder, (sender, e) -> {});
+    try {
+      command.execute("console", "home", holder, (sender, e) -> {});
+      Assert.fail("command did not fail");
+    } catch (CommandSyntaxException expected) {
+    }
+    Assert.assertFalse(command.hasPermission("guest"));
+    Assert.assertEquals(2, metrics.getInvocations());
+    Assert.assertEquals(1, metrics.getErrors());
+    Assert.assertEquals(1, metrics.getDenials());
+    Assert.assertEquals(2, metrics.getExecuteLatency().getCount());
+    Assert.assertEquals(1, metrics.getPermissionCheckLatency().getCount());
+
+    List<ObjectName> names =
+        CommandMetricsMBeans.register("CommandWorkerTest", manager.getRegisteredCommands());
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      Assert.assertEquals(2L, server.getAttribute(names.get(0), "Invocations"));
+      CompositeData latency = (CompositeData) server.getAttribute(names.get(0), "ExecuteLatency");
+      Assert.assertEquals(2L, latency.get("count"));
+    } finally {
+      CommandMetricsMBeans.unregister(names);
+    }
+  }
+
+  @Test
+  public void testLazyParseMetrics() throws CommandSyntaxException {
+    LiteralNode structure =
+        LiteralNode.node()
+            .argument(RequiredArgument.argument("amount", IntegerArgumentType.integer()));
+    ArgumentHolderPool holders = structure.getArgumentHolderPool();
+    CommandMetrics metrics = new CommandMetrics("pay");
+
+    holders.release(holders.acquire("5", ParseMode.LAZY, "Notch", metrics));
+    Assert.assertEquals(0, metrics.getParseLatency().getCount());
+
+    metrics.setEnabled(true);
+    ArgumentHolder holder = holders.acquire("5", ParseMode.LAZY, "Notch", metrics);
+    Assert.assertEquals(5, (int) holder.getRequiredArgument("amount", Integer.class));
+    Assert.assertEquals(0, metrics.getParseLatency().getCount());
+    holders.release(holder);
+    Assert.assertEquals(1, metrics.getParseLatency().getCount());
+
+    // released holders are not recorded again
+    holders.release(holders.acquire("6", ParseMode.LAZY));
+    Assert.assertEquals(1, metrics.getParseLatency().getCount());
+  }
+}
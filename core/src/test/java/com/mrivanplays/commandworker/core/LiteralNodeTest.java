@@ -1,10 +1,25 @@
 package com.mrivanplays.commandworker.core;
 
+import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.arguments.BoolArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
 import com.mrivanplays.commandworker.core.argument.LiteralArgument;
 import com.mrivanplays.commandworker.core.argument.RequiredArgument;
+import com.mrivanplays.commandworker.core.argument.SuggestionsCache;
+import com.mrivanplays.commandworker.core.argument.TrigramIndex;
+import com.mrivanplays.commandworker.core.argument.parser.ParsePlan;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -58,6 +73,18 @@ public class LiteralNodeTest {
     Assert.assertEquals("baba|[<subcommand>] [<bebebaba123>]|1|10 [<ivancho>]", usage);
   }
 
+  @Test
+  public void testUsageIsStable() {
+    String usage = node1.buildUsage();
+    Assert.assertEquals(usage, node1.buildUsage());
+    node1.freeze();
+
+    Assert.assertEquals(usage, node1.buildUsage());
+    Assert.assertSame(node1.buildUsage(), node1.buildUsage());
+    Assert.assertEquals("/eco " + usage, node1.buildUsage("eco"));
+    Assert.assertSame(node1.buildUsage("eco"), node1.buildUsage("eco"));
+  }
+
   @Test
   public void testCompletions() {
     Assert.assertTrue(node.completeToStringList(new String[] {"a"}).isEmpty());
@@ -72,4 +99,264 @@ public class LiteralNodeTest {
   public void testCompletions2() {
     Assert.assertEquals(1, node.completeToStringList(new String[] {"ba"}).size());
   }
+
+  @Test
+  public void testCompletionsKeepArgumentOrder() {
+    LiteralNode warps =
+        LiteralNode.node()
+            .argument(LiteralArgument.literal("warp-b"))
+            .argument(LiteralArgument.literal("home"))
+            .argument(
+                RequiredArgument.argument("name", StringArgumentType.word())
+                    .suggests(builder -> builder.suggest("warp-c").suggest("spawn")))
+            .argument(LiteralArgument.literal("warp-a"));
+
+    Assert.assertEquals(
+        Arrays.asList("warp-b", "warp-c", "warp-a"),
+        warps.completeToStringList(new String[] {"warp"}));
+    Assert.assertEquals(
+        Arrays.asList("1", "10"), node1.completeToStringList(new String[] {"baba", "1"}));
+  }
+
+  @Test
+  public void testParsePlan() {
+    ParsePlan plan = node.getParsePlan();
+
+    Assert.assertTrue(node.isFrozen());
+    Assert.assertEquals(3, plan.size());
+    Assert.assertEquals("subcommand", plan.getArgument(0).getName());
+    Assert.assertEquals(0, plan.getIndex(0));
+    Assert.assertEquals("bebebaba123", plan.getArgument(1).getName());
+    Assert.assertEquals(1, plan.getIndex(1));
+    Assert.assertEquals("ivancho", plan.getArgument(2).getName());
+    Assert.assertEquals(2, plan.getIndex(2));
+    Assert.assertSame(plan, node.getParsePlan());
+  }
+
+  @Test
+  public void testCompletionsFollowTypedPath() {
+    AtomicInteger lookups = new AtomicInteger();
+    LiteralNode eco = LiteralNode.node();
+    for (String sub : new String[] {"give", "take", "set"}) {
+      eco.argument(
+          LiteralArgument.literal(sub)
+              .then(
+                  RequiredArgument.argument(sub + "Player", StringArgumentType.word())
+                      .suggests(
+                          builder -> {
+                            lookups.incrementAndGet();
+                            builder.suggest(sub + "-target");
+                          })));
+    }
+
+    Assert.assertEquals(
+        Collections.singletonList("give-target"),
+        eco.completeToStringList(new String[] {"give", ""}));
+    Assert.assertEquals(1, lookups.get());
+    Assert.assertTrue(eco.completeToStringList(new String[] {"pay", ""}).isEmpty());
+    Assert.assertEquals(1, lookups.get());
+  }
+
+  @Test
+  public void testCompletionsDontParseCustomTypes() {
+    AtomicInteger parses = new AtomicInteger();
+    ArgumentType<String> warpType =
+        reader -> {
+          parses.incrementAndGet();
+          return reader.readUnquotedString();
+        };
+    LiteralNode pay =
+        LiteralNode.node()
+            .argument(
+                RequiredArgument.argument("amount", IntegerArgumentType.integer(1))
+                    .then(LiteralArgument.literal("coins")))
+            .argument(
+                RequiredArgument.argument("warp", warpType).then(LiteralArgument.literal("go")));
+
+    Assert.assertEquals(
+        Collections.singletonList("coins"), pay.completeToStringList(new String[] {"10", ""}));
+    Assert.assertEquals(
+        Collections.singletonList("go"), pay.completeToStringList(new String[] {"0", ""}));
+    Assert.assertEquals(
+        Collections.singletonList("go"), pay.completeToStringList(new String[] {"spawn", ""}));
+    Assert.assertEquals(0, parses.get());
+  }
+
+  @Test
+  public void testRankedCompletions() {
+    LiteralNode warps = LiteralNode.node().limitCompletions(3);
+    for (String warp : new String[] {"Spawn", "spawnpoint", "shop", "hub_spawn", "sp"}) {
+      warps.argument(LiteralArgument.literal(warp));
+    }
+
+    Assert.assertEquals(
+        Arrays.asList("spawnpoint", "sp", "Spawn"),
+        warps.completeToStringList(new String[] {"sp"}));
+    Assert.assertEquals(
+        Collections.singletonList("hub_spawn"), warps.completeToStringList(new String[] {"hb"}));
+
+    warps.completeToStringList(new String[] {"sp", ""});
+    Assert.assertEquals(
+        Arrays.asList("sp", "spawnpoint", "Spawn"),
+        warps.completeToStringList(new String[] {"sp"}));
+  }
+
+  @Test
+  public void testFuzzyCompletions() {
+    TrigramIndex players = TrigramIndex.of(Arrays.asList("Notch", "jeb_"));
+    LiteralNode warps =
+        LiteralNode.node()
+            .fuzzyCompletions()
+            .argument(LiteralArgument.literal("spawn"))
+            .argument(LiteralArgument.literal("hub_spawn"))
+            .argument(LiteralArgument.literal("shop"))
+            .argument(
+                RequiredArgument.argument("player", StringArgumentType.word())
+                    .suggests(builder -> players.suggest(builder, 10)));
+
+    Assert.assertEquals(
+        Arrays.asList("spawn", "hub_spawn"), warps.completeToStringList(new String[] {"spawn"}));
+    Assert.assertEquals(
+        Collections.singletonList("spawn"), warps.completeToStringList(new String[] {"spwan"}));
+
+    players.add("Notchy");
+    players.remove("Notch");
+    Assert.assertEquals(
+        Collections.singletonList("Notchy"), warps.completeToStringList(new String[] {"ntoch"}));
+    // the counts of a search don't leak into the next one
+    Assert.assertEquals(Collections.singletonList("Notchy"), players.search("notc", 10));
+    Assert.assertEquals(Collections.singletonList("Notchy"), players.search("notc", 10));
+  }
+
+  @Test
+  public void testTrigramIndexRanksExactMatchFirst() {
+    List<String> warps = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      warps.add("spawn" + i);
+    }
+    warps.add("spawn");
+    TrigramIndex index = TrigramIndex.of(warps);
+
+    Assert.assertEquals(
+        Arrays.asList("spawn", "spawn0", "spawn1", "spawn2", "spawn3"), index.search("spawn", 5));
+  }
+
+  @Test
+  public void testAsyncSuggestions() throws Exception {
+    CompletableFuture<Suggestions> database = new CompletableFuture<>();
+    AtomicInteger queries = new AtomicInteger();
+    LiteralNode warps =
+        LiteralNode.node()
+            .argument(
+                RequiredArgument.argument("warp", StringArgumentType.word())
+                    .suggests(builder -> builder.suggest("spawn"))
+                    .suggestsAsync(
+                        builder -> {
+                          queries.incrementAndGet();
+                          return database;
+                        })
+                    .suggestsAsync(
+                        builder -> new CompletableFuture<>(), 50, TimeUnit.MILLISECONDS));
+
+    CompletableFuture<List<String>> completions =
+        warps.completeToStringListAsync(new String[] {"s"});
+    // the blocking completions can't wait for the providers, so they don't start them
+    Assert.assertEquals(
+        Collections.singletonList("spawn"), warps.completeToStringList(new String[] {"s"}));
+    Assert.assertEquals(1, queries.get());
+    Assert.assertFalse(completions.isDone());
+
+    database.complete(new SuggestionsBuilder("s", 0).suggest("shop").build());
+    Assert.assertEquals(Arrays.asList("shop", "spawn"), completions.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testCachedSuggestions() {
+    AtomicInteger calls = new AtomicInteger();
+    SuggestionsCache cache = SuggestionsCache.create(1, TimeUnit.MINUTES, 16, sender -> sender);
+    LiteralNode warps =
+        LiteralNode.node()
+            .argument(
+                RequiredArgument.argument("warp", StringArgumentType.word())
+                    .suggests(
+                        builder -> {
+                          calls.incrementAndGet();
+                          builder.suggest("spawn");
+                        })
+                    .cacheSuggestions(cache));
+
+    Assert.assertEquals(
+        Collections.singletonList("spawn"), warps.completeToStringList(new String[] {"s"}, "a"));
+    Assert.assertEquals(
+        Collections.singletonList("spawn"), warps.completeToStringList(new String[] {"s"}, "a"));
+    Assert.assertEquals(1, calls.get());
+
+    warps.completeToStringList(new String[] {"s"}, "b");
+    warps.completeToStringList(new String[] {"sp"}, "a");
+    Assert.assertEquals(3, calls.get());
+
+    cache.invalidateAll();
+    warps.completeToStringList(new String[] {"s"}, "a");
+    Assert.assertEquals(4, calls.get());
+  }
+
+  @Test
+  public void testArgumentsByName() {
+    Argument unfrozen = node.getArgumentByName("Ivancho").orElse(null);
+    node.freeze();
+
+    Assert.assertSame(unfrozen, node.getArgumentByName("ivancho").orElse(null));
+    Assert.assertSame(unfrozen, node.getArgumentByName("IVANCHO").orElse(null));
+    Assert.assertFalse(node.getArgumentByName("other").isPresent());
+
+    LiteralNode eco =
+        LiteralNode.node()
+            .argument(
+                LiteralArgument.literal("give")
+                    .then(RequiredArgument.argument("player", StringArgumentType.word())))
+            .argument(
+                LiteralArgument.literal("take")
+                    .then(RequiredArgument.argument("player", StringArgumentType.word())));
+    List<Argument> players = eco.getArgumentsByName("player");
+    Assert.assertEquals(2, players.size());
+    Assert.assertSame(players.get(0), eco.getArgumentByName("player").orElse(null));
+  }
+
+  @Test
+  public void testArgumentsByIndex() {
+    List<Argument> unfrozen = node1.getArgumentsByIndex(1);
+    node1.freeze();
+
+    Assert.assertEquals(unfrozen, node1.getArgumentsByIndex(1));
+    Assert.assertSame(node1.getArgumentsByIndex(1), node1.getArgumentsByIndex(1));
+    Assert.assertEquals(1, node1.getArgumentsByIndex(2).size());
+    Assert.assertTrue(node1.getArgumentsByIndex(3).isEmpty());
+  }
+
+  @Test
+  public void testTree() {
+    List<ArgumentNode> tree = node.getTree();
+
+    Assert.assertTrue(node.isFrozen());
+    Assert.assertEquals(2, tree.size());
+    ArgumentNode baba = tree.get(0);
+    Assert.assertTrue(baba.isLiteral());
+    Assert.assertNull(baba.getParent());
+    ArgumentNode ivancho = baba.getChildren().get(0).getChildren().get(0);
+    Assert.assertEquals("ivancho", ivancho.getName());
+    Assert.assertEquals(2, ivancho.getDepth());
+    Assert.assertTrue(ivancho.isLeaf());
+    Assert.assertSame(baba, ivancho.getParent().getParent());
+    Assert.assertFalse(tree.get(1).isLiteral());
+    Assert.assertTrue(tree.get(1).shouldExecuteCommand());
+    Assert.assertSame(baba.getChildren(), baba.getChildren());
+    Assert.assertEquals(2, ivancho.getId());
+    Assert.assertEquals(4, tree.get(1).getId());
+    Assert.assertEquals(2, node.getParsePlan().getIndex(node.getParsePlan().size() - 1));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFrozenNodeRejectsArguments() {
+    node.freeze().argument(LiteralArgument.literal("other"));
+  }
 }
@@ -0,0 +1,165 @@
+package com.mrivanplays.commandworker.core;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.LiteralArgument;
+import com.mrivanplays.commandworker.core.argument.RequiredArgument;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RateLimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  public void testTokenBucket() {
+    RateLimiter limiter = RateLimiter.tokenBucket(2, 1, TimeUnit.SECONDS);
+    long now = 1000 * SECOND;
+    Assert.assertEquals(0, limiter.tryAcquire(1, now));
+    Assert.assertEquals(0, limiter.tryAcquire(1, now));
+    Assert.assertEquals(SECOND, limiter.tryAcquire(1, now));
+    // other senders have buckets of their own
+    Assert.assertEquals(0, limiter.tryAcquire(2, now));
+
+    Assert.assertEquals(SECOND / 2, limiter.tryAcquire(1, now + SECOND / 2));
+    Assert.assertEquals(0, limiter.tryAcquire(1, now + SECOND));
+    Assert.assertEquals(SECOND, limiter.tryAcquire(1, now + SECOND));
+
+    limiter.evict(1);
+    Assert.assertEquals(0, limiter.tryAcquire(1, now + SECOND));
+  }
+
+  @Test
+  public void testExpiredSendersEvicted() {
+    RateLimiter limiter = RateLimiter.cooldown(1, TimeUnit.SECONDS);
+    long now = 1000 * SECOND;
+    for (long id = 0; id < 1000; id++) {
+      Assert.assertEquals(0, limiter.tryAcquire(id, now));
+    }
+    Assert.assertEquals(1000, limiter.size());
+    for (long id = 0; id < 1000; id += 2) {
+      limiter.evict(id);
+    }
+    Assert.assertEquals(500, limiter.size());
+    for (long id = 1; id < 1000; id += 2) {
+      Assert.assertTrue(limiter.tryAcquire(id, now) > 0);
+    }
+
+    // once their cooldowns are over, the senders make room for the new ones
+    for (long id = 1000; id < 2000; id++) {
+      Assert.assertEquals(0, limiter.tryAcquire(id, now + SECOND));
+    }
+    Assert.assertTrue(limiter.size() < 1500);
+  }
+
+  @Test
+  public void testRejectMessage() throws CommandSyntaxException {
+    RateLimiter limiter = RateLimiter.cooldown(2, TimeUnit.MINUTES);
+    limiter.acquire(1);
+    try {
+      limiter.acquire(1);
+      Assert.fail("sender not limited");
+    } catch (CommandSyntaxException e) {
+      Assert.assertEquals("You're doing this too often, try again in 120 seconds", e.getMessage());
+    }
+
+    limiter.rejectMessage("Slow down");
+    Assert.assertEquals("Slow down", limiter.getRejectMessage());
+    try {
+      limiter.acquire(1);
+      Assert.fail("sender not limited");
+    } catch (CommandSyntaxException e) {
+      Assert.assertEquals("Slow down", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testArgumentRateLimit() throws CommandSyntaxException {
+    RateLimiter commandLimiter = RateLimiter.cooldown(1, TimeUnit.HOURS);
+    RateLimiter argumentLimiter =
+        RateLimiter.cooldown(1, TimeUnit.HOURS).rejectMessage("Wait %d seconds");
+    RequiredArgument<String> player =
+        RequiredArgument.argument("player", StringArgumentType.word()).rateLimit(argumentLimiter);
+    RegisteredCommand<String> command =
+        new RegisteredCommand<>(
+            new String[] {"msg"},
+            new Command<String>() {
+              @Override
+              public boolean execute(
+                  @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args) {
+                return true;
+              }
+
+              @Override
+              public @NotNull LiteralNode createCommandStructure() {
+                return LiteralNode.node().argument(player);
+              }
+            },
+            sender -> true,
+            commandLimiter,
+            null);
+    Assert.assertSame(commandLimiter, command.getRateLimiter());
+
+    Argument argument = command.getCommandStructure().getTree().get(0).getArgument();
+    command.checkRateLimit("a");
+    command.checkRateLimit("a", argument);
+    try {
+      command.checkRateLimit("a", argument);
+      Assert.fail("argument not limited");
+    } catch (CommandSyntaxException e) {
+      Assert.assertEquals("Wait 3600 seconds", e.getMessage());
+    }
+    try {
+      command.checkRateLimit("a");
+      Assert.fail("command not limited");
+    } catch (CommandSyntaxException e) {
+      Assert.assertTrue(e.getMessage().startsWith("You're doing this too often"));
+    }
+
+    command.evictSender("a");
+    command.checkRateLimit("a");
+    command.checkRateLimit("a", argument);
+  }
+
+  @Test
+  public void testPathRateLimit() throws CommandSyntaxException {
+    RateLimiter giveLimiter = RateLimiter.cooldown(1, TimeUnit.HOURS).rejectMessage("Slow down");
+    RegisteredCommand<String> command =
+        new RegisteredCommand<>(
+            new String[] {"items"},
+            new Command<String>() {
+              @Override
+              public boolean execute(
+                  @NotNull String sender, @NotNull String label, @NotNull ArgumentHolder args) {
+                return true;
+              }
+
+              @Override
+              public @NotNull LiteralNode createCommandStructure() {
+                return LiteralNode.node()
+                    .argument(
+                        LiteralArgument.literal("give")
+                            .rateLimit(giveLimiter)
+                            .then(RequiredArgument.argument("player", StringArgumentType.word())));
+              }
+            },
+            sender -> true,
+            null,
+            null);
+
+    Argument player =
+        command.getCommandStructure().getTree().get(0).getChildren().get(0).getArgument();
+    command.checkRateLimit("a", player);
+    try {
+      command.checkRateLimit("a", player);
+      Assert.fail("parent argument not limited");
+    } catch (CommandSyntaxException e) {
+      Assert.assertEquals("Slow down", e.getMessage());
+    }
+    command.checkRateLimit("b", player);
+  }
+}
@@ -0,0 +1,13 @@
+package com.mrivanplays.commandworker.core;
+
+// a command manager registering the commands nowhere, for the tests of the core alone
+final class TestCommandManager extends AbstractCommandManager<String> {
+
+  @Override
+  protected void handleRegistration(RegisteredCommand<String> command) {}
+
+  @Override
+  public boolean isBrigadierSupported() {
+    return false;
+  }
+}
@@ -1,10 +1,14 @@
 package com.mrivanplays.commandworker.velocity;
 
 import com.mrivanplays.commandworker.core.AbstractCommandManager;
+import com.mrivanplays.commandworker.core.RateLimiter;
 import com.mrivanplays.commandworker.core.RegisteredCommand;
 import com.mrivanplays.commandworker.velocity.internal.CommandRegistryHandler;
 import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
+import org.jetbrains.annotations.NotNull;
 
 public class VelocityCommandManager extends AbstractCommandManager<CommandSource> {
 
@@ -24,11 +28,33 @@ public class VelocityCommandManager extends AbstractCommandManager<CommandSource
     this.registryHandler = new CommandRegistryHandler(proxy);
   }
 
+  /**
+   * Creates a new command manager, which also forgets what the rate limiters of its commands hold
+   * about the players once they disconnect, through a listener of the specified plugin.
+   *
+   * @param proxy proxy
+   * @param plugin plugin instance
+   */
+  public VelocityCommandManager(ProxyServer proxy, Object plugin) {
+    this(proxy);
+    proxy
+        .getEventManager()
+        .register(plugin, DisconnectEvent.class, event -> evictSender(event.getPlayer()));
+  }
+
   @Override
   protected void handleRegistration(RegisteredCommand<CommandSource> registered) {
     registryHandler.registerCommand(registered, shouldFallback);
   }
 
+  @Override
+  public long getSenderId(@NotNull CommandSource sender) {
+    if (sender instanceof Player) {
+      return RateLimiter.senderId(((Player) sender).getUniqueId());
+    }
+    return System.identityHashCode(sender);
+  }
+
   @Override
   public boolean isBrigadierSupported() {
     return isVelocity1_1_0AndNewer();
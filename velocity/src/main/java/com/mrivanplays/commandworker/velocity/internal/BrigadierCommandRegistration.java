@@ -3,29 +3,42 @@ package com.mrivanplays.commandworker.velocity.internal;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
-import com.mrivanplays.commandworker.core.Command;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mrivanplays.commandworker.core.LiteralNode;
 import com.mrivanplays.commandworker.core.RegisteredCommand;
 import com.mrivanplays.commandworker.core.argument.Argument;
+import com.mrivanplays.commandworker.core.argument.ArgumentNode;
 import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import com.mrivanplays.commandworker.core.metrics.CommandEvent;
+import com.mrivanplays.commandworker.core.metrics.CommandEvents;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
 import com.velocitypowered.api.command.BrigadierCommand;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.ProxyServer;
 import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
+import net.kyori.text.TextComponent;
+import net.kyori.text.format.TextColor;
 
 public class BrigadierCommandRegistration implements CommandRegistration {
 
+  // brigadier reports the exceptions of the commands failing right away, the async ones are
+  // reported the same way the legacy commands report them
+  private static final BiConsumer<CommandSource, CommandSyntaxException> SYNTAX_EXCEPTION_HANDLER =
+      (sender, e) -> sender.sendMessage(TextComponent.of(e.getMessage()).color(TextColor.RED));
+
   @Override
   public void register(ProxyServer proxy, RegisteredCommand<CommandSource> command) {
     for (String alias : command.getAliases()) {
       LiteralArgumentBuilder<CommandSource> builder =
-          LiteralArgumentBuilder.<CommandSource>literal(alias)
-              .requires(command.getPermissionCheckFunction());
+          LiteralArgumentBuilder.<CommandSource>literal(alias).requires(command::hasPermission);
 
       LiteralNode node = command.getCommandStructure();
       if (node.shouldExecuteCommand()) {
-        builder.executes(getBrigadierCommand(command.getCommand(), alias, node));
+        builder.executes(getBrigadierCommand(command, alias, node, null));
       }
 
       if (node.getArguments().isEmpty()) {
@@ -36,39 +49,49 @@ public class BrigadierCommandRegistration implements CommandRegistration {
       LiteralArgumentBuilder<CommandSource> filledBuilder =
           (LiteralArgumentBuilder<CommandSource>)
               handleArguments(
-                  command.getCommand(),
-                  alias,
-                  node.getArguments(),
-                  command.getPermissionCheckFunction(),
-                  node,
-                  builder);
+                  command, alias, node.getTree(), command::hasPermission, node, builder);
 
       proxy.getCommandManager().register(new BrigadierCommand(filledBuilder.build()));
     }
   }
 
   private com.mojang.brigadier.Command<CommandSource> getBrigadierCommand(
-      Command<CommandSource> command, String alias, LiteralNode structure) {
-    return context ->
-        command.execute(
-                context.getSource(),
-                alias,
-                new ArgumentHolder(context.getInput().replace(alias + " ", ""), structure))
-            ? 1
-            : 0;
+      RegisteredCommand<CommandSource> command,
+      String alias,
+      LiteralNode structure,
+      Argument argument) {
+    ArgumentHolderPool holders = structure.getArgumentHolderPool();
+    CommandMetrics metrics = command.getMetrics();
+    return context -> {
+      // the rate limits are checked before parsing, and brigadier reports the rejection
+      command.checkRateLimit(context.getSource());
+      command.checkRateLimit(context.getSource(), argument);
+      // the parse time, lazy parsing included, is recorded once the holder is released
+      ArgumentHolder args =
+          holders.acquire(
+              context.getInput().replace(alias + " ", ""),
+              ParseMode.LAZY,
+              context.getSource(),
+              metrics);
+      try {
+        return command.execute(context.getSource(), alias, args, SYNTAX_EXCEPTION_HANDLER) ? 1 : 0;
+      } finally {
+        holders.release(args);
+      }
+    };
   }
 
   private ArgumentBuilder<CommandSource, ?> handleArguments(
-      Command<CommandSource> command,
+      RegisteredCommand<CommandSource> command,
       String alias,
-      List<Argument> arguments,
+      List<ArgumentNode> arguments,
       Predicate<CommandSource> permissionCheck,
       LiteralNode commandStructure,
       ArgumentBuilder<CommandSource, ?> builder) {
     if (arguments.isEmpty()) {
       return builder;
     }
-    for (Argument argument : arguments) {
+    for (ArgumentNode argument : arguments) {
       builder.then(
           handleArguments(
               command,
@@ -84,37 +107,50 @@ public class BrigadierCommandRegistration implements CommandRegistration {
   }
 
   private LiteralArgumentBuilder<CommandSource> getLiteral(
-      Command<CommandSource> command,
+      RegisteredCommand<CommandSource> command,
       String commandAlias,
-      Argument argument,
+      ArgumentNode argument,
       Predicate<CommandSource> permissionCheck,
       LiteralNode commandStructure) {
     LiteralArgumentBuilder<CommandSource> builder =
         LiteralArgumentBuilder.literal(argument.getName());
     builder.requires(permissionCheck);
     if (argument.shouldExecuteCommand()) {
-      builder.executes(getBrigadierCommand(command, commandAlias, commandStructure));
+      builder.executes(
+          getBrigadierCommand(command, commandAlias, commandStructure, argument.getArgument()));
     }
     return builder;
   }
 
   private RequiredArgumentBuilder<CommandSource, Object> getRequired(
-      Command<CommandSource> command,
+      RegisteredCommand<CommandSource> command,
       String commandAlias,
-      Argument argument,
+      ArgumentNode argument,
       Predicate<CommandSource> permissionCheck,
       LiteralNode commandStructure) {
     RequiredArgumentBuilder<CommandSource, Object> required =
         RequiredArgumentBuilder.argument(argument.getName(), argument.getArgumentType());
     required.requires(permissionCheck);
     if (argument.shouldExecuteCommand()) {
-      required.executes(getBrigadierCommand(command, commandAlias, commandStructure));
+      required.executes(
+          getBrigadierCommand(command, commandAlias, commandStructure, argument.getArgument()));
     }
-    if (argument.getSuggestionsConsumer() != null) {
+    if (argument.hasCustomSuggestions()) {
+      CommandMetrics metrics = command.getMetrics();
       required.suggests(
           (context, builder) -> {
-            argument.getSuggestionsConsumer().accept(builder);
-            return builder.buildFuture();
+            CommandEvent event = CommandEvents.suggest();
+            long start = metrics.start();
+            CommandSource source = context.getSource();
+            return metrics.recordSuggest(
+                start,
+                CommandEvents.commitWhenComplete(
+                    event,
+                    argument.listSuggestions(builder, source),
+                    commandAlias,
+                    argument,
+                    source,
+                    builder.getInput().length()));
           });
     }
     return required;
@@ -1,13 +1,18 @@
 package com.mrivanplays.commandworker.velocity.internal;
 
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mrivanplays.commandworker.core.CommandExceptions;
 import com.mrivanplays.commandworker.core.LiteralNode;
 import com.mrivanplays.commandworker.core.RegisteredCommand;
 import com.mrivanplays.commandworker.core.argument.Argument;
 import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolder;
+import com.mrivanplays.commandworker.core.argument.parser.ArgumentHolderPool;
+import com.mrivanplays.commandworker.core.argument.parser.ParseMode;
+import com.mrivanplays.commandworker.core.metrics.CommandMetrics;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.ProxyServer;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import net.kyori.text.TextComponent;
 import net.kyori.text.format.TextColor;
 
@@ -22,6 +27,9 @@ public class LegacyCommandRegistration implements CommandRegistration {
   @SuppressWarnings("deprecation")
   private static final class LegacyCommand implements com.velocitypowered.api.command.Command {
 
+    private static final TextComponent UNKNOWN_COMMAND =
+        TextComponent.of(CommandExceptions.UNKNOWN_COMMAND.getMessage()).color(TextColor.RED);
+
     private final RegisteredCommand<CommandSource> command;
 
     public LegacyCommand(RegisteredCommand<CommandSource> command) {
@@ -30,46 +38,67 @@ public class LegacyCommandRegistration implements CommandRegistration {
 
     @Override
     public void execute(CommandSource source, String[] args) {
-      LiteralNode structure = command.getCommandStructure();
-      ArgumentHolder holder = new ArgumentHolder(String.join(" ", args), structure);
-      if (args.length == 0 && structure.shouldExecuteCommand()) {
-        executeCommand(source, holder);
-        return;
-      } else if (args.length == 0) {
-        source.sendMessage(
-            TextComponent.of(
-                    CommandSyntaxException.BUILT_IN_EXCEPTIONS
-                        .dispatcherUnknownCommand()
-                        .create()
-                        .getMessage())
-                .color(TextColor.RED));
+      try {
+        // the rate limit of the command is checked before parsing, so rejected spam costs nothing
+        command.checkRateLimit(source);
+      } catch (CommandSyntaxException e) {
+        sendSyntaxException(source, e);
         return;
       }
-      Argument argument = holder.getLastArgument();
-      if (argument.shouldExecuteCommand()) {
-        executeCommand(source, holder);
-      } else {
-        source.sendMessage(
-            TextComponent.of(
-                    CommandSyntaxException.BUILT_IN_EXCEPTIONS
-                        .dispatcherUnknownCommand()
-                        .create()
-                        .getMessage())
-                .color(TextColor.RED));
+      LiteralNode structure = command.getCommandStructure();
+      ArgumentHolderPool holders = structure.getArgumentHolderPool();
+      CommandMetrics metrics = command.getMetrics();
+      // the parse time is recorded once the holder is released
+      ArgumentHolder holder = holders.acquire(args, ParseMode.PATH_DIRECTED, source, metrics);
+      try {
+        if (args.length == 0 && structure.shouldExecuteCommand()) {
+          executeCommand(source, holder, null);
+          return;
+        } else if (args.length == 0) {
+          source.sendMessage(UNKNOWN_COMMAND);
+          return;
+        }
+        Argument argument = holder.getLastArgument();
+        if (argument != null && argument.shouldExecuteCommand()) {
+          executeCommand(source, holder, argument);
+        } else {
+          source.sendMessage(UNKNOWN_COMMAND);
+        }
+      } finally {
+        holders.release(holder);
       }
     }
 
-    private void executeCommand(CommandSource sender, ArgumentHolder args) {
+    private void executeCommand(CommandSource sender, ArgumentHolder args, Argument argument) {
       try {
-        command.getCommand().execute(sender, "unknown", args);
+        command.checkRateLimit(sender, argument);
+        command.execute(sender, "unknown", args, LegacyCommand::sendSyntaxException);
       } catch (CommandSyntaxException e) {
-        sender.sendMessage(TextComponent.of(e.getMessage()).color(TextColor.RED));
+        sendSyntaxException(sender, e);
       }
     }
 
+    private static void sendSyntaxException(CommandSource sender, CommandSyntaxException e) {
+      sender.sendMessage(TextComponent.of(e.getMessage()).color(TextColor.RED));
+    }
+
     @Override
     public List<String> suggest(CommandSource source, String[] currentArgs) {
-      return command.getCommandStructure().completeToStringList(currentArgs);
+      CommandMetrics metrics = command.getMetrics();
+      long start = metrics.start();
+      List<String> completions =
+          command.getCommandStructure().completeToStringList(currentArgs, source);
+      metrics.recordSuggest(start);
+      return completions;
+    }
+
+    @Override
+    public CompletableFuture<List<String>> suggestAsync(
+        CommandSource source, String[] currentArgs) {
+      CommandMetrics metrics = command.getMetrics();
+      long start = metrics.start();
+      return metrics.recordSuggest(
+          start, command.getCommandStructure().completeToStringListAsync(currentArgs, source));
     }
 
     @Override